@@ -6,24 +6,31 @@ import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hdschools.timebank.model.Token;
+import org.hdschools.timebank.service.TenantRegistry;
 import org.hdschools.timebank.service.TokenService;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
 
 /**
  * Intercepts requests to validate authentication tokens and refresh their expiration.
  * Implements rolling 30-minute token expiration on each successful request.
+ * <p>
+ * Also sets the request's school in {@link TenantContext} from the token's prefix, before the token
+ * lookup, so the lookup and everything after it run against that school's database.
  */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class AuthenticationInterceptor implements HandlerInterceptor {
+public class AuthenticationInterceptor implements AsyncHandlerInterceptor {
 
     private final TokenService tokenService;
+    private final TenantRegistry tenantRegistry;
+    private final ErrorEnvelopes errorEnvelopes;
 
     public static final String TOKEN_ATTRIBUTE = "authenticatedToken";
     public static final String USER_ID_ATTRIBUTE = "authenticatedUserId";
     public static final String USER_TYPE_ATTRIBUTE = "authenticatedUserType";
+    public static final String TENANT_ATTRIBUTE = "authenticatedTenant";
 
     /**
      * Validates the authentication token and refreshes its expiration.
@@ -38,6 +45,8 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
     @Override
     public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) 
             throws Exception {
+        // Servlet threads are reused; never let a school leak from a request that ended abnormally
+        TenantContext.clear();
         String path = request.getRequestURI();
         
         // Only apply authentication to /stu/ and /sta/ paths
@@ -54,22 +63,29 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
         String authHeader = request.getHeader("Authorization");
         if (authHeader == null || !authHeader.startsWith("Bearer ")) {
             log.warn("Missing or invalid Authorization header for path={}", path);
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType("application/json");
-            response.getWriter().write("{\"status\":\"error\",\"message\":\"Authentication required\",\"data\":null}");
+            errorEnvelopes.write(request, response, HttpServletResponse.SC_UNAUTHORIZED,
+                    ErrorEnvelopes.AUTHENTICATION_REQUIRED);
             return false;
         }
 
         String tokenString = authHeader.substring(7); // Remove "Bearer " prefix
+        String tenantId = TokenService.tenantOf(tokenString);
+        if (!tenantRegistry.exists(tenantId)) {
+            log.warn("Token for unknown school for path={}", path);
+            errorEnvelopes.write(request, response, HttpServletResponse.SC_UNAUTHORIZED,
+                    ErrorEnvelopes.INVALID_TOKEN);
+            return false;
+        }
+        TenantContext.set(tenantId);
 
         // Validate and refresh token
         Optional<Token> tokenOpt = tokenService.validateAndRefreshToken(tokenString);
         
         if (tokenOpt.isEmpty()) {
+            TenantContext.clear();
             log.warn("Invalid or expired token for path={}", path);
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.setContentType("application/json");
-            response.getWriter().write("{\"status\":\"error\",\"message\":\"Invalid or expired token\",\"data\":null}");
+            errorEnvelopes.write(request, response, HttpServletResponse.SC_UNAUTHORIZED,
+                    ErrorEnvelopes.INVALID_TOKEN);
             return false;
         }
 
@@ -78,10 +94,39 @@ public class AuthenticationInterceptor implements HandlerInterceptor {
         request.setAttribute(TOKEN_ATTRIBUTE, token);
         request.setAttribute(USER_ID_ATTRIBUTE, token.getUserId());
         request.setAttribute(USER_TYPE_ATTRIBUTE, token.getUserType());
+        request.setAttribute(TENANT_ATTRIBUTE, tenantId);
         
-        log.debug("Authenticated request: userId={}, userType={}, path={}", 
-                token.getUserId(), token.getUserType(), path);
+        log.debug("Authenticated request: userId={}, userType={}, tenant={}, path={}", 
+                token.getUserId(), token.getUserType(), tenantId, path);
 
         return true;
     }
+
+    /**
+     * Resets the thread to the default school once the request completes.
+     *
+     * @param request  current HTTP request
+     * @param response current HTTP response
+     * @param handler  chosen handler to execute
+     * @param ex       optional exception thrown during execution
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        TenantContext.clear();
+    }
+
+    /**
+     * Resets the thread to the default school when a request continues asynchronously.
+     * The async dispatch that completes it authenticates, and sets the school, again.
+     *
+     * @param request  current HTTP request
+     * @param response current HTTP response
+     * @param handler  chosen handler to execute
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        TenantContext.clear();
+    }
 }
@@ -0,0 +1,41 @@
+package org.hdschools.timebank.config;
+
+import java.util.Locale;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Exposes the request's database totals so far as response headers, outside production.
+ * Adds {@code X-DB-Statements} and a {@code Server-Timing} entry that browser dev tools display.
+ */
+@ControllerAdvice
+@Profile("!prod")
+@RequiredArgsConstructor
+public class DbTimeHeadersAdvice implements ResponseBodyAdvice<Object> {
+
+    private final DbTimeTracker dbTimeTracker;
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        DbTimeTracker.Totals totals = dbTimeTracker.current();
+        if (totals != null) {
+            response.getHeaders().set("X-DB-Statements", String.valueOf(totals.getStatements()));
+            response.getHeaders().add("Server-Timing", String.format(Locale.ROOT, "db;dur=%.2f", totals.getMillis()));
+        }
+        return body;
+    }
+}
@@ -0,0 +1,114 @@
+package org.hdschools.timebank.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.regex.Pattern;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Accumulates JDBC statement counts and time for the request running on the current thread,
+ * and reports statements slower than {@code timebank.db.slow-query-threshold} to the
+ * {@code timebank.slow-query} logger.
+ * <p>
+ * {@link LoggingInterceptor} opens and closes the per-request totals. Statements on threads without
+ * an open request, such as scheduled jobs and streamed exports, only feed the slow-query log.
+ * Slow statements are logged with placeholders only: bound values are never logged, and string
+ * literals in the SQL text are masked.
+ */
+@Component
+public class DbTimeTracker implements QueryExecutionListener {
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("timebank.slow-query");
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+
+    private final ThreadLocal<Totals> currentTotals = new ThreadLocal<>();
+    private final ThreadLocal<Long> statementStart = new ThreadLocal<>();
+    private final long slowQueryThresholdNanos;
+
+    public DbTimeTracker(@Value("${timebank.db.slow-query-threshold:250ms}") Duration slowQueryThreshold) {
+        this.slowQueryThresholdNanos = slowQueryThreshold.toNanos();
+    }
+
+    /**
+     * Starts fresh totals for the request on the current thread.
+     */
+    public void begin() {
+        currentTotals.set(new Totals());
+    }
+
+    /**
+     * Returns the totals of the request on the current thread.
+     *
+     * @return the running totals, or {@code null} outside a request
+     */
+    public Totals current() {
+        return currentTotals.get();
+    }
+
+    /**
+     * Closes the totals of the request on the current thread.
+     *
+     * @return the final totals, or {@code null} if none were open
+     */
+    public Totals end() {
+        Totals totals = currentTotals.get();
+        currentTotals.remove();
+        return totals;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        statementStart.set(System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = statementStart.get();
+        long elapsed = start != null ? System.nanoTime() - start : Duration.ofMillis(execInfo.getElapsedTime()).toNanos();
+        statementStart.remove();
+
+        Totals totals = currentTotals.get();
+        if (totals != null) {
+            totals.statements += queryInfoList.size();
+            totals.nanos += elapsed;
+        }
+
+        if (elapsed >= slowQueryThresholdNanos) {
+            for (QueryInfo queryInfo : queryInfoList) {
+                slowQueryLog.warn("Slow statement: elapsedMs={}, success={}, batchSize={}, sql={}",
+                        elapsed / 1_000_000, execInfo.isSuccess(), Math.max(1, queryInfo.getParametersList().size()),
+                        redact(queryInfo.getQuery()));
+            }
+        }
+    }
+
+    static String redact(String sql) {
+        return STRING_LITERAL.matcher(sql).replaceAll("'?'");
+    }
+
+    /**
+     * Statement count and time accumulated for one request.
+     */
+    public static final class Totals {
+        private int statements;
+        private long nanos;
+
+        public int getStatements() {
+            return statements;
+        }
+
+        public double getMillis() {
+            return nanos / 1_000_000.0;
+        }
+
+        public long getNanos() {
+            return nanos;
+        }
+    }
+}
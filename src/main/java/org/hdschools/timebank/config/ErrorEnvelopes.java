@@ -0,0 +1,110 @@
+package org.hdschools.timebank.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.hdschools.timebank.model.ApiResponse;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+
+/**
+ * Writes error {@link ApiResponse} envelopes from interceptors, which run before message conversion.
+ * <p>
+ * Envelopes are serialized once per message and encoding and then served as cached bytes,
+ * honouring the same {@code Accept} negotiation as controller responses.
+ * Only pass constant messages, since every distinct message stays cached.
+ */
+@Component
+public class ErrorEnvelopes {
+
+    public static final String AUTHENTICATION_REQUIRED = "Authentication required";
+    public static final String INVALID_TOKEN = "Invalid or expired token";
+    public static final String TOO_MANY_REQUESTS = "Too many requests";
+
+    private static final MediaType APPLICATION_SMILE = new MediaType("application", "x-jackson-smile");
+
+    private final Map<MediaType, ObjectWriter> writers;
+    private final Map<MediaType, Map<String, byte[]>> envelopes = new ConcurrentHashMap<>();
+
+    public ErrorEnvelopes(ObjectMapper objectMapper,
+                          MappingJackson2CborHttpMessageConverter cborHttpMessageConverter,
+                          MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter) {
+        this.writers = Map.of(
+                MediaType.APPLICATION_JSON, objectMapper.writerFor(ApiResponse.class),
+                MediaType.APPLICATION_CBOR, cborHttpMessageConverter.getObjectMapper().writerFor(ApiResponse.class),
+                APPLICATION_SMILE, smileHttpMessageConverter.getObjectMapper().writerFor(ApiResponse.class));
+        for (MediaType mediaType : writers.keySet()) {
+            for (String message : List.of(AUTHENTICATION_REQUIRED, INVALID_TOKEN, TOO_MANY_REQUESTS)) {
+                envelope(mediaType, message);
+            }
+        }
+    }
+
+    /**
+     * Writes an error envelope with the given status, encoded as the client accepts.
+     *
+     * @param request  current HTTP request
+     * @param response current HTTP response
+     * @param status   HTTP status code
+     * @param message  constant error message
+     * @throws IOException if the response cannot be written
+     */
+    public void write(HttpServletRequest request, HttpServletResponse response, int status, String message)
+            throws IOException {
+        MediaType mediaType = negotiate(request.getHeader("Accept"));
+        byte[] body = envelope(mediaType, message);
+        response.setStatus(status);
+        response.setContentType(mediaType.toString());
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private byte[] envelope(MediaType mediaType, String message) {
+        return envelopes.computeIfAbsent(mediaType, type -> new ConcurrentHashMap<>())
+                .computeIfAbsent(message, key -> {
+                    try {
+                        return writers.get(mediaType).writeValueAsBytes(new ApiResponse<>("error", key, null));
+                    } catch (JsonProcessingException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Picks the first supported encoding in the Accept header, defaulting to JSON.
+     */
+    private static MediaType negotiate(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return MediaType.APPLICATION_JSON;
+        }
+        try {
+            List<MediaType> accepted = MediaType.parseMediaTypes(accept);
+            MimeTypeUtils.sortBySpecificity(accepted);
+            for (MediaType candidate : accepted) {
+                if (candidate.isWildcardType() || candidate.includes(MediaType.APPLICATION_JSON)) {
+                    return MediaType.APPLICATION_JSON;
+                }
+                if (candidate.includes(MediaType.APPLICATION_CBOR)) {
+                    return MediaType.APPLICATION_CBOR;
+                }
+                if (candidate.includes(APPLICATION_SMILE)) {
+                    return APPLICATION_SMILE;
+                }
+            }
+        } catch (InvalidMediaTypeException e) {
+            // Fall through to JSON, as for a missing header
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+}
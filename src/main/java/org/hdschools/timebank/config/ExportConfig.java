@@ -0,0 +1,28 @@
+package org.hdschools.timebank.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+@Configuration
+public class ExportConfig {
+
+    /**
+     * Small bounded pool that runs ledger exports, so long-running exports cannot occupy the servlet
+     * request threads. Only the export uses it; other async requests keep Spring MVC's defaults.
+     * Tasks run as the school of the request that started them.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor exportTaskExecutor(
+            @Value("${timebank.export.threads:2}") int threads,
+            @Value("${timebank.export.queue-capacity:10}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("export-");
+        executor.setTaskDecorator(TenantContext::wrap);
+        return executor;
+    }
+}
@@ -0,0 +1,65 @@
+package org.hdschools.timebank.config;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Keeps a continuous flight recording with the bundled {@code jfr/timebank.jfc} settings layered over
+ * the JDK "default" profile, so the {@code timebank.*} events are captured alongside the JVM's own.
+ * <p>
+ * The recording keeps the last {@code timebank.jfr.max-age} of data, up to {@code timebank.jfr.max-size},
+ * and is written to {@code timebank.jfr.destination} on shutdown. Dump it on demand with
+ * {@code jcmd <pid> JFR.dump name=timebank filename=...}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "timebank.jfr", name = "enabled", havingValue = "true")
+@Slf4j
+public class FlightRecordingConfig {
+
+    static final String SETTINGS_RESOURCE = "jfr/timebank.jfc";
+
+    private final Recording recording;
+
+    public FlightRecordingConfig(@Value("${timebank.jfr.max-age:6h}") Duration maxAge,
+                                 @Value("${timebank.jfr.max-size:250MB}") DataSize maxSize,
+                                 @Value("${timebank.jfr.destination:timebank.jfr}") Path destination)
+            throws IOException, ParseException {
+        Map<String, String> settings = new HashMap<>(Configuration.getConfiguration("default").getSettings());
+        try (Reader reader = new InputStreamReader(
+                new ClassPathResource(SETTINGS_RESOURCE).getInputStream(), StandardCharsets.UTF_8)) {
+            settings.putAll(Configuration.create(reader).getSettings());
+        }
+
+        recording = new Recording(settings);
+        recording.setName("timebank");
+        recording.setMaxAge(maxAge);
+        recording.setMaxSize(maxSize.toBytes());
+        recording.setDestination(destination);
+        recording.setToDisk(true);
+        recording.start();
+        log.info("Started flight recording: maxAge={}, maxSize={}, destination={}", maxAge, maxSize, destination);
+    }
+
+    @PreDestroy
+    void stop() {
+        // Stopping writes the retained data to the destination
+        recording.stop();
+        recording.close();
+    }
+}
@@ -0,0 +1,51 @@
+package org.hdschools.timebank.config;
+
+import javax.sql.DataSource;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Routes the application's {@link DataSource} through a datasource-proxy that reports every statement
+ * to {@link DbTimeTracker}.
+ */
+@Configuration(proxyBeanMethods = false)
+public class JdbcInstrumentationConfig {
+
+    @Bean
+    public static BeanPostProcessor instrumentedDataSourcePostProcessor(ObjectProvider<DbTimeTracker> dbTimeTracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource) {
+                    return withListener(dataSource, beanName, dbTimeTracker.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Adds a listener to a data source, wrapping it in a proxy unless it already is one,
+     * so that each statement is reported once however many listeners are attached.
+     *
+     * @param dataSource the data source
+     * @param name       name for the proxy
+     * @param listener   the listener to add
+     * @return the proxied data source
+     */
+    public static DataSource withListener(DataSource dataSource, String name, QueryExecutionListener listener) {
+        if (dataSource instanceof ProxyDataSource proxy) {
+            proxy.getProxyConfig().getQueryListener().addListener(listener);
+            return proxy;
+        }
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name(name)
+                .listener(listener)
+                .build();
+    }
+}
@@ -2,16 +2,27 @@ package org.hdschools.timebank.config;
 
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.jfr.ControllerInvocationEvent;
+import org.hdschools.timebank.util.AuthenticationHelper;
 import org.springframework.stereotype.Component;
-import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
 
 /**
- * Intercepts every HTTP request to log incoming and completion details.
+ * Intercepts every HTTP request to log incoming and completion details,
+ * including the statements and time the request spent in the database.
+ * Also records a {@link ControllerInvocationEvent} per request when flight recording is enabled.
  */
 @Slf4j
 @Component
-public class LoggingInterceptor implements HandlerInterceptor {
+@RequiredArgsConstructor
+public class LoggingInterceptor implements AsyncHandlerInterceptor {
+
+    private static final String INVOCATION_EVENT_ATTRIBUTE = LoggingInterceptor.class.getName() + ".invocationEvent";
+
+    private final DbTimeTracker dbTimeTracker;
 
     /**
      * Logs details about every incoming HTTP request before it reaches a controller.
@@ -28,6 +39,13 @@ public class LoggingInterceptor implements HandlerInterceptor {
                 request.getRequestURI(),
                 request.getRemoteAddr(),
                 request.getQueryString());
+        dbTimeTracker.begin();
+
+        ControllerInvocationEvent event = new ControllerInvocationEvent();
+        if (event.isEnabled()) {
+            event.begin();
+            request.setAttribute(INVOCATION_EVENT_ATTRIBUTE, event);
+        }
         return true;
     }
 
@@ -41,10 +59,62 @@ public class LoggingInterceptor implements HandlerInterceptor {
      */
     @Override
     public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
-        log.info("Completed request: method={}, uri={}, status={}, exception={}",
+        DbTimeTracker.Totals db = dbTimeTracker.end();
+        log.info("Completed request: method={}, uri={}, status={}, dbStatements={}, dbTimeMs={}, exception={}",
                 request.getMethod(),
                 request.getRequestURI(),
                 response.getStatus(),
+                db != null ? db.getStatements() : 0,
+                db != null ? String.format("%.2f", db.getMillis()) : "0.00",
                 ex != null ? ex.getMessage() : "none");
+
+        if (request.getAttribute(INVOCATION_EVENT_ATTRIBUTE) instanceof ControllerInvocationEvent event) {
+            request.removeAttribute(INVOCATION_EVENT_ATTRIBUTE);
+            commitInvocationEvent(event, request, response, ex, db);
+        }
+    }
+
+    /**
+     * Closes the database totals when a request continues asynchronously on another thread.
+     * The async dispatch that completes it starts new totals.
+     *
+     * @param request  current HTTP request
+     * @param response current HTTP response
+     * @param handler  chosen handler to execute
+     */
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response,
+                                               Object handler) {
+        dbTimeTracker.end();
+    }
+
+    private static void commitInvocationEvent(ControllerInvocationEvent event, HttpServletRequest request,
+                                              HttpServletResponse response, Exception ex, DbTimeTracker.Totals db) {
+        event.end();
+        if (!event.shouldCommit()) {
+            return;
+        }
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String userType = AuthenticationHelper.getAuthenticatedUserType(request);
+        int status = response.getStatus();
+
+        event.method = request.getMethod();
+        event.endpoint = pattern != null ? pattern.toString() : request.getRequestURI();
+        event.userType = userType != null ? userType : "anonymous";
+        event.status = status;
+        if (ex != null) {
+            event.outcome = ex.getClass().getSimpleName();
+        } else if (status >= 500) {
+            event.outcome = "server-error";
+        } else if (status >= 400) {
+            event.outcome = "client-error";
+        } else {
+            event.outcome = "success";
+        }
+        if (db != null) {
+            event.dbStatements = db.getStatements();
+            event.dbTime = db.getNanos();
+        }
+        event.commit();
     }
 }
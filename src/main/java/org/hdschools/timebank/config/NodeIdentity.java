@@ -0,0 +1,40 @@
+package org.hdschools.timebank.config;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.util.UUID;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Identifies this application instance among the nodes sharing a database.
+ * <p>
+ * The {@link #getId() ID} uses {@code timebank.node-id} if set, otherwise the host name plus a random
+ * suffix, so it is unique per run. The {@link #getStableName() stable name} is {@code timebank.node-id}
+ * or the bare host name, so it survives restarts; it keys state a node persists for itself. Nodes
+ * sharing a host must set {@code timebank.node-id}.
+ */
+@Slf4j
+@Getter
+@Component
+public class NodeIdentity {
+
+    private final String id;
+    private final String stableName;
+
+    public NodeIdentity(@Value("${timebank.node-id:}") String configuredId) {
+        this.stableName = configuredId.isBlank() ? hostName() : configuredId;
+        this.id = configuredId.isBlank() ? stableName + "-" + UUID.randomUUID().toString().substring(0, 8) : configuredId;
+        log.info("Node identity: {}", id);
+    }
+
+    private static String hostName() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return "node";
+        }
+    }
+}
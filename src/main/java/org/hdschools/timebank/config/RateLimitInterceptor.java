@@ -0,0 +1,128 @@
+package org.hdschools.timebank.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.util.TokenBucket;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Applies per-client token-bucket rate limiting to /stu/ and /sta/ paths.
+ * <p>
+ * Runs before {@link AuthenticationInterceptor} so over-limit requests are rejected with 429
+ * before any database work, including the token lookup. A bearer token keys its own buckets (one
+ * active token per user) only once a request carrying it has authenticated; until then, and for
+ * requests without one such as logins, clients are keyed by their remote address, so made-up tokens
+ * cannot each claim a fresh budget.
+ * <p>
+ * The non-blocking {@code /rx/stu/} endpoints share the budgets and buckets of their {@code /stu/}
+ * counterparts, so switching paths never doubles a client's allowance. They authenticate in the
+ * controller, so a token seen only on those paths stays keyed by address.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RateLimitInterceptor implements HandlerInterceptor {
+
+    private static final String REACTIVE_PREFIX = "/rx/";
+
+    private final RateLimitProperties properties;
+    private final ErrorEnvelopes errorEnvelopes;
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Map<String, Long> authenticatedTokens = new ConcurrentHashMap<>();
+
+    /**
+     * Takes a token from the caller's bucket for the requested endpoint.
+     * If none is available, returns 429 Too Many Requests with a Retry-After header.
+     *
+     * @param request  current HTTP request
+     * @param response current HTTP response
+     * @param handler  chosen handler to execute
+     * @return {@code true} if the request is within budget, {@code false} otherwise
+     */
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler)
+            throws Exception {
+        if (!properties.isEnabled()) {
+            return true;
+        }
+
+        String path = request.getRequestURI();
+        if (path.startsWith(REACTIVE_PREFIX)) {
+            path = path.substring(REACTIVE_PREFIX.length() - 1);
+        }
+        RateLimitProperties.Budget budget = properties.getEndpoints().get(path);
+        if (budget == null) {
+            if (path.startsWith("/stu/")) {
+                budget = properties.getStudent();
+            } else if (path.startsWith("/sta/")) {
+                budget = properties.getStaff();
+            } else {
+                return true;
+            }
+        }
+
+        long now = System.nanoTime();
+        String token = bearerToken(request);
+        String clientKey = token != null && authenticatedTokens.computeIfPresent(token, (key, seen) -> now) != null
+                ? token
+                : "addr:" + request.getRemoteAddr();
+
+        RateLimitProperties.Budget limit = budget;
+        TokenBucket bucket = buckets.computeIfAbsent(path + "|" + clientKey,
+                key -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+
+        if (bucket.tryConsume(now)) {
+            return true;
+        }
+
+        log.warn("Rate limit exceeded for path={}, remoteAddr={}", path, request.getRemoteAddr());
+        response.setHeader("Retry-After", String.valueOf(bucket.secondsUntilNextToken(now)));
+        errorEnvelopes.write(request, response, HttpStatus.TOO_MANY_REQUESTS.value(), ErrorEnvelopes.TOO_MANY_REQUESTS);
+        return false;
+    }
+
+    /**
+     * Remembers the bearer token of a request that authenticated, so the client's later requests
+     * are keyed by the token rather than by its address.
+     *
+     * @param request  current HTTP request
+     * @param response current HTTP response
+     * @param handler  chosen handler to execute
+     * @param ex       optional exception thrown during execution
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        String token = bearerToken(request);
+        if (token != null && request.getAttribute(AuthenticationInterceptor.TOKEN_ATTRIBUTE) != null) {
+            authenticatedTokens.put(token, System.nanoTime());
+        }
+    }
+
+    /**
+     * Evicts buckets that have been idle longer than the configured timeout,
+     * keeping memory proportional to the number of recently active clients.
+     */
+    @Scheduled(fixedDelayString = "${timebank.rate-limit.eviction-interval-ms:60000}")
+    public void evictIdleBuckets() {
+        long now = System.nanoTime();
+        long idleLimit = properties.getIdleTimeout().toNanos();
+        int before = buckets.size();
+        buckets.values().removeIf(bucket -> bucket.idleNanos(now) > idleLimit);
+        authenticatedTokens.values().removeIf(seen -> now - seen > idleLimit);
+        log.debug("Evicted {} idle rate limit buckets", before - buckets.size());
+    }
+
+    private static String bearerToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+        return authHeader != null && authHeader.startsWith("Bearer ") ? authHeader.substring(7) : null;
+    }
+}
@@ -0,0 +1,58 @@
+package org.hdschools.timebank.config;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Rate limiting budgets, bound from {@code timebank.rate-limit.*}.
+ * <p>
+ * Student and staff paths have separate default budgets. Individual endpoints can override them, e.g.
+ * {@code timebank.rate-limit.endpoints[/stu/updatePointsRequest].capacity=5}.
+ */
+@Data
+@ConfigurationProperties(prefix = "timebank.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    /**
+     * Default budget for /stu/ paths.
+     */
+    private Budget student = new Budget(30, 1.0);
+
+    /**
+     * Default budget for /sta/ paths.
+     */
+    private Budget staff = new Budget(120, 5.0);
+
+    /**
+     * Per-endpoint budgets keyed by request path.
+     */
+    private Map<String, Budget> endpoints = new HashMap<>();
+
+    /**
+     * Buckets untouched for this long are evicted.
+     */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Budget {
+
+        /**
+         * Maximum burst size.
+         */
+        private int capacity;
+
+        /**
+         * Sustained requests per second.
+         */
+        private double refillPerSecond;
+    }
+}
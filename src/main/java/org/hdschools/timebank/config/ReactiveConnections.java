@@ -0,0 +1,76 @@
+package org.hdschools.timebank.config;
+
+import io.r2dbc.pool.ConnectionPool;
+import io.r2dbc.pool.ConnectionPoolConfiguration;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.connection.R2dbcTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import org.springframework.util.StringUtils;
+
+/**
+ * Holds the R2DBC connection pool used by the non-blocking request path.
+ * <p>
+ * Enabled with {@code timebank.reactive.enabled}. The pool is deliberately not exposed as a
+ * {@code ConnectionFactory} bean, and its transaction manager not as a bean either, so JPA keeps the
+ * only {@code TransactionManager} in the context and schema initialization stays on JDBC.
+ * Credentials default to the JDBC ones, since both pools reach the same database.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "timebank.reactive.enabled", havingValue = "true")
+public class ReactiveConnections {
+
+    private final ConnectionPool pool;
+    private final DatabaseClient databaseClient;
+    private final TransactionalOperator transactionalOperator;
+
+    public ReactiveConnections(@Value("${timebank.reactive.url}") String url,
+                               @Value("${timebank.reactive.username:${spring.datasource.username:}}") String username,
+                               @Value("${timebank.reactive.password:${spring.datasource.password:}}") String password,
+                               @Value("${timebank.reactive.pool-size:20}") int poolSize) {
+        ConnectionFactoryOptions.Builder options = ConnectionFactoryOptions.parse(url).mutate();
+        if (StringUtils.hasText(username)) {
+            options.option(ConnectionFactoryOptions.USER, username);
+            options.option(ConnectionFactoryOptions.PASSWORD, password);
+        }
+        this.pool = new ConnectionPool(ConnectionPoolConfiguration
+                .builder(ConnectionFactories.get(options.build()))
+                .name("reactive")
+                .initialSize(0)
+                .maxSize(poolSize)
+                .build());
+        this.databaseClient = DatabaseClient.create(pool);
+        this.transactionalOperator = TransactionalOperator.create(new R2dbcTransactionManager(pool));
+        log.info("Reactive request path enabled with up to {} R2DBC connections", poolSize);
+    }
+
+    /**
+     * Returns the client for non-blocking statements.
+     *
+     * @return the database client
+     */
+    public DatabaseClient client() {
+        return databaseClient;
+    }
+
+    /**
+     * Returns the operator that runs a publisher in one R2DBC transaction.
+     *
+     * @return the transactional operator
+     */
+    public TransactionalOperator transactional() {
+        return transactionalOperator;
+    }
+
+    @PreDestroy
+    void close() {
+        pool.dispose();
+    }
+}
@@ -0,0 +1,63 @@
+package org.hdschools.timebank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.List;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Replaces the auto-configured data source with one that sends read-only transactions to replicas.
+ * <p>
+ * Writes and read-write transactions use the primary from {@code spring.datasource.*}.
+ * Connections are obtained lazily, so the routing decision is made after the transaction's
+ * read-only flag is known.
+ */
+@Slf4j
+@Configuration
+@EnableConfigurationProperties(ReadReplicaProperties.class)
+@ConditionalOnProperty(prefix = "timebank.datasource.read-replicas", name = "enabled", havingValue = "true")
+public class ReadReplicaDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 ReadReplicaProperties readReplicaProperties,
+                                 ReadYourWritesTracker readYourWritesTracker) {
+        DataSource primary = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+
+        List<DataSource> replicas = readReplicaProperties.getReplicas().stream()
+                .map(replica -> (DataSource) DataSourceBuilder.create()
+                        .type(HikariDataSource.class)
+                        .url(replica.getUrl())
+                        .username(replica.getUsername())
+                        .password(replica.getPassword())
+                        .build())
+                .toList();
+        log.info("Routing read-only transactions across {} replica(s)", replicas.size());
+
+        return routingDataSource(primary, replicas, readYourWritesTracker);
+    }
+
+    /**
+     * Builds the lazy primary proxy whose read-only variant routes across the replicas.
+     *
+     * @param primary               the primary (read-write) data source
+     * @param replicas              the replica data sources
+     * @param readYourWritesTracker tracker deciding when reads must stay on the primary
+     * @return the routing data source
+     */
+    static DataSource routingDataSource(DataSource primary, List<DataSource> replicas,
+                                        ReadYourWritesTracker readYourWritesTracker) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(new ReplicaRoutingDataSource(primary, replicas, readYourWritesTracker));
+        return proxy;
+    }
+}
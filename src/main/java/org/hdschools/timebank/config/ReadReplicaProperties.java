@@ -0,0 +1,25 @@
+package org.hdschools.timebank.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Read replica connection settings, bound from {@code timebank.datasource.read-replicas.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "timebank.datasource.read-replicas")
+public class ReadReplicaProperties {
+
+    private boolean enabled = false;
+
+    private List<Replica> replicas = new ArrayList<>();
+
+    @Data
+    public static class Replica {
+        private String url;
+        private String username;
+        private String password;
+    }
+}
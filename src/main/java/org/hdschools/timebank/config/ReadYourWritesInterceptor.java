@@ -0,0 +1,39 @@
+package org.hdschools.timebank.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+/**
+ * Marks the authenticated user as a recent writer after every successful non-GET request,
+ * so their follow-up reads are served from the primary database.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    /**
+     * Records the write once the request has completed.
+     *
+     * @param request  current HTTP request
+     * @param response current HTTP response
+     * @param handler  chosen handler to execute
+     * @param ex       optional exception thrown during execution
+     */
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if ("GET".equals(request.getMethod()) || ex != null || response.getStatus() >= 400) {
+            return;
+        }
+        Long userId = AuthenticationHelper.getAuthenticatedUserId(request);
+        String userType = AuthenticationHelper.getAuthenticatedUserType(request);
+        if (userId != null && userType != null) {
+            readYourWritesTracker.recordWrite(userType, userId);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package org.hdschools.timebank.config;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+/**
+ * Remembers which users wrote recently so their reads can be pinned to the primary database
+ * until replicas have had time to catch up.
+ */
+@Component
+public class ReadYourWritesTracker {
+
+    private final Duration window;
+    private final Map<String, Instant> lastWrites = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(
+            @Value("${timebank.datasource.read-replicas.read-your-writes-window:5s}") Duration window) {
+        this.window = window;
+    }
+
+    /**
+     * Records that a user has just written to the primary database.
+     *
+     * @param userType the user's type ("student" or "staff")
+     * @param userId   the user's ID
+     */
+    public void recordWrite(String userType, Long userId) {
+        lastWrites.put(TenantContext.key(userType + ":" + userId), Instant.now());
+    }
+
+    /**
+     * Checks whether the user of the current HTTP request wrote within the read-your-writes window.
+     *
+     * @return {@code true} if reads for the current request should stay on the primary
+     */
+    public boolean currentUserWroteRecently() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return false;
+        }
+        Object userType = attributes.getAttribute(AuthenticationInterceptor.USER_TYPE_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        Object userId = attributes.getAttribute(AuthenticationInterceptor.USER_ID_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (userType == null || userId == null) {
+            return false;
+        }
+        Instant lastWrite = lastWrites.get(TenantContext.key(userType + ":" + userId));
+        return lastWrite != null && lastWrite.plus(window).isAfter(Instant.now());
+    }
+
+    /**
+     * Drops entries whose window has passed.
+     */
+    @Scheduled(fixedDelayString = "${timebank.datasource.read-replicas.prune-interval-ms:60000}")
+    public void pruneExpired() {
+        Instant cutoff = Instant.now().minus(window);
+        lastWrites.values().removeIf(lastWrite -> lastWrite.isBefore(cutoff));
+    }
+}
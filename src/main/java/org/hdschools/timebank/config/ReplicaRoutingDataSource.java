@@ -0,0 +1,53 @@
+package org.hdschools.timebank.config;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Routes read-only connections across replica databases in round-robin order.
+ * Falls back to the primary while the current user is inside their read-your-writes window.
+ * <p>
+ * Used as the read-only variant of a {@link org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy},
+ * so it is only consulted for {@code @Transactional(readOnly = true)} work.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY_KEY = "primary";
+    static final String REPLICA_KEY_PREFIX = "replica-";
+
+    private final int replicaCount;
+    private final ReadYourWritesTracker readYourWritesTracker;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+
+    public ReplicaRoutingDataSource(DataSource primary, List<DataSource> replicas,
+                                    ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaCount = replicas.size();
+        this.readYourWritesTracker = readYourWritesTracker;
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(PRIMARY_KEY, primary);
+        for (int i = 0; i < replicas.size(); i++) {
+            targets.put(REPLICA_KEY_PREFIX + i, replicas.get(i));
+        }
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    /**
+     * Picks the next replica, or the primary if there are no replicas or the user wrote recently.
+     *
+     * @return the lookup key of the target data source
+     */
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (replicaCount == 0 || readYourWritesTracker.currentUserWroteRecently()) {
+            return PRIMARY_KEY;
+        }
+        return REPLICA_KEY_PREFIX + Math.floorMod(nextReplica.getAndIncrement(), replicaCount);
+    }
+}
@@ -0,0 +1,46 @@
+package org.hdschools.timebank.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+
+/**
+ * Configures Jackson for API responses.
+ * <p>
+ * Clients may ask for CBOR ({@code application/cbor}) or Smile ({@code application/x-jackson-smile})
+ * through the {@code Accept} header; JSON stays the default. The binary converters share the
+ * application's {@link ObjectMapper} settings and modules, including Blackbird, which replaces
+ * reflective property access with generated lambdas.
+ */
+@Configuration
+public class SerializationConfig {
+
+    /**
+     * Registers Blackbird with the auto-configured {@link ObjectMapper}.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
+    /**
+     * Replaces the default CBOR converter with one built from the application's mapper.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2CborHttpMessageConverter(objectMapper.copyWith(new CBORFactory()));
+    }
+
+    /**
+     * Replaces the default Smile converter with one built from the application's mapper.
+     */
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(ObjectMapper objectMapper) {
+        return new MappingJackson2SmileHttpMessageConverter(objectMapper.copyWith(new SmileFactory()));
+    }
+}
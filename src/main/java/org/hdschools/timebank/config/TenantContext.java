@@ -0,0 +1,113 @@
+package org.hdschools.timebank.config;
+
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * Holds the school (tenant) whose data the current thread works on.
+ * <p>
+ * {@link TenantRoutingDataSource} sends every connection to the current tenant's database, so the tenant
+ * must be set before a request or job runs its first statement: a request keeps its first connection
+ * until it completes. Threads without a tenant use {@link #DEFAULT_TENANT}, the database configured by
+ * {@code spring.datasource.*}, which also holds the tenant registry. In-memory caches key their entries
+ * with {@link #key(String)} so schools sharing a node never see each other's entries.
+ */
+public final class TenantContext {
+
+    public static final String DEFAULT_TENANT = "default";
+
+    private static final Pattern TENANT_ID = Pattern.compile("[a-z0-9-]{1,20}");
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private TenantContext() {
+    }
+
+    /**
+     * Checks that a tenant ID is well-formed: 1-20 lowercase letters, digits or hyphens.
+     *
+     * @param tenantId the tenant ID
+     * @return {@code true} if the ID can name a tenant
+     */
+    public static boolean isValidId(String tenantId) {
+        return tenantId != null && TENANT_ID.matcher(tenantId).matches();
+    }
+
+    /**
+     * Returns the tenant of the current thread.
+     *
+     * @return the tenant ID, or {@link #DEFAULT_TENANT} if none is set
+     */
+    public static String current() {
+        String tenantId = CURRENT.get();
+        return tenantId != null ? tenantId : DEFAULT_TENANT;
+    }
+
+    /**
+     * Sets the tenant of the current thread until {@link #clear()}.
+     *
+     * @param tenantId the tenant ID
+     */
+    public static void set(String tenantId) {
+        CURRENT.set(tenantId);
+    }
+
+    /**
+     * Resets the current thread to the default tenant.
+     */
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs an action as the given tenant, restoring the previous tenant afterwards.
+     *
+     * @param tenantId the tenant ID
+     * @param action   the action to run
+     * @param <T>      the result type
+     * @return the action's result
+     */
+    public static <T> T callAs(String tenantId, Supplier<T> action) {
+        String previous = CURRENT.get();
+        CURRENT.set(tenantId);
+        try {
+            return action.get();
+        } finally {
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Runs an action as the given tenant, restoring the previous tenant afterwards.
+     *
+     * @param tenantId the tenant ID
+     * @param action   the action to run
+     */
+    public static void runAs(String tenantId, Runnable action) {
+        callAs(tenantId, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * Wraps a task so it runs as the tenant current at the time of wrapping.
+     * Used as the task decorator of executors that continue a request on another thread.
+     *
+     * @param task the task
+     * @return the wrapped task
+     */
+    public static Runnable wrap(Runnable task) {
+        String tenantId = current();
+        return () -> runAs(tenantId, task);
+    }
+
+    /**
+     * Prefixes a cache key with the current tenant.
+     *
+     * @param key the key within one school
+     * @return the key unique across schools
+     */
+    public static String key(String key) {
+        return current() + ":" + key;
+    }
+}
@@ -0,0 +1,37 @@
+package org.hdschools.timebank.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.service.TenantRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Replaces the auto-configured data source with one that sends each school's work to its own database.
+ * <p>
+ * The database from {@code spring.datasource.*} serves the default tenant and holds the registry of the
+ * other schools ({@link TenantRegistry}). Each school gets a small connection pool, opened on first use.
+ * Not combined with {@code timebank.datasource.read-replicas}: both replace the same data source.
+ */
+@Slf4j
+@Configuration
+@ConditionalOnProperty(prefix = "timebank.tenancy", name = "enabled", havingValue = "true")
+public class TenantDataSourceConfig {
+
+    @Bean
+    public DataSource dataSource(DataSourceProperties dataSourceProperties,
+                                 ObjectProvider<TenantRegistry> tenantRegistry) {
+        DataSource defaultDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        log.info("Routing connections by school");
+
+        // The registry is itself backed by this data source, so it is resolved on first use
+        return new TenantRoutingDataSource(defaultDataSource,
+                tenantId -> tenantRegistry.getObject().dataSource(tenantId));
+    }
+}
@@ -0,0 +1,48 @@
+package org.hdschools.timebank.config;
+
+import java.util.Map;
+import java.util.function.Function;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Routes each connection to the database of the school in {@link TenantContext}.
+ * <p>
+ * The default tenant uses the data source from {@code spring.datasource.*}. Other tenants' data sources
+ * are looked up on every connection rather than fixed at startup, so schools registered or removed
+ * while running are routed without a restart.
+ */
+public class TenantRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final DataSource defaultDataSource;
+    private final Function<String, DataSource> tenantDataSources;
+
+    public TenantRoutingDataSource(DataSource defaultDataSource, Function<String, DataSource> tenantDataSources) {
+        this.defaultDataSource = defaultDataSource;
+        this.tenantDataSources = tenantDataSources;
+
+        setTargetDataSources(Map.of(TenantContext.DEFAULT_TENANT, defaultDataSource));
+        setDefaultTargetDataSource(defaultDataSource);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TenantContext.current();
+    }
+
+    /**
+     * Returns the current tenant's data source.
+     *
+     * @return the data source to take the connection from
+     */
+    @Override
+    protected DataSource determineTargetDataSource() {
+        String tenantId = TenantContext.current();
+        if (TenantContext.DEFAULT_TENANT.equals(tenantId)) {
+            return defaultDataSource;
+        }
+        return tenantDataSources.apply(tenantId);
+    }
+}
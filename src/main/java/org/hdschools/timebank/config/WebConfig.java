@@ -1,24 +1,31 @@
 package org.hdschools.timebank.config;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 @RequiredArgsConstructor
+@EnableConfigurationProperties(RateLimitProperties.class)
 public class WebConfig implements WebMvcConfigurer {
 
     private final LoggingInterceptor loggingInterceptor;
+    private final RateLimitInterceptor rateLimitInterceptor;
     private final AuthenticationInterceptor authenticationInterceptor;
+    private final ReadYourWritesInterceptor readYourWritesInterceptor;
 
     /**
-     * Registers interceptors for logging and authentication.
-     * Authentication interceptor runs after logging to validate tokens.
+     * Registers interceptors for logging, rate limiting and authentication.
+     * Rate limiting runs before authentication so rejected requests never reach the database.
+     * Read-your-writes tracking runs last so it sees the authenticated user.
      */
     @Override
     public void addInterceptors(InterceptorRegistry registry) {
         registry.addInterceptor(loggingInterceptor);
+        registry.addInterceptor(rateLimitInterceptor);
         registry.addInterceptor(authenticationInterceptor);
+        registry.addInterceptor(readYourWritesInterceptor);
     }
 }
@@ -0,0 +1,222 @@
+package org.hdschools.timebank.controller;
+
+import java.util.List;
+import java.util.function.Function;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.config.ErrorEnvelopes;
+import org.hdschools.timebank.model.ApiResponse;
+import org.hdschools.timebank.model.LeaderboardPosition;
+import org.hdschools.timebank.model.StuDetailsResponse;
+import org.hdschools.timebank.model.StuHistoryEntry;
+import org.hdschools.timebank.model.StuUpdatePointsRequest;
+import org.hdschools.timebank.model.StuUpdatePointsResponse;
+import org.hdschools.timebank.service.IdempotencyService;
+import org.hdschools.timebank.service.PointRequestService;
+import org.hdschools.timebank.service.ReactiveStudentService;
+import org.hdschools.timebank.service.ReactiveTokenService;
+import org.hdschools.timebank.service.SchoolStatisticsRegistry;
+import org.hdschools.timebank.service.StudentVersionRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves the student submission and dashboard endpoints without holding a servlet thread or a JDBC
+ * connection while the database works.
+ * <p>
+ * Mirrors {@link StuUpdatePointsController} and {@link StuDashboardController} under {@code /rx/stu},
+ * with the same responses, idempotency handling and ETags. Tokens are validated here by
+ * {@link ReactiveTokenService} rather than by the authentication interceptor, which would block.
+ * Only the default school is served. Enabled with {@code timebank.reactive.enabled}.
+ */
+@RestController
+@RequestMapping("/rx/stu")
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "timebank.reactive.enabled", havingValue = "true")
+public class ReactiveStudentController {
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    private final ReactiveTokenService reactiveTokenService;
+    private final ReactiveStudentService reactiveStudentService;
+    private final IdempotencyService idempotencyService;
+    private final StudentVersionRegistry studentVersionRegistry;
+    private final SchoolStatisticsRegistry schoolStatisticsRegistry;
+
+    /**
+     * Creates a point update request initiated by a student.
+     *
+     * @param request        the point update request containing point change and content
+     * @param idempotencyKey optional client-generated key identifying this submission
+     * @param authorization  the bearer token
+     * @return {@link ApiResponse} containing the created event ID on success
+     */
+    @PostMapping("/updatePointsRequest")
+    public Mono<ResponseEntity<ApiResponse<StuUpdatePointsResponse>>> createUpdatePointsRequest(
+            @RequestBody StuUpdatePointsRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return asStudent(authorization, authenticated -> {
+            if (idempotencyKey != null && !idempotencyService.isValidKey(idempotencyKey)) {
+                return Mono.just(ResponseEntity.ok(ApiResponse.<StuUpdatePointsResponse>error(
+                        "Invalid " + IdempotencyService.HEADER + " header", null)));
+            }
+            String scopedKey = idempotencyKey != null
+                    ? idempotencyService.scopedKey("student", authenticated.userId(), idempotencyKey)
+                    : null;
+            PointRequestService.Submission submission = new PointRequestService.Submission(authenticated.userId(),
+                    authenticated.student(), request.getPointChange(), request.getContentHtml(), scopedKey);
+            if (scopedKey == null) {
+                return reactiveStudentService.createPendingRequest(submission)
+                        .doOnNext(eventId -> schoolStatisticsRegistry.requestSubmitted(authenticated.student()))
+                        .map(this::created);
+            }
+
+            // Replay the original response for a repeated submission
+            return reactiveStudentService.findEventId(scopedKey)
+                    .switchIfEmpty(reactiveStudentService.createPendingRequest(submission)
+                            .doOnNext(eventId -> {
+                                idempotencyService.remember(scopedKey, eventId);
+                                schoolStatisticsRegistry.requestSubmitted(authenticated.student());
+                            })
+                            // A concurrent retry with the same key won the insert
+                            .onErrorResume(DataIntegrityViolationException.class,
+                                    e -> reactiveStudentService.findEventId(scopedKey)
+                                            .switchIfEmpty(Mono.error(e))))
+                    .map(this::created);
+        });
+    }
+
+    /**
+     * Returns the authenticated student's current totals.
+     *
+     * @param ifNoneMatch   the client's cached ETag, if any
+     * @param authorization the bearer token
+     * @return {@link ApiResponse} containing the student's details, or a bodiless 304
+     */
+    @GetMapping("/details")
+    public Mono<ResponseEntity<ApiResponse<StuDetailsResponse>>> details(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return asStudent(authorization, authenticated -> {
+            String eTag = studentVersionRegistry.studentETag(authenticated.student());
+            if (matches(ifNoneMatch, eTag)) {
+                return Mono.just(notModified(eTag));
+            }
+            return reactiveStudentService.details(authenticated.student())
+                    .map(details -> ResponseEntity.ok().eTag(eTag).body(ApiResponse.success(
+                            "Details retrieved successfully", StuDetailsResponse.from(details))));
+        });
+    }
+
+    /**
+     * Returns a page of the authenticated student's requests and decisions, newest first.
+     *
+     * @param page          zero-based page number
+     * @param size          page size, at most 100
+     * @param ifNoneMatch   the client's cached ETag, if any
+     * @param authorization the bearer token
+     * @return {@link ApiResponse} containing the history page, or a bodiless 304
+     */
+    @GetMapping("/history")
+    public Mono<ResponseEntity<ApiResponse<List<StuHistoryEntry>>>> history(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return asStudent(authorization, authenticated -> {
+            if (page < 0 || size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+                return Mono.just(ResponseEntity.ok(ApiResponse.<List<StuHistoryEntry>>error(
+                        "Invalid page or size", null)));
+            }
+            String eTag = studentVersionRegistry.studentETag(authenticated.student());
+            if (matches(ifNoneMatch, eTag)) {
+                return Mono.just(notModified(eTag));
+            }
+            return reactiveStudentService.history(authenticated.userId(), page, size)
+                    .collectList()
+                    .map(entries -> ResponseEntity.ok().eTag(eTag).body(ApiResponse.success(
+                            "History retrieved successfully", entries)));
+        });
+    }
+
+    /**
+     * Returns the authenticated student's rank by accumulated points.
+     *
+     * @param ifNoneMatch   the client's cached ETag, if any
+     * @param authorization the bearer token
+     * @return {@link ApiResponse} containing the leaderboard position, or a bodiless 304
+     */
+    @GetMapping("/leaderboard/position")
+    public Mono<ResponseEntity<ApiResponse<LeaderboardPosition>>> leaderboardPosition(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        return asStudent(authorization, authenticated -> {
+            String eTag = studentVersionRegistry.leaderboardETag(authenticated.student());
+            if (matches(ifNoneMatch, eTag)) {
+                return Mono.just(notModified(eTag));
+            }
+            return reactiveStudentService.leaderboardPosition(authenticated.student())
+                    .map(position -> ResponseEntity.ok().eTag(eTag).body(ApiResponse.success(
+                            "Leaderboard position retrieved successfully", position)));
+        });
+    }
+
+    /**
+     * Validates and refreshes the bearer token, then runs the handler for a student.
+     * Answers 401 like the authentication interceptor for a missing or invalid token, and
+     * "User not authenticated" like the blocking controllers for a staff token.
+     */
+    private <T> Mono<ResponseEntity<ApiResponse<T>>> asStudent(String authorization,
+            Function<ReactiveTokenService.Authenticated, Mono<ResponseEntity<ApiResponse<T>>>> handler) {
+        if (authorization == null || !authorization.startsWith("Bearer ")) {
+            return Mono.just(unauthorized(ErrorEnvelopes.AUTHENTICATION_REQUIRED));
+        }
+        return reactiveTokenService.validateAndRefreshToken(authorization.substring(7))
+                .map(authenticated -> authenticated.student() != null
+                        ? handler.apply(authenticated)
+                        : Mono.just(ResponseEntity.ok(ApiResponse.<T>error("User not authenticated", null))))
+                .defaultIfEmpty(Mono.just(unauthorized(ErrorEnvelopes.INVALID_TOKEN)))
+                .flatMap(Function.identity());
+    }
+
+    private ResponseEntity<ApiResponse<StuUpdatePointsResponse>> created(Long eventId) {
+        return ResponseEntity.ok(ApiResponse.success(
+                "Point update request created successfully",
+                StuUpdatePointsResponse.builder()
+                        .eventId(eventId)
+                        .build()
+        ));
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals(eTag) || tag.equals("*")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> notModified(String eTag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+    }
+
+    private static <T> ResponseEntity<ApiResponse<T>> unauthorized(String message) {
+        return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(ApiResponse.error(message, null));
+    }
+}
@@ -0,0 +1,115 @@
+package org.hdschools.timebank.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.OutputStream;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.concurrent.Callable;
+import java.util.zip.GZIPOutputStream;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.service.EventExportService;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+/**
+ * Exports the event ledger for auditors.
+ * The body is streamed on the dedicated export executor, not the request thread pool, with its own
+ * async timeout of {@code timebank.export.timeout}.
+ */
+@RestController
+@RequestMapping("/sta")
+public class StaExportController {
+
+    private final EventExportService eventExportService;
+    private final ThreadPoolTaskExecutor exportTaskExecutor;
+    private final Duration exportTimeout;
+
+    public StaExportController(EventExportService eventExportService,
+                               ThreadPoolTaskExecutor exportTaskExecutor,
+                               @Value("${timebank.export.timeout:1h}") Duration exportTimeout) {
+        this.eventExportService = eventExportService;
+        this.exportTaskExecutor = exportTaskExecutor;
+        this.exportTimeout = exportTimeout;
+    }
+
+    /**
+     * Streams matching events as CSV or NDJSON, optionally gzip-compressed.
+     *
+     * @param format      "csv" (default) or "ndjson"
+     * @param from        first creation date to include (UTC), if any
+     * @param to          last creation date to include (UTC), if any
+     * @param type        event type to include, if any
+     * @param studentId   student user ID (initiator or receiver) to include, if any
+     * @param gzip        whether to gzip the body
+     * @param httpRequest  the HTTP request containing authentication information
+     * @param httpResponse the HTTP response the export is streamed to
+     * @return the task streaming the export, or {@code null} after answering 403 for non-staff users
+     *         or 400 for an unknown format or type
+     */
+    @GetMapping("/export")
+    public WebAsyncTask<Void> export(
+            @RequestParam(defaultValue = EventExportService.FORMAT_CSV) String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String studentId,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            HttpServletRequest httpRequest,
+            HttpServletResponse httpResponse) {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            httpResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+            return null;
+        }
+        if (!EventExportService.FORMAT_CSV.equals(format) && !EventExportService.FORMAT_NDJSON.equals(format)) {
+            httpResponse.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+            return null;
+        }
+        EventType eventType = null;
+        if (type != null) {
+            try {
+                eventType = EventType.fromValue(type);
+            } catch (IllegalArgumentException e) {
+                httpResponse.setStatus(HttpServletResponse.SC_BAD_REQUEST);
+                return null;
+            }
+        }
+
+        EventExportService.Filter filter = EventExportService.Filter.builder()
+                .from(from != null ? from.atStartOfDay(ZoneOffset.UTC).toInstant() : null)
+                .to(to != null ? to.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant() : null)
+                .type(eventType)
+                .studentUserId(studentId)
+                .build();
+
+        boolean csv = EventExportService.FORMAT_CSV.equals(format);
+        httpResponse.setContentType(csv ? "text/csv" : "application/x-ndjson");
+        httpResponse.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"events." + format + "\"");
+        if (gzip) {
+            httpResponse.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        Callable<Void> body = () -> {
+            OutputStream output = httpResponse.getOutputStream();
+            if (gzip) {
+                GZIPOutputStream compressed = new GZIPOutputStream(output, 64 * 1024);
+                eventExportService.export(filter, format, compressed);
+                compressed.finish();
+            } else {
+                eventExportService.export(filter, format, output);
+            }
+            output.flush();
+            return null;
+        };
+        return new WebAsyncTask<>(exportTimeout.toMillis(), exportTaskExecutor, body);
+    }
+}
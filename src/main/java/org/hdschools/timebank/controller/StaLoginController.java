@@ -1,10 +1,12 @@
 package org.hdschools.timebank.controller;
 
+import org.hdschools.timebank.config.TenantContext;
 import org.hdschools.timebank.model.ApiResponse;
 import org.hdschools.timebank.model.LoginRequest;
 import org.hdschools.timebank.model.LoginResponse;
 import org.hdschools.timebank.model.StaUser;
 import org.hdschools.timebank.repository.StaUserRepository;
+import org.hdschools.timebank.service.TenantRegistry;
 import org.hdschools.timebank.service.TokenService;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
@@ -20,20 +22,31 @@ public class StaLoginController {
 
     private final StaUserRepository staUserRepository;
     private final TokenService tokenService;
+    private final TenantRegistry tenantRegistry;
 
-    public StaLoginController(StaUserRepository staUserRepository, TokenService tokenService) {
+    public StaLoginController(StaUserRepository staUserRepository, TokenService tokenService,
+                              TenantRegistry tenantRegistry) {
         this.staUserRepository = staUserRepository;
         this.tokenService = tokenService;
+        this.tenantRegistry = tenantRegistry;
     }
 
     /**
      * Authenticates a staff user by matching hashed password.
+     * Looks the user up in the database of the requested school; the token issued is tied to that school.
      *
-     * @param request login credentials (userId and hashed password)
+     * @param request login credentials (userId, hashed password and optional school)
      * @return {@link ApiResponse} containing login details on success
      */
     @PostMapping("/login")
     public ApiResponse<LoginResponse> login(@RequestBody LoginRequest request) {
+        String school = request.getSchool() != null ? request.getSchool() : TenantContext.DEFAULT_TENANT;
+        if (!tenantRegistry.exists(school)) {
+            return ApiResponse.error("Invalid credentials", null);
+        }
+        // Reset when the request completes, by AuthenticationInterceptor
+        TenantContext.set(school);
+
         return staUserRepository.findByUserId(request.getUserId())
                 .filter(user -> user.getPassword().equals(request.getPassword()))
                 .map(user -> {
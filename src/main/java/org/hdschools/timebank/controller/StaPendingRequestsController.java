@@ -0,0 +1,43 @@
+package org.hdschools.timebank.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.service.PendingRequestStreamHub;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Streams pending-request activity to staff dashboards.
+ */
+@RestController
+@RequestMapping("/sta")
+@RequiredArgsConstructor
+public class StaPendingRequestsController {
+
+    private final PendingRequestStreamHub pendingRequestStreamHub;
+
+    /**
+     * Opens a Server-Sent Events stream of notices for pending requests being created and decided.
+     * Clients reconnecting with {@code Last-Event-ID} receive any buffered notices they missed.
+     *
+     * @param lastEventId the last event ID received before reconnecting, if any
+     * @param httpRequest the HTTP request containing authentication information
+     * @return the event stream, or 403 for non-staff users
+     */
+    @GetMapping(value = "/pendingRequests/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamPendingRequests(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId,
+            HttpServletRequest httpRequest) {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        return ResponseEntity.ok(pendingRequestStreamHub.subscribe(lastEventId));
+    }
+}
@@ -0,0 +1,111 @@
+package org.hdschools.timebank.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.model.ApiResponse;
+import org.hdschools.timebank.model.RollupBucket;
+import org.hdschools.timebank.model.StuRollup;
+import org.hdschools.timebank.repository.StuRollupRepository;
+import org.hdschools.timebank.service.LeaseService;
+import org.hdschools.timebank.service.RollupService;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves reporting totals from the rollup tables.
+ * Every query reads one row per bucket, independent of how many events the bucket covers.
+ */
+@RestController
+@RequestMapping("/sta/reports")
+@RequiredArgsConstructor
+public class StaReportController {
+
+    private static final String BACKFILL_JOB = "rollup-backfill";
+
+    private final StuRollupRepository stuRollupRepository;
+    private final RollupService rollupService;
+    private final LeaseService leaseService;
+
+    /**
+     * Returns a student's totals per day or week.
+     *
+     * @param userId      the student user ID
+     * @param bucket      "day" or "week"
+     * @param from        first bucket start date (inclusive)
+     * @param to          last bucket start date (inclusive)
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the buckets in chronological order
+     */
+    @GetMapping("/students/{userId}")
+    public ApiResponse<List<RollupBucket>> studentTotals(
+            @PathVariable String userId,
+            @RequestParam(defaultValue = StuRollup.BUCKET_WEEK) String bucket,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest httpRequest) {
+        return totals(userId, bucket, from, to, httpRequest);
+    }
+
+    /**
+     * Returns school-wide totals per day or week.
+     *
+     * @param bucket      "day" or "week"
+     * @param from        first bucket start date (inclusive)
+     * @param to          last bucket start date (inclusive)
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the buckets in chronological order
+     */
+    @GetMapping("/school")
+    public ApiResponse<List<RollupBucket>> schoolTotals(
+            @RequestParam(defaultValue = StuRollup.BUCKET_DAY) String bucket,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletRequest httpRequest) {
+        return totals(StuRollup.SCHOOL_WIDE, bucket, from, to, httpRequest);
+    }
+
+    /**
+     * Rebuilds all rollups from the event history. Only one node runs a backfill at a time.
+     *
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the number of decisions processed
+     */
+    @PostMapping("/rollups/backfill")
+    public ApiResponse<Long> backfill(HttpServletRequest httpRequest) {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return ApiResponse.error("Staff access required", null);
+        }
+        long[] processed = new long[1];
+        boolean ran = leaseService.runExclusively(BACKFILL_JOB, Duration.ofMinutes(10),
+                () -> processed[0] = rollupService.backfill());
+        if (!ran) {
+            return ApiResponse.error("A rollup backfill is already running", null);
+        }
+        return ApiResponse.success("Rollup backfill completed", processed[0]);
+    }
+
+    private ApiResponse<List<RollupBucket>> totals(String userId, String bucket, LocalDate from, LocalDate to,
+                                                   HttpServletRequest httpRequest) {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return ApiResponse.error("Staff access required", null);
+        }
+        if (!StuRollup.BUCKET_DAY.equals(bucket) && !StuRollup.BUCKET_WEEK.equals(bucket)) {
+            return ApiResponse.error("Unknown bucket: " + bucket, null);
+        }
+        List<RollupBucket> buckets = stuRollupRepository
+                .findByUserIdAndBucketTypeAndBucketStartBetweenOrderByBucketStartAsc(userId, bucket, from, to)
+                .stream()
+                .map(RollupBucket::from)
+                .toList();
+        return ApiResponse.success("Totals retrieved successfully", buckets);
+    }
+}
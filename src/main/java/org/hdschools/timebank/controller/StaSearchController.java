@@ -0,0 +1,86 @@
+package org.hdschools.timebank.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.LocalDate;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.model.ApiResponse;
+import org.hdschools.timebank.model.EventSearchHit;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.service.EventSearchIndex;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Searches request and decision content from the full-text index, without touching the event table.
+ */
+@RestController
+@RequestMapping("/sta/search")
+@RequiredArgsConstructor
+public class StaSearchController {
+
+    private static final int MAX_LIMIT = 100;
+
+    private final EventSearchIndex eventSearchIndex;
+
+    /**
+     * Finds events whose content matches a query, best match first.
+     *
+     * @param q           the query, e.g. {@code beach cleanup} or {@code "school library"}
+     * @param type        only events of this type ("pending", "accepted" or "rejected")
+     * @param student     only events of this student user ID
+     * @param from        first creation date (inclusive, UTC)
+     * @param to          last creation date (inclusive, UTC)
+     * @param limit       maximum number of hits (1-100)
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the matching event IDs with their scores
+     */
+    @GetMapping
+    public ApiResponse<List<EventSearchHit>> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String student,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "20") int limit,
+            HttpServletRequest httpRequest) {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return ApiResponse.error("Staff access required", null);
+        }
+        if (q.isBlank()) {
+            return ApiResponse.error("Query must not be blank", null);
+        }
+        EventType eventType;
+        try {
+            eventType = type != null ? EventType.fromValue(type) : null;
+        } catch (IllegalArgumentException e) {
+            return ApiResponse.error("Unknown type: " + type, null);
+        }
+        List<EventSearchHit> hits = eventSearchIndex.search(q, eventType, student, from, to,
+                Math.max(1, Math.min(limit, MAX_LIMIT)));
+        return ApiResponse.success("Search completed", hits);
+    }
+
+    /**
+     * Starts rebuilding this node's index of the school from the event tables. The current index keeps
+     * serving searches until the rebuilt one replaces it.
+     *
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} confirming the rebuild started
+     */
+    @PostMapping("/rebuild")
+    public ApiResponse<Void> rebuild(HttpServletRequest httpRequest) {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return ApiResponse.error("Staff access required", null);
+        }
+        if (eventSearchIndex.rebuild().isEmpty()) {
+            return ApiResponse.error("A search index rebuild is already running", null);
+        }
+        return ApiResponse.success("Search index rebuild started", null);
+    }
+}
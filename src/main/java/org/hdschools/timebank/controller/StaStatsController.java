@@ -0,0 +1,36 @@
+package org.hdschools.timebank.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.model.ApiResponse;
+import org.hdschools.timebank.model.SchoolStatistics;
+import org.hdschools.timebank.service.SchoolStatisticsRegistry;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves live school-wide totals to staff from the in-memory {@link SchoolStatisticsRegistry}.
+ */
+@RestController
+@RequestMapping("/sta")
+@RequiredArgsConstructor
+public class StaStatsController {
+
+    private final SchoolStatisticsRegistry schoolStatisticsRegistry;
+
+    /**
+     * Returns outstanding requests, today's decisions and active students, and total points issued.
+     *
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the school's statistics
+     */
+    @GetMapping("/stats")
+    public ApiResponse<SchoolStatistics> stats(HttpServletRequest httpRequest) {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return ApiResponse.error("Staff access required", null);
+        }
+        return ApiResponse.success("Statistics retrieved successfully", schoolStatisticsRegistry.current());
+    }
+}
@@ -0,0 +1,75 @@
+package org.hdschools.timebank.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.model.ApiResponse;
+import org.hdschools.timebank.model.BalanceAtResponse;
+import org.hdschools.timebank.model.StudentRecomputeResponse;
+import org.hdschools.timebank.repository.StuUserRepository;
+import org.hdschools.timebank.service.BalanceHistoryIndex;
+import org.hdschools.timebank.service.BalanceRecalculationService;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Serves students' historical balances to staff from the {@link BalanceHistoryIndex}, and lets staff
+ * rebuild a disputed student's totals with {@link BalanceRecalculationService}.
+ */
+@RestController
+@RequestMapping("/sta/students")
+@RequiredArgsConstructor
+public class StaStudentBalanceController {
+
+    private final BalanceHistoryIndex balanceHistoryIndex;
+    private final BalanceRecalculationService balanceRecalculationService;
+    private final StuUserRepository stuUserRepository;
+
+    /**
+     * Returns a student's points and credits as they stood at a given time.
+     *
+     * @param userId      the student user ID
+     * @param ts          the point in time, as an ISO-8601 instant such as {@code 2025-01-31T23:59:59Z}
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the balance at that time
+     */
+    @GetMapping("/{userId}/balanceAt")
+    public ApiResponse<BalanceAtResponse> balanceAt(
+            @PathVariable String userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant ts,
+            HttpServletRequest httpRequest) {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return ApiResponse.error("Staff access required", null);
+        }
+        return ApiResponse.success("Balance retrieved successfully", balanceHistoryIndex.balanceAt(userId, ts));
+    }
+
+    /**
+     * Rebuilds a student's totals from their events, saving and reporting any drift from the stored values.
+     *
+     * @param userId      the student user ID
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the stored and recomputed totals
+     */
+    @PostMapping("/{userId}/recompute")
+    public ApiResponse<StudentRecomputeResponse> recompute(@PathVariable String userId,
+                                                           HttpServletRequest httpRequest) {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return ApiResponse.error("Staff access required", null);
+        }
+        if (stuUserRepository.findByUserId(userId).isEmpty()) {
+            return ApiResponse.error("Student not found", null);
+        }
+
+        StudentRecomputeResponse result = balanceRecalculationService.recalculateStudent(userId);
+        return ApiResponse.success(result.getDrift().isEmpty()
+                ? "Student totals are correct"
+                : "Student totals recomputed", result);
+    }
+}
@@ -0,0 +1,51 @@
+package org.hdschools.timebank.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.model.ApiResponse;
+import org.hdschools.timebank.model.UserImportResponse;
+import org.hdschools.timebank.service.UserImportService;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Handles bulk onboarding of student and staff accounts.
+ */
+@RestController
+@RequestMapping("/sta")
+@RequiredArgsConstructor
+public class StaUserImportController {
+
+    private final UserImportService userImportService;
+
+    /**
+     * Imports users from a CSV request body of {@code user_id,password} rows.
+     * The body is read as a stream, so large files are never held in memory.
+     *
+     * @param type        "student" or "staff"
+     * @param httpRequest the HTTP request carrying the CSV body and authentication information
+     * @return {@link ApiResponse} containing import counts and per-row errors
+     * @throws IOException if the request body cannot be read
+     */
+    @PostMapping(value = "/users/import", consumes = {"text/csv", "text/plain"})
+    public ApiResponse<UserImportResponse> importUsers(
+            @RequestParam String type,
+            HttpServletRequest httpRequest) throws IOException {
+        if (!"staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return ApiResponse.error("Staff access required", null);
+        }
+        if (!UserImportService.TYPE_STUDENT.equals(type) && !UserImportService.TYPE_STAFF.equals(type)) {
+            return ApiResponse.error("Unknown user type: " + type, null);
+        }
+
+        UserImportResponse result = userImportService.importUsers(type,
+                new InputStreamReader(httpRequest.getInputStream(), StandardCharsets.UTF_8));
+        return ApiResponse.success("User import completed", result);
+    }
+}
@@ -1,54 +1,96 @@
 package org.hdschools.timebank.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
-import org.hdschools.timebank.config.AuthenticationInterceptor;
 import org.hdschools.timebank.model.ApiResponse;
+import org.hdschools.timebank.model.ClaimedRequest;
 import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.model.EventType;
 import org.hdschools.timebank.model.StaValidatePointsRequest;
 import org.hdschools.timebank.model.StaValidatePointsResponse;
-import org.hdschools.timebank.model.StuDetails;
 import org.hdschools.timebank.repository.EventRepository;
-import org.hdschools.timebank.repository.StuDetailsRepository;
+import org.hdschools.timebank.service.IdempotencyService;
+import org.hdschools.timebank.service.PointRequestService;
+import org.hdschools.timebank.service.ReviewQueueService;
+import org.hdschools.timebank.service.SchoolStatisticsRegistry;
+import org.hdschools.timebank.service.UserDirectoryService;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 /**
  * Handles staff validation of student point update requests.
  * Creates "accepted" or "rejected" type entries in the event table.
  * Updates student details on accepted requests.
+ * Pending requests can be claimed in batches first, so concurrent reviewers don't collide.
+ * The writes are performed by {@link PointRequestService}.
  */
 @RestController
 @RequestMapping("/sta")
 @RequiredArgsConstructor
 public class StaValidatePointsController {
 
+    private static final int MAX_CLAIM_SIZE = 100;
+
     private final EventRepository eventRepository;
-    private final StuDetailsRepository stuDetailsRepository;
+    private final PointRequestService pointRequestService;
+    private final UserDirectoryService userDirectoryService;
+    private final IdempotencyService idempotencyService;
+    private final ReviewQueueService reviewQueueService;
+    private final SchoolStatisticsRegistry schoolStatisticsRegistry;
 
     /**
      * Validates (accepts or rejects) a pending student point update request.
      * Creates a new event entry with type "accepted" or "rejected" based on staff decision.
      * If accepted, updates the student's accumulated points and credits.
+     * <p>
+     * If an {@code Idempotency-Key} header is supplied and the staff member already submitted a
+     * decision with the same key, the original event ID is returned and nothing is written.
      *
      * @param request the validation request containing decision and adjustments
+     * @param idempotencyKey optional client-generated key identifying this decision
      * @param httpRequest the HTTP request containing authentication information
      * @return {@link ApiResponse} containing the created validation event ID on success
      */
     @PostMapping("/validatePointsRequest")
     public ApiResponse<StaValidatePointsResponse> validatePointsRequest(
             @RequestBody StaValidatePointsRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             HttpServletRequest httpRequest) {
         
-        // Extract authenticated staff ID from request attributes
-        String staffId = (String) httpRequest.getAttribute(AuthenticationInterceptor.USER_ID_ATTRIBUTE);
+        // Resolve the authenticated staff member's user ID
+        Long authenticatedId = AuthenticationHelper.getAuthenticatedUserId(httpRequest);
+        String staffId = "staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))
+                ? userDirectoryService.findStaffUserId(authenticatedId).orElse(null)
+                : null;
         
         if (staffId == null) {
             return ApiResponse.error("Staff not authenticated", null);
         }
 
+        // Determine event type based on acceptance
+        EventType eventType = request.isAccepted() ? EventType.ACCEPTED : EventType.REJECTED;
+
+        // Replay the original response for a repeated decision
+        String scopedKey = null;
+        if (idempotencyKey != null) {
+            if (!idempotencyService.isValidKey(idempotencyKey)) {
+                return ApiResponse.error("Invalid " + IdempotencyService.HEADER + " header", null);
+            }
+            scopedKey = idempotencyService.scopedKey("staff", authenticatedId, idempotencyKey);
+            Optional<Long> previousEventId = idempotencyService.findEventId(scopedKey);
+            if (previousEventId.isPresent()) {
+                return replayed(previousEventId.get());
+            }
+        }
+
         // Fetch the original pending request to get student ID
         Event originalRequest = eventRepository.findById(request.getRequestId())
                 .orElse(null);
@@ -60,52 +102,81 @@ public class StaValidatePointsController {
         if (originalRequest.getInitStuId() == null) {
             return ApiResponse.error("Invalid request: no student ID found", null);
         }
+        String studentUserId = userDirectoryService.findStudentUserId(originalRequest.getInitStuId())
+                .orElseThrow(() -> new IllegalStateException(
+                        "No student account with id " + originalRequest.getInitStuId()));
 
-        // Determine event type based on acceptance
-        String eventType = request.isAccepted() ? "accepted" : "rejected";
-
-        // Create the validation event entry
-        Event validationEvent = Event.builder()
-                .initStaId(staffId)
-                .pointDiff(request.getPointDiff())
-                .creditDiff(request.getCreditDiff())
-                .type(eventType)
-                .contentHtml(request.getContentHtml())
-                .build();
-
-        // Save to database
-        Event savedEvent = eventRepository.save(validationEvent);
-
-        // Update student details if request is accepted
-        if (request.isAccepted()) {
-            String studentUserId = originalRequest.getInitStuId();
-            StuDetails details = stuDetailsRepository.findByUserId(studentUserId)
-                    .orElse(StuDetails.builder()
-                            .userId(studentUserId)
-                            .accumulatedPoints(0)
-                            .accumulatedCredits(0)
-                            .requestsMade(0)
-                            .requestsApproved(0)
-                            .totalPointAdditions(0)
-                            .build());
-            
-            details.setAccumulatedPoints(details.getAccumulatedPoints() + request.getPointDiff());
-            details.setAccumulatedCredits(details.getAccumulatedCredits() + request.getCreditDiff());
-            details.setRequestsApproved(details.getRequestsApproved() + 1);
-            
-            // Add to totalPointAdditions only if pointDiff is positive
-            if (request.getPointDiff() > 0) {
-                details.setTotalPointAdditions(details.getTotalPointAdditions() + request.getPointDiff());
+        // Save the validation event and update student details
+        Optional<Event> savedEvent;
+        try {
+            savedEvent = pointRequestService.recordDecision(originalRequest, studentUserId, authenticatedId, staffId,
+                    request, scopedKey);
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry with the same key won the insert
+            if (scopedKey == null) {
+                throw e;
             }
-            
-            stuDetailsRepository.save(details);
+            return idempotencyService.findEventId(scopedKey)
+                    .map(this::replayed)
+                    .orElseThrow(() -> e);
         }
 
+        if (savedEvent.isEmpty()) {
+            return ApiResponse.error("Request already decided or claimed by another staff member", null);
+        }
+
+        if (scopedKey != null) {
+            idempotencyService.remember(scopedKey, savedEvent.get().getId());
+        }
+        schoolStatisticsRegistry.decisionRecorded(studentUserId, request.isAccepted(), request.getPointDiff());
+
         // Return success response with event ID
+        return validated(eventType, savedEvent.get().getId());
+    }
+
+    /**
+     * Claims a batch of the oldest undecided requests for the calling staff member.
+     * Other staff are not given these requests until the claims are decided or expire.
+     *
+     * @param n           maximum number of requests to claim, at most 100
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the claimed requests, oldest first
+     */
+    @PostMapping("/claimPendingRequests")
+    public ApiResponse<List<ClaimedRequest>> claimPendingRequests(
+            @RequestParam(defaultValue = "20") int n,
+            HttpServletRequest httpRequest) {
+        String staffId = "staff".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))
+                ? userDirectoryService.findStaffUserId(AuthenticationHelper.getAuthenticatedUserId(httpRequest))
+                        .orElse(null)
+                : null;
+
+        if (staffId == null) {
+            return ApiResponse.error("Staff not authenticated", null);
+        }
+        if (n < 1 || n > MAX_CLAIM_SIZE) {
+            return ApiResponse.error("n must be between 1 and " + MAX_CLAIM_SIZE, null);
+        }
+
+        List<ClaimedRequest> claimed = reviewQueueService.claim(staffId, n);
+        return ApiResponse.success("Claimed " + claimed.size() + " pending requests", claimed);
+    }
+
+    /**
+     * Answers a repeated decision as the original was answered, from the stored decision's type rather
+     * than the repeated request's, which may differ.
+     */
+    private ApiResponse<StaValidatePointsResponse> replayed(Long eventId) {
+        return eventRepository.findTypeById(eventId)
+                .map(storedType -> validated(storedType, eventId))
+                .orElseGet(() -> ApiResponse.error("Request not found", null));
+    }
+
+    private ApiResponse<StaValidatePointsResponse> validated(EventType eventType, Long eventId) {
         return ApiResponse.success(
                 "Point update request " + eventType + " successfully",
                 StaValidatePointsResponse.builder()
-                        .eventId(savedEvent.getId())
+                        .eventId(eventId)
                         .build()
         );
     }
@@ -0,0 +1,119 @@
+package org.hdschools.timebank.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.model.ApiResponse;
+import org.hdschools.timebank.model.LeaderboardPosition;
+import org.hdschools.timebank.model.StuDetailsResponse;
+import org.hdschools.timebank.model.StuHistoryEntry;
+import org.hdschools.timebank.service.StudentDashboardService;
+import org.hdschools.timebank.service.StudentVersionRegistry;
+import org.hdschools.timebank.service.UserDirectoryService;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Serves the student dashboard: current totals, request history and leaderboard position.
+ * <p>
+ * Every response carries a strong ETag from {@link StudentVersionRegistry}. A matching
+ * {@code If-None-Match} is answered with 304 before anything is loaded or serialized.
+ */
+@RestController
+@RequestMapping("/stu")
+@RequiredArgsConstructor
+public class StuDashboardController {
+
+    private static final int MAX_HISTORY_PAGE_SIZE = 100;
+
+    private final StudentDashboardService studentDashboardService;
+    private final UserDirectoryService userDirectoryService;
+    private final StudentVersionRegistry studentVersionRegistry;
+
+    /**
+     * Returns the authenticated student's current totals.
+     *
+     * @param webRequest  the request, used for conditional GET handling
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the student's details, or {@code null} after a 304
+     */
+    @GetMapping("/details")
+    public ApiResponse<StuDetailsResponse> details(WebRequest webRequest, HttpServletRequest httpRequest) {
+        String userId = authenticatedStudent(httpRequest);
+        if (userId == null) {
+            return ApiResponse.error("User not authenticated", null);
+        }
+        if (webRequest.checkNotModified(studentVersionRegistry.studentETag(userId))) {
+            return null;
+        }
+
+        return ApiResponse.success("Details retrieved successfully", studentDashboardService.details(userId));
+    }
+
+    /**
+     * Returns a page of the authenticated student's requests and decisions, newest first.
+     * Only events within the archival horizon are listed.
+     *
+     * @param page        zero-based page number
+     * @param size        page size, at most 100
+     * @param webRequest  the request, used for conditional GET handling
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the history page, or {@code null} after a 304
+     */
+    @GetMapping("/history")
+    public ApiResponse<List<StuHistoryEntry>> history(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            WebRequest webRequest,
+            HttpServletRequest httpRequest) {
+        String userId = authenticatedStudent(httpRequest);
+        if (userId == null) {
+            return ApiResponse.error("User not authenticated", null);
+        }
+        if (page < 0 || size < 1 || size > MAX_HISTORY_PAGE_SIZE) {
+            return ApiResponse.error("Invalid page or size", null);
+        }
+        if (webRequest.checkNotModified(studentVersionRegistry.studentETag(userId))) {
+            return null;
+        }
+
+        // Events reference the student by stu_user.id, which is what the token carries
+        Long studentKey = AuthenticationHelper.getAuthenticatedUserId(httpRequest);
+        return ApiResponse.success("History retrieved successfully",
+                studentDashboardService.history(studentKey, page, size));
+    }
+
+    /**
+     * Returns the authenticated student's rank by accumulated points.
+     *
+     * @param webRequest  the request, used for conditional GET handling
+     * @param httpRequest the HTTP request containing authentication information
+     * @return {@link ApiResponse} containing the leaderboard position, or {@code null} after a 304
+     */
+    @GetMapping("/leaderboard/position")
+    public ApiResponse<LeaderboardPosition> leaderboardPosition(WebRequest webRequest,
+                                                                HttpServletRequest httpRequest) {
+        String userId = authenticatedStudent(httpRequest);
+        if (userId == null) {
+            return ApiResponse.error("User not authenticated", null);
+        }
+        if (webRequest.checkNotModified(studentVersionRegistry.leaderboardETag(userId))) {
+            return null;
+        }
+
+        return ApiResponse.success("Leaderboard position retrieved successfully",
+                studentDashboardService.leaderboardPosition(userId));
+    }
+
+    private String authenticatedStudent(HttpServletRequest httpRequest) {
+        if (!"student".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))) {
+            return null;
+        }
+        return userDirectoryService.findStudentUserId(AuthenticationHelper.getAuthenticatedUserId(httpRequest))
+                .orElse(null);
+    }
+}
@@ -1,17 +1,22 @@
 package org.hdschools.timebank.controller;
 
 import jakarta.servlet.http.HttpServletRequest;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
-import org.hdschools.timebank.config.AuthenticationInterceptor;
 import org.hdschools.timebank.model.ApiResponse;
 import org.hdschools.timebank.model.Event;
 import org.hdschools.timebank.model.StuUpdatePointsRequest;
-import org.hdschools.timebank.model.StuDetails;
 import org.hdschools.timebank.model.StuUpdatePointsResponse;
-import org.hdschools.timebank.repository.EventRepository;
-import org.hdschools.timebank.repository.StuDetailsRepository;
+import org.hdschools.timebank.service.IdempotencyService;
+import org.hdschools.timebank.service.PointRequestService;
+import org.hdschools.timebank.service.SchoolStatisticsRegistry;
+import org.hdschools.timebank.service.SubmissionBatcher;
+import org.hdschools.timebank.service.UserDirectoryService;
+import org.hdschools.timebank.util.AuthenticationHelper;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -19,66 +24,89 @@ import org.springframework.web.bind.annotation.RestController;
  * Handles student-initiated point update requests.
  * Creates "pending" type entries in the event table.
  * Increments requestsMade counter in student details.
+ * The writes are performed by {@link PointRequestService}, group-committed with other submissions
+ * when {@link SubmissionBatcher} is enabled.
  */
 @RestController
 @RequestMapping("/stu")
 @RequiredArgsConstructor
 public class StuUpdatePointsController {
 
-    private final EventRepository eventRepository;
-    private final StuDetailsRepository stuDetailsRepository;
+    private final SubmissionBatcher submissionBatcher;
+    private final UserDirectoryService userDirectoryService;
+    private final IdempotencyService idempotencyService;
+    private final SchoolStatisticsRegistry schoolStatisticsRegistry;
 
     /**
      * Creates a point update request initiated by a student.
      * The request is stored as a "pending" type event in the database.
+     * <p>
+     * If an {@code Idempotency-Key} header is supplied and the student already submitted a request
+     * with the same key, the original event ID is returned and nothing is written.
      *
      * @param request the point update request containing point change and content
+     * @param idempotencyKey optional client-generated key identifying this submission
      * @param httpRequest the HTTP request containing authentication information
      * @return {@link ApiResponse} containing the created event ID on success
      */
     @PostMapping("/updatePointsRequest")
     public ApiResponse<StuUpdatePointsResponse> createUpdatePointsRequest(
             @RequestBody StuUpdatePointsRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             HttpServletRequest httpRequest) {
         
-        // Extract authenticated user ID from request attributes
-        String userId = (String) httpRequest.getAttribute(AuthenticationInterceptor.USER_ID_ATTRIBUTE);
+        // Resolve the authenticated student's user ID
+        Long authenticatedId = AuthenticationHelper.getAuthenticatedUserId(httpRequest);
+        String userId = "student".equals(AuthenticationHelper.getAuthenticatedUserType(httpRequest))
+                ? userDirectoryService.findStudentUserId(authenticatedId).orElse(null)
+                : null;
         
         if (userId == null) {
             return ApiResponse.error("User not authenticated", null);
         }
 
-        // Create the event entry
-        Event event = Event.builder()
-                .initStuId(userId)
-                .pointDiff(request.getPointChange())
-                .creditDiff(0)
-                .type("pending")
-                .contentHtml(request.getContentHtml())
-                .build();
+        // Replay the original response for a repeated submission
+        String scopedKey = null;
+        if (idempotencyKey != null) {
+            if (!idempotencyService.isValidKey(idempotencyKey)) {
+                return ApiResponse.error("Invalid " + IdempotencyService.HEADER + " header", null);
+            }
+            scopedKey = idempotencyService.scopedKey("student", authenticatedId, idempotencyKey);
+            Optional<Long> previousEventId = idempotencyService.findEventId(scopedKey);
+            if (previousEventId.isPresent()) {
+                return created(previousEventId.get());
+            }
+        }
 
-        // Save to database
-        Event savedEvent = eventRepository.save(event);
+        // Save the pending event and update student details
+        Event savedEvent;
+        try {
+            savedEvent = submissionBatcher.submit(new PointRequestService.Submission(
+                    authenticatedId, userId, request.getPointChange(), request.getContentHtml(), scopedKey));
+        } catch (DataIntegrityViolationException e) {
+            // A concurrent retry with the same key won the insert
+            if (scopedKey == null) {
+                throw e;
+            }
+            return idempotencyService.findEventId(scopedKey)
+                    .map(this::created)
+                    .orElseThrow(() -> e);
+        }
 
-        // Increment requestsMade counter
-        StuDetails details = stuDetailsRepository.findByUserId(userId)
-                .orElse(StuDetails.builder()
-                        .userId(userId)
-                        .accumulatedPoints(0)
-                        .accumulatedCredits(0)
-                        .requestsMade(0)
-                        .requestsApproved(0)
-                        .totalPointAdditions(0)
-                        .build());
-        
-        details.setRequestsMade(details.getRequestsMade() + 1);
-        stuDetailsRepository.save(details);
+        if (scopedKey != null) {
+            idempotencyService.remember(scopedKey, savedEvent.getId());
+        }
+        schoolStatisticsRegistry.requestSubmitted(userId);
 
         // Return success response with event ID
+        return created(savedEvent.getId());
+    }
+
+    private ApiResponse<StuUpdatePointsResponse> created(Long eventId) {
         return ApiResponse.success(
                 "Point update request created successfully",
                 StuUpdatePointsResponse.builder()
-                        .eventId(savedEvent.getId())
+                        .eventId(eventId)
                         .build()
         );
     }
@@ -0,0 +1,46 @@
+package org.hdschools.timebank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight recorder event spanning one HTTP request from the first interceptor to completion.
+ * Emitted by {@link org.hdschools.timebank.config.LoggingInterceptor}.
+ */
+@Name("timebank.ControllerInvocation")
+@Label("Controller Invocation")
+@Category({"TimeBank", "Web"})
+@Description("One HTTP request handled by a controller")
+@StackTrace(false)
+public class ControllerInvocationEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Endpoint")
+    @Description("The matched request mapping, such as /sta/students/{userId}/balanceAt")
+    public String endpoint;
+
+    @Label("User Type")
+    @Description("\"student\", \"staff\" or \"anonymous\"")
+    public String userType;
+
+    @Label("Status")
+    public int status;
+
+    @Label("Outcome")
+    @Description("\"success\", \"client-error\", \"server-error\" or the simple name of the exception thrown")
+    public String outcome;
+
+    @Label("DB Statements")
+    public int dbStatements;
+
+    @Label("DB Time")
+    @Timespan(Timespan.NANOSECONDS)
+    public long dbTime;
+}
@@ -0,0 +1,53 @@
+package org.hdschools.timebank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one phase of
+ * {@link org.hdschools.timebank.service.BalanceRecalculationService#recalculateAllBalances()}.
+ */
+@Name("timebank.RecalculationPhase")
+@Label("Recalculation Phase")
+@Category({"TimeBank", "Recalculation"})
+@Description("One phase of the weekly balance recalculation")
+@StackTrace(false)
+public class RecalculationPhaseEvent extends Event {
+
+    @Label("Phase")
+    public String phase;
+
+    @Label("Rows")
+    @Description("Rows read or written by the phase")
+    public long rows;
+
+    /**
+     * Starts timing a phase.
+     *
+     * @param phase the phase name
+     * @return the started event
+     */
+    public static RecalculationPhaseEvent start(String phase) {
+        RecalculationPhaseEvent event = new RecalculationPhaseEvent();
+        event.phase = phase;
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Ends the phase and commits the event if it is enabled and over its threshold.
+     *
+     * @param rows rows read or written by the phase
+     */
+    public void finish(long rows) {
+        end();
+        if (shouldCommit()) {
+            this.rows = rows;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.hdschools.timebank.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one token lookup by {@link org.hdschools.timebank.service.TokenService}.
+ */
+@Name("timebank.TokenValidation")
+@Label("Token Validation")
+@Category({"TimeBank", "Authentication"})
+@Description("Lookup of an authentication token, including the expiry refresh when requested")
+@StackTrace(false)
+public class TokenValidationEvent extends Event {
+
+    @Label("Hit")
+    @Description("Whether the token existed and had not expired")
+    public boolean hit;
+
+    @Label("Refreshed")
+    @Description("Whether the token's expiry was extended")
+    public boolean refreshed;
+}
@@ -0,0 +1,87 @@
+package org.hdschools.timebank.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Entity representing an event moved out of the live {@code event} table by archival.
+ * Rows keep their original id so archived and live history can be merged in id order.
+ */
+@Entity
+@Table(name = "event_archive", indexes = {
+        @Index(name = "idx_event_archive_recv_stu_id", columnList = "recv_stu_id")})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class ArchivedEvent {
+
+    @Id
+    private Long id;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "archived_at", nullable = false, insertable = false, updatable = false)
+    private Instant archivedAt;
+
+    /**
+     * stu_user.id of the student who submitted the request.
+     */
+    @Column(name = "init_stu_id")
+    private Long initStuId;
+
+    /**
+     * sta_user.id of the staff member who made the decision.
+     */
+    @Column(name = "init_sta_id")
+    private Long initStaId;
+
+    /**
+     * stu_user.id of the student a decision applies to.
+     */
+    @Column(name = "recv_stu_id")
+    private Long recvStuId;
+
+    /**
+     * sta_user.id of the staff member an event is addressed to.
+     */
+    @Column(name = "recv_sta_id")
+    private Long recvStaId;
+
+    @Column(name = "point_diff", nullable = false)
+    private int pointDiff;
+
+    @Column(name = "credit_diff", nullable = false)
+    private int creditDiff;
+
+    @Column(name = "type", nullable = false, columnDefinition = "tinyint unsigned")
+    private EventType type;
+
+    @Column(name = "content_html", columnDefinition = "mediumtext")
+    private String contentHtml;
+
+    @Column(name = "idempotency_key", length = 128)
+    private String idempotencyKey;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claim_expires_at")
+    private Instant claimExpiresAt;
+
+    @Column(name = "decided_at")
+    private Instant decidedAt;
+}
@@ -0,0 +1,36 @@
+package org.hdschools.timebank.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response payload with a student's totals as of a point in time.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BalanceAtResponse {
+
+    private String userId;
+
+    private Instant at;
+
+    /**
+     * Points from accepted decisions made at or before {@link #at}.
+     */
+    private long accumulatedPoints;
+
+    /**
+     * Credits from accepted decisions made at or before {@link #at}.
+     */
+    private long accumulatedCredits;
+
+    /**
+     * Number of accepted decisions counted.
+     */
+    private int acceptedDecisions;
+}
@@ -0,0 +1,45 @@
+package org.hdschools.timebank.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A pending request leased to the calling staff member for review.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ClaimedRequest {
+    private Long requestId;
+    private Instant createdAt;
+    private String studentUserId;
+    private int pointDiff;
+    private String contentHtml;
+
+    /**
+     * When the claim lapses and the request returns to the pool unless decided.
+     */
+    private Instant claimExpiresAt;
+
+    /**
+     * Creates a claimed request from a pending event.
+     *
+     * @param event         the claimed pending event
+     * @param studentUserId the requesting student's business user ID
+     * @return the response entry
+     */
+    public static ClaimedRequest from(Event event, String studentUserId) {
+        return ClaimedRequest.builder()
+                .requestId(event.getId())
+                .createdAt(event.getCreatedAt())
+                .studentUserId(studentUserId)
+                .pointDiff(event.getPointDiff())
+                .contentHtml(event.getContentHtml())
+                .claimExpiresAt(event.getClaimExpiresAt())
+                .build();
+    }
+}
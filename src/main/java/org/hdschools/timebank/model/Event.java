@@ -5,6 +5,7 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import java.time.Instant;
 import lombok.AllArgsConstructor;
@@ -15,7 +16,11 @@ import lombok.Setter;
 import lombok.ToString;
 
 @Entity
-@Table(name = "event")
+@Table(name = "event", indexes = {
+        @Index(name = "idx_event_created_at", columnList = "created_at"),
+        @Index(name = "idx_event_init_stu_id", columnList = "init_stu_id"),
+        @Index(name = "idx_event_recv_stu_id", columnList = "recv_stu_id"),
+        @Index(name = "idx_event_open_requests", columnList = "type, decided_at")})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -31,17 +36,29 @@ public class Event {
     @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
     private Instant createdAt;
 
+    /**
+     * stu_user.id of the student who submitted the request.
+     */
     @Column(name = "init_stu_id")
-    private String initStuId;
+    private Long initStuId;
 
+    /**
+     * sta_user.id of the staff member who made the decision.
+     */
     @Column(name = "init_sta_id")
-    private String initStaId;
+    private Long initStaId;
 
+    /**
+     * stu_user.id of the student a decision applies to.
+     */
     @Column(name = "recv_stu_id")
-    private String recvStuId;
+    private Long recvStuId;
 
+    /**
+     * sta_user.id of the staff member an event is addressed to.
+     */
     @Column(name = "recv_sta_id")
-    private String recvStaId;
+    private Long recvStaId;
 
     @Column(name = "point_diff", nullable = false)
     private int pointDiff;
@@ -49,9 +66,21 @@ public class Event {
     @Column(name = "credit_diff", nullable = false)
     private int creditDiff;
 
-    @Column(name = "type", nullable = false)
-    private String type;
+    @Column(name = "type", nullable = false, columnDefinition = "tinyint unsigned")
+    private EventType type;
 
-    @Column(name = "content_html")
+    @Column(name = "content_html", columnDefinition = "mediumtext")
     private String contentHtml;
+
+    @Column(name = "idempotency_key", unique = true, length = 128)
+    private String idempotencyKey;
+
+    @Column(name = "claimed_by")
+    private String claimedBy;
+
+    @Column(name = "claim_expires_at")
+    private Instant claimExpiresAt;
+
+    @Column(name = "decided_at")
+    private Instant decidedAt;
 }
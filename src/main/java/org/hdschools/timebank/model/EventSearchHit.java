@@ -0,0 +1,21 @@
+package org.hdschools.timebank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One event matching a content search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSearchHit {
+
+    private long eventId;
+
+    /**
+     * Relevance score; only comparable between hits of the same search.
+     */
+    private float score;
+}
@@ -0,0 +1,80 @@
+package org.hdschools.timebank.model;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+/**
+ * Kind of an {@link Event}, stored as a one-byte code.
+ * <p>
+ * The {@code *_CODE} constants are the stored values, for use in native SQL. Codes must never be
+ * reused or renumbered; the names are what the API, exports and outbox records expose.
+ */
+public enum EventType {
+
+    PENDING(EventType.PENDING_CODE, "pending"),
+    ACCEPTED(EventType.ACCEPTED_CODE, "accepted"),
+    REJECTED(EventType.REJECTED_CODE, "rejected");
+
+    public static final int PENDING_CODE = 1;
+    public static final int ACCEPTED_CODE = 2;
+    public static final int REJECTED_CODE = 3;
+
+    private final int code;
+    private final String value;
+
+    EventType(int code, String value) {
+        this.code = code;
+        this.value = value;
+    }
+
+    /**
+     * @return the stored code
+     */
+    public int getCode() {
+        return code;
+    }
+
+    /**
+     * @return the external name, e.g. {@code "accepted"}
+     */
+    @JsonValue
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * Resolves a stored code.
+     *
+     * @param code the stored code
+     * @return the event type
+     * @throws IllegalArgumentException if the code is unknown
+     */
+    public static EventType fromCode(int code) {
+        for (EventType type : values()) {
+            if (type.code == code) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event type code: " + code);
+    }
+
+    /**
+     * Resolves an external name.
+     *
+     * @param value the external name
+     * @return the event type
+     * @throws IllegalArgumentException if the name is unknown
+     */
+    public static EventType fromValue(String value) {
+        for (EventType type : values()) {
+            if (type.value.equals(value)) {
+                return type;
+            }
+        }
+        throw new IllegalArgumentException("Unknown event type: " + value);
+    }
+
+    @Override
+    public String toString() {
+        return value;
+    }
+}
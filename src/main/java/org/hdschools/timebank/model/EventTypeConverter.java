@@ -0,0 +1,21 @@
+package org.hdschools.timebank.model;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores {@link EventType} as its numeric code.
+ */
+@Converter(autoApply = true)
+public class EventTypeConverter implements AttributeConverter<EventType, Integer> {
+
+    @Override
+    public Integer convertToDatabaseColumn(EventType type) {
+        return type != null ? type.getCode() : null;
+    }
+
+    @Override
+    public EventType convertToEntityAttribute(Integer code) {
+        return code != null ? EventType.fromCode(code) : null;
+    }
+}
@@ -0,0 +1,31 @@
+package org.hdschools.timebank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response payload with a student's rank by accumulated points.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LeaderboardPosition {
+
+    /**
+     * 1-based rank; students with equal points share a rank.
+     */
+    private long rank;
+
+    /**
+     * The student's accumulated points.
+     */
+    private int accumulatedPoints;
+
+    /**
+     * Number of ranked students.
+     */
+    private long students;
+}
@@ -7,6 +7,7 @@ import lombok.NoArgsConstructor;
 
 /**
  * Request payload for login operations.
+ * {@code school} is the tenant ID of the user's school; omitted, it means the default school.
  */
 @Data
 @NoArgsConstructor
@@ -15,4 +16,5 @@ import lombok.NoArgsConstructor;
 public class LoginRequest extends ApiRequest {
     private String userId;
     private String password;
+    private String school;
 }
@@ -0,0 +1,33 @@
+package org.hdschools.timebank.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Entity recording how far a consumer has read the outbox.
+ */
+@Entity
+@Table(name = "outbox_cursor")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class OutboxCursor {
+
+    @Id
+    @Column(name = "consumer", length = 128)
+    private String consumer;
+
+    @Column(name = "last_id", nullable = false)
+    private Long lastId;
+}
@@ -0,0 +1,60 @@
+package org.hdschools.timebank.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Entity representing a compact change record written in the same transaction as the change itself.
+ * Records are read in id order by {@link org.hdschools.timebank.service.OutboxTailer}.
+ */
+@Entity
+@Table(name = "outbox")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class OutboxRecord {
+
+    public static final String AGGREGATE_EVENT = "event";
+    public static final String AGGREGATE_STU_DETAILS = "stu_details";
+    public static final String AGGREGATE_SCHOOL = "school";
+
+    public static final String CHANGE_UPDATED = "updated";
+    public static final String CHANGE_STUDENTS_ADDED = "students_added";
+    public static final String CHANGE_EVENTS_ARCHIVED = "events_archived";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "created_at", nullable = false, insertable = false, updatable = false)
+    private Instant createdAt;
+
+    @Column(name = "origin_node", nullable = false, length = 128)
+    private String originNode;
+
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false)
+    private String aggregateId;
+
+    @Column(name = "change_type", nullable = false, length = 32)
+    private String changeType;
+
+    @Column(name = "payload", length = 1024)
+    private String payload;
+}
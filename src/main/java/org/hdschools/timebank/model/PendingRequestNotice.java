@@ -0,0 +1,41 @@
+package org.hdschools.timebank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Compact notice pushed to staff when a pending request is created or decided.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PendingRequestNotice {
+
+    /**
+     * Either "created" or "decided".
+     */
+    private String kind;
+
+    /**
+     * The ID of the pending request event.
+     */
+    private Long requestId;
+
+    /**
+     * The decision type ("accepted" or "rejected") for decided requests.
+     */
+    private String decision;
+
+    /**
+     * The student who made the request.
+     */
+    private String studentUserId;
+
+    /**
+     * The requested or approved point differential.
+     */
+    private int pointDiff;
+}
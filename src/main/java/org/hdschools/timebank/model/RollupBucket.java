@@ -0,0 +1,52 @@
+package org.hdschools.timebank.model;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response payload describing the totals of one reporting bucket.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RollupBucket {
+
+    /**
+     * First day of the bucket.
+     */
+    private LocalDate bucketStart;
+
+    /**
+     * Points from accepted requests.
+     */
+    private int points;
+
+    /**
+     * Credits from accepted and rejected requests.
+     */
+    private int credits;
+
+    /**
+     * Requests decided (accepted or rejected) in the bucket.
+     */
+    private int requestsMade;
+
+    /**
+     * Requests accepted in the bucket.
+     */
+    private int requestsApproved;
+
+    public static RollupBucket from(StuRollup rollup) {
+        return RollupBucket.builder()
+                .bucketStart(rollup.getBucketStart())
+                .points(rollup.getPoints())
+                .credits(rollup.getCredits())
+                .requestsMade(rollup.getRequestsMade())
+                .requestsApproved(rollup.getRequestsApproved())
+                .build();
+    }
+}
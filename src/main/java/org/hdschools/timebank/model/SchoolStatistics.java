@@ -0,0 +1,41 @@
+package org.hdschools.timebank.model;
+
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response payload with live school-wide totals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class SchoolStatistics {
+
+    /**
+     * Requests submitted and not yet decided.
+     */
+    private long pendingRequests;
+
+    /**
+     * The UTC day the daily counts cover.
+     */
+    private LocalDate day;
+
+    private long acceptedToday;
+
+    private long rejectedToday;
+
+    /**
+     * Students who submitted a request or received a decision today.
+     */
+    private long activeStudentsToday;
+
+    /**
+     * Sum of positive point changes from accepted decisions, over all history.
+     */
+    private long pointsIssued;
+}
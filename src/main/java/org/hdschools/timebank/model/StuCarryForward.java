@@ -0,0 +1,55 @@
+package org.hdschools.timebank.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Entity representing one student's totals from all archived events.
+ * The details recalculation adds these to the totals of the live event table.
+ */
+@Entity
+@Table(name = "stu_carry_forward")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class StuCarryForward {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private Instant updatedAt;
+
+    @Column(name = "user_id", unique = true, nullable = false)
+    private String userId;
+
+    @Column(name = "points", nullable = false)
+    private int points;
+
+    @Column(name = "credits", nullable = false)
+    private int credits;
+
+    @Column(name = "requests_made", nullable = false)
+    private int requestsMade;
+
+    @Column(name = "requests_approved", nullable = false)
+    private int requestsApproved;
+
+    @Column(name = "point_additions", nullable = false)
+    private int pointAdditions;
+}
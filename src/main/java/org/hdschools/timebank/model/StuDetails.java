@@ -17,6 +17,7 @@ import lombok.ToString;
 /**
  * Entity representing accumulated statistics and details for a student account.
  * Tracks points, credits, and request statistics for each student user.
+ * Every student starts with {@link #INITIAL_POINTS} points and {@link #INITIAL_CREDITS} credits.
  */
 @Entity
 @Table(name = "stu_details")
@@ -28,6 +29,9 @@ import lombok.ToString;
 @ToString
 public class StuDetails {
 
+    public static final int INITIAL_POINTS = 0;
+    public static final int INITIAL_CREDITS = 100;
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -55,4 +59,18 @@ public class StuDetails {
 
     @Column(name = "total_point_additions", nullable = false)
     private int totalPointAdditions;
+
+    /**
+     * Creates the details of a student who has no events yet, holding the starting balance.
+     *
+     * @param userId the student user ID
+     * @return unsaved details
+     */
+    public static StuDetails initial(String userId) {
+        return StuDetails.builder()
+                .userId(userId)
+                .accumulatedPoints(INITIAL_POINTS)
+                .accumulatedCredits(INITIAL_CREDITS)
+                .build();
+    }
 }
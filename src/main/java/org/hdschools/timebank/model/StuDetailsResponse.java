@@ -0,0 +1,40 @@
+package org.hdschools.timebank.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response payload with a student's current totals.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StuDetailsResponse {
+    private int accumulatedPoints;
+    private int accumulatedCredits;
+    private int requestsMade;
+    private int requestsApproved;
+    private int totalPointAdditions;
+    private Instant updatedAt;
+
+    /**
+     * Creates a response from a student's details.
+     *
+     * @param details the stored details
+     * @return the response payload
+     */
+    public static StuDetailsResponse from(StuDetails details) {
+        return StuDetailsResponse.builder()
+                .accumulatedPoints(details.getAccumulatedPoints())
+                .accumulatedCredits(details.getAccumulatedCredits())
+                .requestsMade(details.getRequestsMade())
+                .requestsApproved(details.getRequestsApproved())
+                .totalPointAdditions(details.getTotalPointAdditions())
+                .updatedAt(details.getUpdatedAt())
+                .build();
+    }
+}
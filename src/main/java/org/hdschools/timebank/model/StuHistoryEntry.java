@@ -0,0 +1,40 @@
+package org.hdschools.timebank.model;
+
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One entry in a student's request history: a submitted request or a staff decision on it.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StuHistoryEntry {
+    private Long eventId;
+    private Instant createdAt;
+    private String type;
+    private int pointDiff;
+    private int creditDiff;
+    private String contentHtml;
+
+    /**
+     * Creates a history entry from an event.
+     *
+     * @param event the stored event
+     * @return the history entry
+     */
+    public static StuHistoryEntry from(Event event) {
+        return StuHistoryEntry.builder()
+                .eventId(event.getId())
+                .createdAt(event.getCreatedAt())
+                .type(event.getType().getValue())
+                .pointDiff(event.getPointDiff())
+                .creditDiff(event.getCreditDiff())
+                .contentHtml(event.getContentHtml())
+                .build();
+    }
+}
@@ -0,0 +1,70 @@
+package org.hdschools.timebank.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import java.time.Instant;
+import java.time.LocalDate;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Entity representing aggregated decision totals for one student (or the whole school) in one time bucket.
+ * Buckets are UTC days or ISO weeks starting on Monday, attributed by decision time.
+ */
+@Entity
+@Table(name = "stu_rollup",
+        uniqueConstraints = @UniqueConstraint(name = "uk_stu_rollup_bucket",
+                columnNames = {"user_id", "bucket_type", "bucket_start"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString
+public class StuRollup {
+
+    public static final String BUCKET_DAY = "day";
+    public static final String BUCKET_WEEK = "week";
+
+    /**
+     * User ID of the rows holding school-wide totals.
+     */
+    public static final String SCHOOL_WIDE = "*";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private Instant updatedAt;
+
+    @Column(name = "user_id", nullable = false)
+    private String userId;
+
+    @Column(name = "bucket_type", nullable = false, length = 8)
+    private String bucketType;
+
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDate bucketStart;
+
+    @Column(name = "points", nullable = false)
+    private int points;
+
+    @Column(name = "credits", nullable = false)
+    private int credits;
+
+    @Column(name = "requests_made", nullable = false)
+    private int requestsMade;
+
+    @Column(name = "requests_approved", nullable = false)
+    private int requestsApproved;
+}
@@ -0,0 +1,34 @@
+package org.hdschools.timebank.model;
+
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response payload comparing a student's stored totals with the totals rebuilt from their events.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StudentRecomputeResponse {
+
+    private String userId;
+
+    private StuDetailsResponse stored;
+
+    private StuDetailsResponse recomputed;
+
+    /**
+     * Recomputed minus stored value of each total that differs, keyed by field name.
+     * Empty if the stored totals were correct.
+     */
+    private Map<String, Integer> drift;
+
+    /**
+     * Whether the recomputed totals were saved.
+     */
+    private boolean updated;
+}
@@ -0,0 +1,50 @@
+package org.hdschools.timebank.model;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import java.time.Instant;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+/**
+ * Entity representing a school hosted by this deployment and the database holding its data.
+ * Registered in the default database; rows are picked up without a restart.
+ */
+@Entity
+@Table(name = "tenant")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@ToString(exclude = "password")
+public class Tenant {
+
+    @Id
+    @Column(name = "tenant_id", length = 20)
+    private String tenantId;
+
+    @Column(name = "name", nullable = false, length = 128)
+    private String name;
+
+    @Column(name = "jdbc_url", nullable = false, length = 255)
+    private String jdbcUrl;
+
+    @Column(name = "username", length = 64)
+    private String username;
+
+    @Column(name = "password", length = 128)
+    private String password;
+
+    @Column(name = "enabled", nullable = false)
+    private boolean enabled;
+
+    @Column(name = "updated_at", nullable = false, insertable = false, updatable = false)
+    private Instant updatedAt;
+}
@@ -0,0 +1,31 @@
+package org.hdschools.timebank.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Describes a CSV row that could not be imported.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportError {
+
+    /**
+     * 1-based line number in the uploaded file.
+     */
+    private long line;
+
+    /**
+     * The user ID on the row, if one could be read.
+     */
+    private String userId;
+
+    /**
+     * Why the row was rejected.
+     */
+    private String message;
+}
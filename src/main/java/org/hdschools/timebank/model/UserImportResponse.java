@@ -0,0 +1,52 @@
+package org.hdschools.timebank.model;
+
+import java.util.List;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Response payload summarizing a bulk user import.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class UserImportResponse {
+
+    /**
+     * The imported user type ("student" or "staff").
+     */
+    private String userType;
+
+    /**
+     * Number of data rows read from the file.
+     */
+    private long rowsRead;
+
+    /**
+     * Number of users created.
+     */
+    private long inserted;
+
+    /**
+     * Number of rows skipped because the user ID already exists or repeats in the file.
+     */
+    private long duplicates;
+
+    /**
+     * Number of rows rejected by validation.
+     */
+    private long failed;
+
+    /**
+     * Details of rejected rows, capped at a fixed number of entries.
+     */
+    private List<UserImportError> errors;
+
+    /**
+     * Whether more rows failed than are listed in {@link #errors}.
+     */
+    private boolean errorsTruncated;
+}
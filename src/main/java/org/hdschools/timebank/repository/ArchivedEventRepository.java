@@ -0,0 +1,49 @@
+package org.hdschools.timebank.repository;
+
+import java.util.Collection;
+import java.util.List;
+import org.hdschools.timebank.model.ArchivedEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ArchivedEventRepository extends JpaRepository<ArchivedEvent, Long> {
+
+    /**
+     * Copies live events into the archive, keeping their ids.
+     *
+     * @param ids ids of the events to copy
+     * @return number of archived rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO event_archive (id, created_at, init_stu_id, init_sta_id, recv_stu_id, recv_sta_id, "
+            + "point_diff, credit_diff, type, content_html, idempotency_key, claimed_by, claim_expires_at, "
+            + "decided_at) "
+            + "SELECT id, created_at, init_stu_id, init_sta_id, recv_stu_id, recv_sta_id, "
+            + "point_diff, credit_diff, type, content_html, idempotency_key, claimed_by, claim_expires_at, "
+            + "decided_at FROM event WHERE id IN (:ids)",
+            nativeQuery = true)
+    int copyFromEvents(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds the next chunk of archived decisions (without content) attributed to a student, in id order.
+     *
+     * @param id       the last id already processed
+     * @param maxId    the highest id to include
+     * @param pageable chunk size
+     * @return decision summaries with a greater id, up to {@code maxId}
+     * @see EventRepository#findDecisionsBetween(Long, Long, Pageable)
+     */
+    @Query("SELECT e.id AS id, e.createdAt AS createdAt, u.userId AS recvStuId, e.type AS type, "
+            + "e.pointDiff AS pointDiff, e.creditDiff AS creditDiff FROM ArchivedEvent e "
+            + "JOIN StuUser u ON u.id = e.recvStuId "
+            + "WHERE e.id > :id AND e.id <= :maxId AND e.type IN (org.hdschools.timebank.model.EventType.ACCEPTED, "
+            + "org.hdschools.timebank.model.EventType.REJECTED) "
+            + "ORDER BY e.id")
+    List<DecisionSummary> findDecisionsBetween(@Param("id") Long id, @Param("maxId") Long maxId,
+                                               Pageable pageable);
+}
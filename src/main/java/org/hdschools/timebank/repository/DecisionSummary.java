@@ -0,0 +1,16 @@
+package org.hdschools.timebank.repository;
+
+import java.time.Instant;
+import org.hdschools.timebank.model.EventType;
+
+/**
+ * Projection of a decision event without its HTML content, with the student's business user ID.
+ */
+public interface DecisionSummary {
+    Long getId();
+    Instant getCreatedAt();
+    String getRecvStuId();
+    EventType getType();
+    int getPointDiff();
+    int getCreditDiff();
+}
@@ -1,29 +1,149 @@
 package org.hdschools.timebank.repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.model.EventType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
     
     /**
-     * Finds all events of type "accepted" initiated by students.
-     * Used for recalculating point balances.
+     * Finds the id of the event created for a user-scoped idempotency key, without loading its content.
      *
-     * @return list of accepted events with student initiators
+     * @param idempotencyKey the scoped idempotency key
+     * @return Optional containing the event id if a submission with this key exists
      */
-    @Query("SELECT e FROM Event e WHERE e.type = 'accepted' AND e.initStuId IS NOT NULL")
-    List<Event> findAllAcceptedByStudents();
-    
+    @Query("SELECT e.id FROM Event e WHERE e.idempotencyKey = :key")
+    Optional<Long> findIdByIdempotencyKey(@Param("key") String idempotencyKey);
+
+    /**
+     * Finds the highest event id.
+     *
+     * @return the highest id, or 0 if there are no events
+     */
+    @Query("SELECT COALESCE(MAX(e.id), 0) FROM Event e")
+    Long findMaxId();
+
+    /**
+     * Finds an event's type without loading its content.
+     *
+     * @param id the event id
+     * @return Optional containing the type if the event exists
+     */
+    @Query("SELECT e.type FROM Event e WHERE e.id = :id")
+    Optional<EventType> findTypeById(@Param("id") Long id);
+
+    /**
+     * Finds the next chunk of decisions (without content) attributed to a student, in id order.
+     * Used for chunked backfills over the event history.
+     *
+     * @param id       the last id already processed
+     * @param maxId    the highest id to include
+     * @param pageable chunk size
+     * @return decision summaries with a greater id, up to {@code maxId}
+     */
+    @Query("SELECT e.id AS id, e.createdAt AS createdAt, u.userId AS recvStuId, e.type AS type, "
+            + "e.pointDiff AS pointDiff, e.creditDiff AS creditDiff FROM Event e JOIN StuUser u ON u.id = e.recvStuId "
+            + "WHERE e.id > :id AND e.id <= :maxId AND e.type IN (org.hdschools.timebank.model.EventType.ACCEPTED, "
+            + "org.hdschools.timebank.model.EventType.REJECTED) "
+            + "ORDER BY e.id")
+    List<DecisionSummary> findDecisionsBetween(@Param("id") Long id, @Param("maxId") Long maxId,
+                                               Pageable pageable);
+
+    /**
+     * Finds the ids of the oldest events created before a cutoff, except requests still open for review.
+     * Used to archive history in bounded chunks.
+     *
+     * @param before   the archival horizon
+     * @param pageable chunk size
+     * @return event ids in ascending order
+     */
+    @Query("SELECT e.id FROM Event e WHERE e.createdAt < :before "
+            + "AND (e.type <> org.hdschools.timebank.model.EventType.PENDING OR e.decidedAt IS NOT NULL) "
+            + "ORDER BY e.id")
+    List<Long> findIdsCreatedBefore(@Param("before") Instant before, Pageable pageable);
+
+    /**
+     * Finds the students that initiated or received any of the given events.
+     *
+     * @param ids event ids
+     * @return distinct student user IDs
+     */
+    @Query("SELECT DISTINCT u.userId FROM Event e JOIN StuUser u ON u.id = e.initStuId OR u.id = e.recvStuId "
+            + "WHERE e.id IN :ids")
+    List<String> findStudentUserIdsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Deletes events by id, after they have been copied to the archive.
+     *
+     * @param ids ids of the events to delete
+     * @return number of deleted rows
+     */
+    @Modifying
+    @Query("DELETE FROM Event e WHERE e.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Finds a page of the live events submitted by or decided for a student, newest first.
+     *
+     * @param initStuId the student's stu_user.id as initiator
+     * @param recvStuId the student's stu_user.id as recipient
+     * @param pageable  page and size
+     * @return the student's events
+     */
+    List<Event> findByInitStuIdOrRecvStuIdOrderByIdDesc(Long initStuId, Long recvStuId, Pageable pageable);
+
+    /**
+     * Locks the oldest undecided requests that are unclaimed, claimed by the given staff member,
+     * or whose claim has expired. Rows locked by concurrent claims are skipped rather than waited on,
+     * so simultaneous reviewers receive disjoint batches.
+     *
+     * @param staffId the claiming staff user ID
+     * @param now     the current time
+     * @param limit   maximum number of requests
+     * @return ids of the locked requests, oldest first
+     */
+    @Query(value = "SELECT id FROM event WHERE type = " + EventType.PENDING_CODE + " AND decided_at IS NULL "
+            + "AND (claimed_by IS NULL OR claimed_by = :staffId OR claim_expires_at < :now) "
+            + "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED",
+            nativeQuery = true)
+    List<Number> lockClaimable(@Param("staffId") String staffId, @Param("now") Instant now,
+                               @Param("limit") int limit);
+
+    /**
+     * Leases requests to a staff member. Run on rows locked by {@link #lockClaimable}.
+     *
+     * @param ids       the request ids
+     * @param staffId   the claiming staff user ID
+     * @param expiresAt when the claim lapses
+     * @return number of claimed requests
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.claimedBy = :staffId, e.claimExpiresAt = :expiresAt WHERE e.id IN :ids")
+    int claim(@Param("ids") Collection<Long> ids, @Param("staffId") String staffId,
+              @Param("expiresAt") Instant expiresAt);
+
     /**
-     * Finds all events of type "accepted" or "rejected" initiated by students.
-     * Used for recalculating credit balances.
+     * Marks a request decided if it is still undecided and not claimed by another staff member.
+     * The conditional update is atomic, so each request can be decided only once.
      *
-     * @return list of accepted/rejected events with student initiators
+     * @param id      the request id
+     * @param staffId the deciding staff user ID
+     * @param now     the current time
+     * @return 1 if the request was marked decided, 0 otherwise
      */
-    @Query("SELECT e FROM Event e WHERE (e.type = 'accepted' OR e.type = 'rejected') AND e.initStuId IS NOT NULL")
-    List<Event> findAllAcceptedOrRejectedByStudents();
+    @Modifying
+    @Query("UPDATE Event e SET e.decidedAt = :now, e.claimedBy = :staffId, e.claimExpiresAt = NULL "
+            + "WHERE e.id = :id AND e.type = org.hdschools.timebank.model.EventType.PENDING AND e.decidedAt IS NULL "
+            + "AND (e.claimedBy IS NULL OR e.claimedBy = :staffId OR e.claimExpiresAt < :now)")
+    int markDecided(@Param("id") Long id, @Param("staffId") String staffId, @Param("now") Instant now);
 }
@@ -0,0 +1,74 @@
+package org.hdschools.timebank.repository;
+
+import java.time.Instant;
+import org.hdschools.timebank.model.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    /**
+     * Claims a lease if it is free, expired, or already held by the same owner.
+     * The conditional update is atomic, so at most one node can win.
+     *
+     * @param name      the lease name
+     * @param owner     the claiming node
+     * @param now       the current time
+     * @param expiresAt the new expiry
+     * @return 1 if the lease was claimed, 0 otherwise
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.expiresAt = :expiresAt, l.heartbeatAt = :now "
+            + "WHERE l.name = :name AND (l.owner = :owner OR l.owner IS NULL OR l.expiresAt < :now)")
+    int tryClaim(@Param("name") String name, @Param("owner") String owner,
+                 @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Extends a lease held by the given owner.
+     *
+     * @param name      the lease name
+     * @param owner     the holding node
+     * @param now       the current time
+     * @param expiresAt the new expiry
+     * @return 1 if the lease is still held and was extended, 0 if it was lost
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.expiresAt = :expiresAt, l.heartbeatAt = :now "
+            + "WHERE l.name = :name AND l.owner = :owner")
+    int renew(@Param("name") String name, @Param("owner") String owner,
+              @Param("now") Instant now, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Releases a lease held by the given owner without marking the job complete.
+     *
+     * @param name  the lease name
+     * @param owner the holding node
+     * @return 1 if the lease was released
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.owner = NULL WHERE l.name = :name AND l.owner = :owner")
+    int release(@Param("name") String name, @Param("owner") String owner);
+
+    /**
+     * Releases a lease held by the given owner and records a successful run.
+     *
+     * @param name        the lease name
+     * @param owner       the holding node
+     * @param completedAt the completion time
+     * @return 1 if the lease was released
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE JobLease l SET l.owner = NULL, l.lastCompletedAt = :completedAt "
+            + "WHERE l.name = :name AND l.owner = :owner")
+    int complete(@Param("name") String name, @Param("owner") String owner,
+                 @Param("completedAt") Instant completedAt);
+}
@@ -0,0 +1,9 @@
+package org.hdschools.timebank.repository;
+
+import org.hdschools.timebank.model.OutboxCursor;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxCursorRepository extends JpaRepository<OutboxCursor, String> {
+}
@@ -0,0 +1,53 @@
+package org.hdschools.timebank.repository;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface OutboxRecordRepository extends JpaRepository<OutboxRecord, Long> {
+
+    /**
+     * Finds the next batch of records after a cursor position, in id order.
+     *
+     * @param id       the last id already consumed
+     * @param pageable batch size
+     * @return records with a greater id
+     */
+    List<OutboxRecord> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Finds records by id, in id order. Used to pick up records that committed after higher ids were read.
+     *
+     * @param ids the ids to look for
+     * @return the records that exist
+     */
+    List<OutboxRecord> findByIdInOrderByIdAsc(Collection<Long> ids);
+
+    /**
+     * Finds the highest record id, used to position new consumers at the end of the feed.
+     *
+     * @return the highest id, or 0 if the outbox is empty
+     */
+    @Query("SELECT COALESCE(MAX(r.id), 0) FROM OutboxRecord r")
+    Long findMaxId();
+
+    /**
+     * Deletes records older than the retention cutoff.
+     *
+     * @param cutoff records created before this are deleted
+     * @return number of deleted records
+     */
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM OutboxRecord r WHERE r.createdAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
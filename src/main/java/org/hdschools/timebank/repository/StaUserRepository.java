@@ -4,8 +4,17 @@ import java.util.Optional;
 import org.hdschools.timebank.model.StaUser;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface StaUserRepository extends JpaRepository<StaUser, Long> {
+
+    /**
+     * Finds a staff user by user ID. Read-only, so it may be served by a read replica.
+     *
+     * @param userId the staff user ID
+     * @return Optional containing the user if found
+     */
+    @Transactional(readOnly = true)
     Optional<StaUser> findByUserId(String userId);
 }
@@ -0,0 +1,99 @@
+package org.hdschools.timebank.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.StuCarryForward;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StuCarryForwardRepository extends JpaRepository<StuCarryForward, Long> {
+
+    /**
+     * Per-event contributions to student totals, with columns
+     * (user_id, points, credits, requests_made, requests_approved, point_additions),
+     * keyed by the student's business user ID.
+     * <p>
+     * Requests made are counted per submission by the initiating student. Decisions carry the
+     * student in init_stu_id (legacy rows) or recv_stu_id; points and point additions come from
+     * accepted decisions only, credits from accepted and rejected ones.
+     * Append {@link #FILTER} to both branches to restrict the events considered.
+     */
+    String EVENT_CONTRIBUTIONS_REQUESTS = "SELECT u.user_id AS user_id, 0 AS points, 0 AS credits, "
+            + "1 AS requests_made, 0 AS requests_approved, 0 AS point_additions "
+            + "FROM event e JOIN stu_user u ON u.id = e.init_stu_id "
+            + "WHERE e.type IN (" + EventType.PENDING_CODE + ", " + EventType.ACCEPTED_CODE + ", "
+            + EventType.REJECTED_CODE + ") ";
+    String DECISION_CONTRIBUTIONS = "CASE WHEN e.type = " + EventType.ACCEPTED_CODE + " THEN e.point_diff ELSE 0 END, "
+            + "e.credit_diff, 0, "
+            + "CASE WHEN e.type = " + EventType.ACCEPTED_CODE + " THEN 1 ELSE 0 END, "
+            + "CASE WHEN e.type = " + EventType.ACCEPTED_CODE + " AND e.point_diff > 0 THEN e.point_diff ELSE 0 END ";
+    String DECISION_TYPES = "e.type IN (" + EventType.ACCEPTED_CODE + ", " + EventType.REJECTED_CODE + ") ";
+    String EVENT_CONTRIBUTIONS_DECISIONS = "SELECT u.user_id, " + DECISION_CONTRIBUTIONS
+            + "FROM event e JOIN stu_user u ON u.id = COALESCE(e.init_stu_id, e.recv_stu_id) "
+            + "WHERE " + DECISION_TYPES;
+    String FILTER = "AND e.id IN (:ids) ";
+    String SUMS = "CAST(SUM(t.points) AS SIGNED) AS points, CAST(SUM(t.credits) AS SIGNED) AS credits, "
+            + "CAST(SUM(t.requests_made) AS SIGNED) AS requestsMade, "
+            + "CAST(SUM(t.requests_approved) AS SIGNED) AS requestsApproved, "
+            + "CAST(SUM(t.point_additions) AS SIGNED) AS pointAdditions ";
+
+    /**
+     * Adds the contributions of the given live events to the carry-forward rows,
+     * creating rows for students seen for the first time. Run before the events are archived.
+     *
+     * @param ids ids of the events about to be archived
+     * @return number of affected rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stu_carry_forward (user_id, points, credits, requests_made, requests_approved, "
+            + "point_additions) SELECT t.user_id, " + SUMS + "FROM ("
+            + EVENT_CONTRIBUTIONS_REQUESTS + FILTER + "UNION ALL " + EVENT_CONTRIBUTIONS_DECISIONS + FILTER
+            + ") t GROUP BY t.user_id "
+            + "ON DUPLICATE KEY UPDATE stu_carry_forward.points = stu_carry_forward.points + VALUES(points), "
+            + "stu_carry_forward.credits = stu_carry_forward.credits + VALUES(credits), "
+            + "stu_carry_forward.requests_made = stu_carry_forward.requests_made + VALUES(requests_made), "
+            + "stu_carry_forward.requests_approved = stu_carry_forward.requests_approved "
+            + "+ VALUES(requests_approved), "
+            + "stu_carry_forward.point_additions = stu_carry_forward.point_additions + VALUES(point_additions)",
+            nativeQuery = true)
+    int addEvents(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Sums each student's carry-forward row and live events into their current totals.
+     * Only the live table is scanned, so the cost follows the archival horizon rather than total history.
+     *
+     * @return totals for every student with a carry-forward row or live events
+     */
+    @Query(value = "SELECT t.user_id AS userId, " + SUMS + "FROM ("
+            + EVENT_CONTRIBUTIONS_REQUESTS + "UNION ALL " + EVENT_CONTRIBUTIONS_DECISIONS + "UNION ALL "
+            + "SELECT c.user_id, c.points, c.credits, c.requests_made, c.requests_approved, c.point_additions "
+            + "FROM stu_carry_forward c) t GROUP BY t.user_id",
+            nativeQuery = true)
+    List<StudentTotals> sumStudentTotals();
+
+    /**
+     * Sums one student's carry-forward row and live events into their current totals, with the same
+     * rules as {@link #sumStudentTotals()}. The decision branch is split by column so each side is
+     * served by its student index instead of scanning every decision.
+     *
+     * @param userId the student user ID
+     * @return the student's totals, or empty if they have no events and no carry-forward row
+     */
+    @Query(value = "SELECT t.user_id AS userId, " + SUMS + "FROM ("
+            + EVENT_CONTRIBUTIONS_REQUESTS + "AND u.user_id = :userId "
+            + "UNION ALL SELECT u.user_id, " + DECISION_CONTRIBUTIONS
+            + "FROM stu_user u JOIN event e ON e.init_stu_id = u.id WHERE u.user_id = :userId AND " + DECISION_TYPES
+            + "UNION ALL SELECT u.user_id, " + DECISION_CONTRIBUTIONS
+            + "FROM stu_user u JOIN event e ON e.recv_stu_id = u.id AND e.init_stu_id IS NULL "
+            + "WHERE u.user_id = :userId AND " + DECISION_TYPES
+            + "UNION ALL SELECT c.user_id, c.points, c.credits, c.requests_made, c.requests_approved, "
+            + "c.point_additions FROM stu_carry_forward c WHERE c.user_id = :userId) t GROUP BY t.user_id",
+            nativeQuery = true)
+    Optional<StudentTotals> sumStudentTotals(@Param("userId") String userId);
+}
@@ -1,8 +1,12 @@
 package org.hdschools.timebank.repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.hdschools.timebank.model.StuDetails;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -15,4 +19,40 @@ public interface StuDetailsRepository extends JpaRepository<StuDetails, Long> {
      * @return Optional containing the details if found
      */
     Optional<StuDetails> findByUserId(String userId);
+
+    /**
+     * Finds the details records of several students.
+     *
+     * @param userIds the student user IDs
+     * @return the records that exist
+     */
+    List<StuDetails> findByUserIdIn(Collection<String> userIds);
+
+    /**
+     * Counts students with more accumulated points than the given value.
+     *
+     * @param points the points to compare against
+     * @return number of students ranked strictly higher
+     */
+    @Query("SELECT COUNT(d) FROM StuDetails d WHERE d.accumulatedPoints > :points")
+    long countWithMorePoints(@Param("points") int points);
+
+    /**
+     * Returns the highest details row ID, for picking sampling start points.
+     *
+     * @return the highest stu_details.id, or 0 if there are no students
+     */
+    @Query("SELECT COALESCE(MAX(d.id), 0) FROM StuDetails d")
+    long findMaxId();
+
+    /**
+     * Returns the user IDs of up to {@code limit} students, starting at a details row ID, for sampling.
+     *
+     * @param fromId the first stu_details.id to consider
+     * @param limit  the maximum number of students
+     * @return the user IDs in ID order
+     */
+    @Query(value = "SELECT d.user_id FROM stu_details d WHERE d.id >= :fromId ORDER BY d.id LIMIT :limit",
+            nativeQuery = true)
+    List<String> findUserIdsFrom(@Param("fromId") long fromId, @Param("limit") int limit);
 }
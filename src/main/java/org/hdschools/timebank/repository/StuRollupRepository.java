@@ -0,0 +1,73 @@
+package org.hdschools.timebank.repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import org.hdschools.timebank.model.StuRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface StuRollupRepository extends JpaRepository<StuRollup, Long> {
+
+    String ADD_TOTALS = "ON DUPLICATE KEY UPDATE points = points + VALUES(points), credits = credits + VALUES(credits), "
+            + "requests_made = requests_made + VALUES(requests_made), "
+            + "requests_approved = requests_approved + VALUES(requests_approved)";
+    String DELTAS = ":points, :credits, :requestsMade, :requestsApproved)";
+
+    /**
+     * Finds one user's buckets of a given type within a date range.
+     *
+     * @param userId     the student user ID, or {@link StuRollup#SCHOOL_WIDE}
+     * @param bucketType "day" or "week"
+     * @param from       first bucket start (inclusive)
+     * @param to         last bucket start (inclusive)
+     * @return buckets in chronological order
+     */
+    List<StuRollup> findByUserIdAndBucketTypeAndBucketStartBetweenOrderByBucketStartAsc(
+            String userId, String bucketType, LocalDate from, LocalDate to);
+
+    /**
+     * Adds deltas to a bucket, creating it if needed.
+     *
+     * @return number of affected rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stu_rollup (user_id, bucket_type, bucket_start, points, credits, "
+            + "requests_made, requests_approved) "
+            + "VALUES (:userId, :bucketType, :bucketStart, " + DELTAS + " " + ADD_TOTALS,
+            nativeQuery = true)
+    int addToBucket(@Param("userId") String userId, @Param("bucketType") String bucketType,
+                    @Param("bucketStart") LocalDate bucketStart, @Param("points") int points,
+                    @Param("credits") int credits, @Param("requestsMade") int requestsMade,
+                    @Param("requestsApproved") int requestsApproved);
+
+    /**
+     * Adds the same deltas to a student's and the school's day and week buckets in one statement,
+     * creating them if needed.
+     *
+     * @return number of affected rows
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stu_rollup (user_id, bucket_type, bucket_start, points, credits, "
+            + "requests_made, requests_approved) VALUES "
+            + "(:userId, '" + StuRollup.BUCKET_DAY + "', :day, " + DELTAS + ", "
+            + "(:userId, '" + StuRollup.BUCKET_WEEK + "', :week, " + DELTAS + ", "
+            + "('" + StuRollup.SCHOOL_WIDE + "', '" + StuRollup.BUCKET_DAY + "', :day, " + DELTAS + ", "
+            + "('" + StuRollup.SCHOOL_WIDE + "', '" + StuRollup.BUCKET_WEEK + "', :week, " + DELTAS + " "
+            + ADD_TOTALS,
+            nativeQuery = true)
+    int addToStudentAndSchoolBuckets(@Param("userId") String userId, @Param("day") LocalDate day,
+                                     @Param("week") LocalDate week, @Param("points") int points,
+                                     @Param("credits") int credits, @Param("requestsMade") int requestsMade,
+                                     @Param("requestsApproved") int requestsApproved);
+
+    /**
+     * Removes every bucket, before a full backfill.
+     */
+    @Modifying
+    @Query("DELETE FROM StuRollup r")
+    int deleteAllBuckets();
+}
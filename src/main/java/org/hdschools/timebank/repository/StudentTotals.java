@@ -0,0 +1,13 @@
+package org.hdschools.timebank.repository;
+
+/**
+ * Projection of one student's aggregated event totals.
+ */
+public interface StudentTotals {
+    String getUserId();
+    long getPoints();
+    long getCredits();
+    long getRequestsMade();
+    long getRequestsApproved();
+    long getPointAdditions();
+}
@@ -0,0 +1,85 @@
+package org.hdschools.timebank.service;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.model.StudentRecomputeResponse;
+import org.hdschools.timebank.repository.StuDetailsRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Checks a random slice of students' details against their events between weekly recalculations.
+ * <p>
+ * Every {@code timebank.drift-check.interval-ms}, up to {@code timebank.drift-check.sample-size}
+ * consecutive students from a random starting row are compared with
+ * {@link BalanceRecalculationService#checkStudent}, one indexed aggregate query each. Drift is only
+ * reported, not repaired: staff can fix a student with {@code POST /sta/students/{userId}/recompute},
+ * and the weekly recalculation fixes everyone. The check only reads, so every node samples its own
+ * slice without a lease.
+ */
+@Service
+@Slf4j
+public class BalanceDriftSampler {
+
+    static final String JOB_NAME = "balance-drift-check";
+
+    private final BalanceRecalculationService balanceRecalculationService;
+    private final StuDetailsRepository stuDetailsRepository;
+    private final TenantJobRunner tenantJobRunner;
+    private final int sampleSize;
+
+    public BalanceDriftSampler(BalanceRecalculationService balanceRecalculationService,
+                               StuDetailsRepository stuDetailsRepository,
+                               TenantJobRunner tenantJobRunner,
+                               @Value("${timebank.drift-check.sample-size:200}") int sampleSize) {
+        this.balanceRecalculationService = balanceRecalculationService;
+        this.stuDetailsRepository = stuDetailsRepository;
+        this.tenantJobRunner = tenantJobRunner;
+        this.sampleSize = sampleSize;
+    }
+
+    /**
+     * Checks a sample of students in each school.
+     */
+    @Scheduled(fixedDelayString = "${timebank.drift-check.interval-ms:3600000}",
+            initialDelayString = "${timebank.drift-check.interval-ms:3600000}")
+    public void onSchedule() {
+        tenantJobRunner.forEachTenant(JOB_NAME, this::checkSample);
+    }
+
+    /**
+     * Checks up to {@code sample-size} students of the current school, starting at a random row and
+     * wrapping around to the first rows if the slice runs past the last one.
+     *
+     * @return the number of students whose details drifted
+     */
+    public int checkSample() {
+        long maxId = stuDetailsRepository.findMaxId();
+        if (maxId == 0 || sampleSize <= 0) {
+            return 0;
+        }
+        long fromId = ThreadLocalRandom.current().nextLong(1, maxId + 1);
+        Set<String> userIds = new LinkedHashSet<>(stuDetailsRepository.findUserIdsFrom(fromId, sampleSize));
+        if (userIds.size() < sampleSize && fromId > 1) {
+            userIds.addAll(stuDetailsRepository.findUserIdsFrom(1, sampleSize - userIds.size()));
+        }
+
+        int drifted = 0;
+        for (String userId : userIds) {
+            try {
+                StudentRecomputeResponse check = balanceRecalculationService.checkStudent(userId);
+                if (!check.getDrift().isEmpty()) {
+                    drifted++;
+                    log.warn("Details drift for student {}: {}", userId, check.getDrift());
+                }
+            } catch (RuntimeException e) {
+                log.error("Drift check failed for student {}", userId, e);
+            }
+        }
+        log.info("Drift check sampled {} students, {} drifted", userIds.size(), drifted);
+        return drifted;
+    }
+}
@@ -0,0 +1,251 @@
+package org.hdschools.timebank.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.BalanceAtResponse;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.model.StuDetails;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Answers "what was this student's balance at time T" from in-memory prefix sums.
+ * <p>
+ * Each student's accepted decisions are kept as parallel primitive arrays sorted by time, holding the
+ * running totals of points and credits, so a lookup is a binary search. A student's arrays are loaded
+ * from the live and archived event tables on first use and extended as accepted decisions arrive
+ * through the outbox, so answers lag commits by at most one outbox poll.
+ * <p>
+ * Memory is bounded by a periodic compaction that drops students not queried within
+ * {@code timebank.balance-index.idle-timeout}, trims spare capacity from the rest, and evicts the least
+ * recently queried students beyond {@code timebank.balance-index.max-students}. Dropped students are
+ * simply reloaded when next queried. Students are keyed by school, which the limit applies across.
+ */
+@Service
+@Slf4j
+public class BalanceHistoryIndex implements OutboxListener {
+
+    private static final String LOAD_ACCEPTED = "SELECT e.id, e.created_at, e.point_diff, e.credit_diff "
+            + "FROM stu_user u JOIN event e ON e.recv_stu_id = u.id "
+            + "WHERE u.user_id = ? AND e.type = " + EventType.ACCEPTED_CODE + " "
+            + "UNION ALL SELECT a.id, a.created_at, a.point_diff, a.credit_diff "
+            + "FROM stu_user u JOIN event_archive a ON a.recv_stu_id = u.id "
+            + "WHERE u.user_id = ? AND a.type = " + EventType.ACCEPTED_CODE + " "
+            + "ORDER BY created_at, id";
+
+    private static final String LOAD_CREATED_AT = "SELECT created_at FROM event WHERE id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Duration idleTimeout;
+    private final int maxStudents;
+    private final Map<String, StudentHistory> histories = new ConcurrentHashMap<>();
+
+    public BalanceHistoryIndex(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                               @Value("${timebank.balance-index.idle-timeout:30m}") Duration idleTimeout,
+                               @Value("${timebank.balance-index.max-students:5000}") int maxStudents) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.idleTimeout = idleTimeout;
+        this.maxStudents = maxStudents;
+    }
+
+    /**
+     * Returns a student's totals from the starting balance and the accepted decisions made at or before
+     * the given time.
+     *
+     * @param studentUserId the student user ID
+     * @param at            the point in time
+     * @return the balance at that time
+     */
+    public BalanceAtResponse balanceAt(String studentUserId, Instant at) {
+        StudentHistory history = histories.computeIfAbsent(TenantContext.key(studentUserId), key -> new StudentHistory());
+        synchronized (history) {
+            if (!history.loaded) {
+                load(studentUserId, history);
+            }
+            history.lastAccess = System.currentTimeMillis();
+
+            int count = history.countAtOrBefore(at.toEpochMilli());
+            return BalanceAtResponse.builder()
+                    .userId(studentUserId)
+                    .at(at)
+                    .accumulatedPoints(StuDetails.INITIAL_POINTS + (count > 0 ? history.points[count - 1] : 0))
+                    .accumulatedCredits(StuDetails.INITIAL_CREDITS + (count > 0 ? history.credits[count - 1] : 0))
+                    .acceptedDecisions(count)
+                    .build();
+        }
+    }
+
+    /**
+     * Extends the loaded history of the receiving student with each accepted decision.
+     * Students not loaded are skipped: their next load reads the committed decision anyway.
+     *
+     * @param record the change record
+     */
+    @Override
+    public void onRecord(OutboxRecord record) {
+        if (!OutboxRecord.AGGREGATE_EVENT.equals(record.getAggregateType())
+                || !"accepted".equals(record.getChangeType())) {
+            return;
+        }
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(record.getPayload());
+        } catch (IOException e) {
+            log.warn("Skipping unreadable outbox record id={}", record.getId(), e);
+            return;
+        }
+        StudentHistory history = histories.get(TenantContext.key(payload.path("studentUserId").asText("")));
+        if (history == null) {
+            return;
+        }
+        long eventId = payload.path("eventId").asLong();
+        synchronized (history) {
+            if (!history.loaded || history.contains(eventId)) {
+                return;
+            }
+        }
+        // Time the decision like a load does; the record's own time is when the outbox row was written
+        List<Timestamp> createdAt = jdbcTemplate.queryForList(LOAD_CREATED_AT, Timestamp.class, eventId);
+        if (createdAt.isEmpty()) {
+            return;
+        }
+        synchronized (history) {
+            if (history.loaded) {
+                history.addDelivered(eventId, createdAt.get(0).getTime(),
+                        payload.path("pointDiff").asInt(), payload.path("creditDiff").asInt());
+            }
+        }
+    }
+
+    /**
+     * Drops idle students, trims the remaining arrays and enforces the student limit.
+     */
+    @Scheduled(fixedDelayString = "${timebank.balance-index.compact-interval-ms:300000}")
+    public void compact() {
+        long idleBefore = System.currentTimeMillis() - idleTimeout.toMillis();
+        histories.values().removeIf(history -> history.lastAccess < idleBefore);
+        histories.values().forEach(history -> {
+            synchronized (history) {
+                history.trim();
+            }
+        });
+
+        int excess = histories.size() - maxStudents;
+        if (excess > 0) {
+            List<Map.Entry<String, StudentHistory>> byAccess = histories.entrySet().stream()
+                    .sorted(Comparator.comparingLong(entry -> entry.getValue().lastAccess))
+                    .limit(excess)
+                    .toList();
+            byAccess.forEach(entry -> histories.remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private void load(String studentUserId, StudentHistory history) {
+        jdbcTemplate.query(LOAD_ACCEPTED, resultSet -> {
+            history.add(resultSet.getLong("id"), resultSet.getTimestamp("created_at").getTime(),
+                    resultSet.getInt("point_diff"), resultSet.getInt("credit_diff"));
+        }, studentUserId, studentUserId);
+        history.trim();
+        history.loaded = true;
+    }
+
+    /**
+     * One student's accepted decisions in time order with running totals. Guarded by its own monitor.
+     */
+    private static final class StudentHistory {
+        private long[] eventIds = new long[8];
+        private long[] times = new long[8];
+        private long[] points = new long[8];
+        private long[] credits = new long[8];
+        private int size;
+        private boolean loaded;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        void addDelivered(long eventId, long time, int pointDiff, int creditDiff) {
+            // Outbox delivery is at-least-once and not strictly in id order, so dedupe on the event itself
+            if (!contains(eventId)) {
+                add(eventId, time, pointDiff, creditDiff);
+            }
+        }
+
+        boolean contains(long eventId) {
+            // Deliveries are usually the newest decisions, so scan from the end
+            for (int i = size - 1; i >= 0; i--) {
+                if (eventIds[i] == eventId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        void add(long eventId, long time, int pointDiff, int creditDiff) {
+            if (size == times.length) {
+                int capacity = size + (size >> 1) + 1;
+                eventIds = Arrays.copyOf(eventIds, capacity);
+                times = Arrays.copyOf(times, capacity);
+                points = Arrays.copyOf(points, capacity);
+                credits = Arrays.copyOf(credits, capacity);
+            }
+
+            // Normally appends; a decision committed out of clock order is inserted in place
+            int position = countAtOrBefore(time);
+            System.arraycopy(eventIds, position, eventIds, position + 1, size - position);
+            System.arraycopy(times, position, times, position + 1, size - position);
+            System.arraycopy(points, position, points, position + 1, size - position);
+            System.arraycopy(credits, position, credits, position + 1, size - position);
+            eventIds[position] = eventId;
+            times[position] = time;
+            size++;
+            for (int i = position; i < size; i++) {
+                long pointsBefore = i > 0 ? points[i - 1] : 0;
+                long creditsBefore = i > 0 ? credits[i - 1] : 0;
+                if (i == position) {
+                    points[i] = pointsBefore + pointDiff;
+                    credits[i] = creditsBefore + creditDiff;
+                } else {
+                    points[i] += pointDiff;
+                    credits[i] += creditDiff;
+                }
+            }
+        }
+
+        int countAtOrBefore(long time) {
+            int low = 0;
+            int high = size;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (times[mid] <= time) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        void trim() {
+            if (times.length > size) {
+                eventIds = Arrays.copyOf(eventIds, size);
+                times = Arrays.copyOf(times, size);
+                points = Arrays.copyOf(points, size);
+                credits = Arrays.copyOf(credits, size);
+            }
+        }
+    }
+}
@@ -1,214 +1,204 @@
 package org.hdschools.timebank.service;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.jfr.RecalculationPhaseEvent;
 import org.hdschools.timebank.model.StuDetails;
-import org.hdschools.timebank.repository.EventRepository;
+import org.hdschools.timebank.model.StuDetailsResponse;
+import org.hdschools.timebank.model.StudentRecomputeResponse;
+import org.hdschools.timebank.repository.StuCarryForwardRepository;
 import org.hdschools.timebank.repository.StuDetailsRepository;
-import org.springframework.scheduling.annotation.Scheduled;
+import org.hdschools.timebank.repository.StudentTotals;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Service responsible for scheduled recalculation of student details.
- * Runs every Monday at 00:00 to ensure data accuracy.
+ * Triggered every Monday at 00:00 by {@link RecalculationScheduler} to ensure data accuracy.
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class BalanceRecalculationService {
 
-    private final EventRepository eventRepository;
+    private final StuCarryForwardRepository stuCarryForwardRepository;
     private final StuDetailsRepository stuDetailsRepository;
-
-    private static final int INITIAL_POINTS = 0;
-    private static final int INITIAL_CREDITS = 100;
+    private final OutboxService outboxService;
+    private final LeaseService leaseService;
 
     /**
      * Recalculates all student details based on event history.
-     * Scheduled to run every Monday at 00:00 (midnight).
+     * Run weekly by {@link RecalculationScheduler} on whichever node holds the recalculation lease.
      * <p>
      * Points start at 0 and only change with "accepted" type events.
      * Credits start at 100 and change with both "accepted" and "rejected" type events.
+     * Every write path creates new details with the same starting balance ({@link StuDetails#initial}).
      * Also calculates: requests made (pending+accepted+rejected), requests approved, and total point additions.
+     * Totals are aggregated in the database from each student's carry-forward row plus the live events,
+     * so archived history is never rescanned (see {@link EventArchiveService}).
+     * Each phase is timed as a {@link RecalculationPhaseEvent} with its row count.
      */
-    @Scheduled(cron = "0 0 0 * * MON")
     @Transactional
     public void recalculateAllBalances() {
         log.info("Starting scheduled details recalculation...");
         
         try {
-            // Calculate points from "accepted" events only
-            Map<String, Integer> pointsByStudent = calculatePointsByStudent();
-            
-            // Calculate credits from "accepted" and "rejected" events
-            Map<String, Integer> creditsByStudent = calculateCreditsByStudent();
-            
-            // Calculate request statistics
-            Map<String, Integer> requestsMadeByStudent = calculateRequestsMadeByStudent();
-            Map<String, Integer> requestsApprovedByStudent = calculateRequestsApprovedByStudent();
-            Map<String, Integer> pointAdditionsByStudent = calculatePointAdditionsByStudent();
-            
-            // Get all unique student user IDs
-            Map<String, StuDetails> detailsToSave = new HashMap<>();
-            
-            // Collect all student user IDs from all maps
-            for (String userId : requestsMadeByStudent.keySet()) {
-                if (!detailsToSave.containsKey(userId)) {
-                    detailsToSave.put(userId, createOrLoadDetails(userId));
-                }
-            }
-            for (String userId : pointsByStudent.keySet()) {
-                if (!detailsToSave.containsKey(userId)) {
-                    detailsToSave.put(userId, createOrLoadDetails(userId));
-                }
+            RecalculationPhaseEvent phase = RecalculationPhaseEvent.start("sum-totals");
+            List<StudentTotals> totalsByStudent = stuCarryForwardRepository.sumStudentTotals();
+            phase.finish(totalsByStudent.size());
+            if (totalsByStudent.isEmpty()) {
+                log.info("No student details to recalculate.");
+                return;
             }
-            for (String userId : creditsByStudent.keySet()) {
-                if (!detailsToSave.containsKey(userId)) {
-                    detailsToSave.put(userId, createOrLoadDetails(userId));
-                }
+
+            // Load existing details in one query instead of one lookup per student
+            phase = RecalculationPhaseEvent.start("load-details");
+            Map<String, StuDetails> existingDetails = new HashMap<>();
+            for (StuDetails details : stuDetailsRepository.findAll()) {
+                existingDetails.put(details.getUserId(), details);
             }
+            phase.finish(existingDetails.size());
             
-            // Update all details
-            for (StuDetails details : detailsToSave.values()) {
-                String userId = details.getUserId();
-                
-                int points = pointsByStudent.getOrDefault(userId, 0);
-                int credits = creditsByStudent.getOrDefault(userId, 0);
-                int requestsMade = requestsMadeByStudent.getOrDefault(userId, 0);
-                int requestsApproved = requestsApprovedByStudent.getOrDefault(userId, 0);
-                int pointAdditions = pointAdditionsByStudent.getOrDefault(userId, 0);
+            // Update all details, remembering which ones actually change
+            phase = RecalculationPhaseEvent.start("compare");
+            List<StuDetails> changedDetails = new ArrayList<>();
+            for (StudentTotals totals : totalsByStudent) {
+                StuDetails details = existingDetails.get(totals.getUserId());
+                if (details == null) {
+                    details = StuDetails.initial(totals.getUserId());
+                }
                 
-                details.setAccumulatedPoints(INITIAL_POINTS + points);
-                details.setAccumulatedCredits(INITIAL_CREDITS + credits);
-                details.setRequestsMade(requestsMade);
-                details.setRequestsApproved(requestsApproved);
-                details.setTotalPointAdditions(pointAdditions);
+                if (applyTotals(details, totals)) {
+                    changedDetails.add(details);
+                }
             }
             
-            // Save all details
-            if (!detailsToSave.isEmpty()) {
-                stuDetailsRepository.saveAll(detailsToSave.values());
-                log.info("Details recalculation completed successfully. Updated {} student records.", 
-                        detailsToSave.size());
-            } else {
-                log.info("No student details to recalculate.");
-            }
+            phase.finish(changedDetails.size());
             
-        } catch (Exception e) {
+            // Save only the details that changed
+            phase = RecalculationPhaseEvent.start("save");
+            leaseService.checkHeld();
+            stuDetailsRepository.saveAll(changedDetails);
+            changedDetails.forEach(outboxService::detailsUpdated);
+            // Flush here so the phase covers the writes rather than leaving them to the commit
+            stuDetailsRepository.flush();
+            phase.finish(changedDetails.size());
+            log.info("Details recalculation completed successfully. Checked {} students, updated {} records.",
+                    totalsByStudent.size(), changedDetails.size());
+            
+        } catch (RuntimeException e) {
+            // Rethrow so the transaction rolls back and a lease-guarded run is not recorded as completed
             log.error("Error during balance recalculation", e);
+            throw e;
         }
     }
 
     /**
-     * Calculates total points per student from "accepted" events.
+     * Rebuilds one student's details from their carry-forward row and live events with a single
+     * aggregate query, and saves them if they drifted. Follows the same rules as
+     * {@link #recalculateAllBalances()}, which also leaves students without any events untouched.
      *
-     * @return map of student user ID to total points
+     * @param userId the student user ID
+     * @return the stored and recomputed totals and the drift between them
      */
-    private Map<String, Integer> calculatePointsByStudent() {
-        List<Event> acceptedEvents = eventRepository.findAllAcceptedByStudents();
-        Map<String, Integer> pointsMap = new HashMap<>();
-        
-        for (Event event : acceptedEvents) {
-            String userId = event.getInitStuId();
-            pointsMap.put(userId, pointsMap.getOrDefault(userId, 0) + event.getPointDiff());
-        }
-        
-        return pointsMap;
+    @Transactional
+    public StudentRecomputeResponse recalculateStudent(String userId) {
+        return recompute(userId, true);
     }
 
     /**
-     * Calculates total credits per student from "accepted" and "rejected" events.
+     * Compares one student's details with the totals rebuilt from their events, without saving anything.
+     * Runs read-only, so it may be served by a read replica.
      *
-     * @return map of student user ID to total credits
+     * @param userId the student user ID
+     * @return the stored and recomputed totals and the drift between them
      */
-    private Map<String, Integer> calculateCreditsByStudent() {
-        List<Event> creditEvents = eventRepository.findAllAcceptedOrRejectedByStudents();
-        Map<String, Integer> creditsMap = new HashMap<>();
-        
-        for (Event event : creditEvents) {
-            String userId = event.getInitStuId();
-            creditsMap.put(userId, creditsMap.getOrDefault(userId, 0) + event.getCreditDiff());
-        }
-        
-        return creditsMap;
+    @Transactional(readOnly = true)
+    public StudentRecomputeResponse checkStudent(String userId) {
+        return recompute(userId, false);
     }
 
-    /**
-     * Calculates total requests made per student (pending, accepted, and rejected).
-     *
-     * @return map of student user ID to total requests made
-     */
-    private Map<String, Integer> calculateRequestsMadeByStudent() {
-        List<Event> allEvents = eventRepository.findAll();
-        Map<String, Integer> requestsMap = new HashMap<>();
-        
-        for (Event event : allEvents) {
-            if (event.getInitStuId() != null && 
-                ("pending".equals(event.getType()) || "accepted".equals(event.getType()) || "rejected".equals(event.getType()))) {
-                String userId = event.getInitStuId();
-                requestsMap.put(userId, requestsMap.getOrDefault(userId, 0) + 1);
-            }
+    private StudentRecomputeResponse recompute(String userId, boolean save) {
+        StuDetails details = stuDetailsRepository.findByUserId(userId)
+                .orElseGet(() -> StuDetails.initial(userId));
+        StuDetailsResponse stored = StuDetailsResponse.from(details);
+        Optional<StudentTotals> totals = stuCarryForwardRepository.sumStudentTotals(userId);
+        if (totals.isEmpty()) {
+            return StudentRecomputeResponse.builder()
+                    .userId(userId)
+                    .stored(stored)
+                    .recomputed(stored)
+                    .drift(Map.of())
+                    .build();
         }
-        
-        return requestsMap;
-    }
 
-    /**
-     * Calculates total approved requests per student.
-     *
-     * @return map of student user ID to total approved requests
-     */
-    private Map<String, Integer> calculateRequestsApprovedByStudent() {
-        List<Event> acceptedEvents = eventRepository.findAllAcceptedByStudents();
-        Map<String, Integer> approvedMap = new HashMap<>();
-        
-        for (Event event : acceptedEvents) {
-            String userId = event.getInitStuId();
-            approvedMap.put(userId, approvedMap.getOrDefault(userId, 0) + 1);
+        // Apply to a copy when only checking, so the managed entity is never dirtied
+        StuDetails target = save ? details : StuDetails.builder()
+                .id(details.getId())
+                .userId(userId)
+                .updatedAt(details.getUpdatedAt())
+                .build();
+        boolean changed = applyTotals(target, totals.get());
+        StuDetailsResponse recomputed = StuDetailsResponse.from(target);
+        if (changed && save) {
+            stuDetailsRepository.save(target);
+            outboxService.detailsUpdated(target);
+            log.info("Recomputed details for student {}", userId);
         }
-        
-        return approvedMap;
+        return StudentRecomputeResponse.builder()
+                .userId(userId)
+                .stored(stored)
+                .recomputed(recomputed)
+                .drift(drift(stored, recomputed))
+                .updated(changed && save)
+                .build();
     }
 
     /**
-     * Calculates total point additions per student (only positive point changes from accepted events).
+     * Sets a student's details to the given totals.
      *
-     * @return map of student user ID to total point additions
+     * @return {@code true} if the details are new or any value changed
      */
-    private Map<String, Integer> calculatePointAdditionsByStudent() {
-        List<Event> acceptedEvents = eventRepository.findAllAcceptedByStudents();
-        Map<String, Integer> additionsMap = new HashMap<>();
-        
-        for (Event event : acceptedEvents) {
-            String userId = event.getInitStuId();
-            if (event.getPointDiff() > 0) {
-                additionsMap.put(userId, additionsMap.getOrDefault(userId, 0) + event.getPointDiff());
-            }
-        }
-        
-        return additionsMap;
+    private static boolean applyTotals(StuDetails details, StudentTotals totals) {
+        int points = StuDetails.INITIAL_POINTS + (int) totals.getPoints();
+        int credits = StuDetails.INITIAL_CREDITS + (int) totals.getCredits();
+        int requestsMade = (int) totals.getRequestsMade();
+        int requestsApproved = (int) totals.getRequestsApproved();
+        int pointAdditions = (int) totals.getPointAdditions();
+
+        boolean changed = details.getId() == null
+                || details.getAccumulatedPoints() != points
+                || details.getAccumulatedCredits() != credits
+                || details.getRequestsMade() != requestsMade
+                || details.getRequestsApproved() != requestsApproved
+                || details.getTotalPointAdditions() != pointAdditions;
+        details.setAccumulatedPoints(points);
+        details.setAccumulatedCredits(credits);
+        details.setRequestsMade(requestsMade);
+        details.setRequestsApproved(requestsApproved);
+        details.setTotalPointAdditions(pointAdditions);
+        return changed;
     }
 
-    /**
-     * Creates a new StuDetails or loads existing one for the given user ID.
-     *
-     * @param userId the student user ID
-     * @return StuDetails instance
-     */
-    private StuDetails createOrLoadDetails(String userId) {
-        return stuDetailsRepository.findByUserId(userId)
-                .orElse(StuDetails.builder()
-                        .userId(userId)
-                        .accumulatedPoints(0)
-                        .accumulatedCredits(0)
-                        .requestsMade(0)
-                        .requestsApproved(0)
-                        .totalPointAdditions(0)
-                        .build());
+    private static Map<String, Integer> drift(StuDetailsResponse stored, StuDetailsResponse recomputed) {
+        Map<String, Integer> drift = new LinkedHashMap<>();
+        addDrift(drift, "accumulatedPoints", stored.getAccumulatedPoints(), recomputed.getAccumulatedPoints());
+        addDrift(drift, "accumulatedCredits", stored.getAccumulatedCredits(), recomputed.getAccumulatedCredits());
+        addDrift(drift, "requestsMade", stored.getRequestsMade(), recomputed.getRequestsMade());
+        addDrift(drift, "requestsApproved", stored.getRequestsApproved(), recomputed.getRequestsApproved());
+        addDrift(drift, "totalPointAdditions", stored.getTotalPointAdditions(), recomputed.getTotalPointAdditions());
+        return drift;
+    }
+
+    private static void addDrift(Map<String, Integer> drift, String field, int stored, int recomputed) {
+        if (stored != recomputed) {
+            drift.put(field, recomputed - stored);
+        }
     }
 }
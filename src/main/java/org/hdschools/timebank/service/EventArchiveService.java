@@ -0,0 +1,111 @@
+package org.hdschools.timebank.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.repository.ArchivedEventRepository;
+import org.hdschools.timebank.repository.EventRepository;
+import org.hdschools.timebank.repository.StuCarryForwardRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves events older than the archival horizon from the live {@code event} table to {@code event_archive},
+ * except requests still awaiting a decision.
+ * <p>
+ * Each chunk is folded into the students' carry-forward rows, copied and deleted in one transaction,
+ * so the details recalculation always sees every event exactly once: either live or in a carry-forward row.
+ * The live table, its indexes and the recalculation then only grow with the horizon, not with total history.
+ * Each chunk also records an outbox change for the students it touched, whose history pages shift.
+ */
+@Service
+@Slf4j
+public class EventArchiveService {
+
+    static final String JOB_NAME = "event-archival";
+
+    private final EventRepository eventRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final StuCarryForwardRepository stuCarryForwardRepository;
+    private final OutboxService outboxService;
+    private final LeaseService leaseService;
+    private final TenantJobRunner tenantJobRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration horizon;
+    private final int chunkSize;
+    private final Duration leaseTtl;
+
+    public EventArchiveService(EventRepository eventRepository,
+                               ArchivedEventRepository archivedEventRepository,
+                               StuCarryForwardRepository stuCarryForwardRepository,
+                               OutboxService outboxService,
+                               LeaseService leaseService,
+                               TenantJobRunner tenantJobRunner,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${timebank.archive.horizon:365d}") Duration horizon,
+                               @Value("${timebank.archive.chunk-size:2000}") int chunkSize,
+                               @Value("${timebank.lease.ttl:10m}") Duration leaseTtl) {
+        this.eventRepository = eventRepository;
+        this.archivedEventRepository = archivedEventRepository;
+        this.stuCarryForwardRepository = stuCarryForwardRepository;
+        this.outboxService = outboxService;
+        this.leaseService = leaseService;
+        this.tenantJobRunner = tenantJobRunner;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.horizon = horizon;
+        this.chunkSize = chunkSize;
+        this.leaseTtl = leaseTtl;
+    }
+
+    /**
+     * Archives expired events nightly, for each school on whichever node holds its archival lease.
+     */
+    @Scheduled(cron = "${timebank.archive.cron:0 30 2 * * *}")
+    public void onSchedule() {
+        tenantJobRunner.forEachTenant(JOB_NAME, () -> leaseService.runExclusively(JOB_NAME, leaseTtl,
+                () -> archiveOlderThan(Instant.now().minus(horizon))));
+    }
+
+    /**
+     * Archives all events created before the cutoff, one chunk per transaction.
+     * Requests not yet decided stay live, so staff can still claim and decide them, and are archived
+     * by the first run after their decision.
+     *
+     * @param cutoff events created before this instant are archived
+     * @return number of archived events
+     */
+    public long archiveOlderThan(Instant cutoff) {
+        log.info("Archiving events created before {}...", cutoff);
+        long archived = 0;
+        while (true) {
+            Integer moved = transactionTemplate.execute(status -> archiveChunk(cutoff));
+            if (moved == null || moved == 0) {
+                break;
+            }
+            archived += moved;
+            log.info("Event archival progress: {} events archived", archived);
+        }
+        log.info("Event archival completed. Archived {} events.", archived);
+        return archived;
+    }
+
+    private int archiveChunk(Instant cutoff) {
+        leaseService.checkHeld();
+        List<Long> ids = eventRepository.findIdsCreatedBefore(cutoff, PageRequest.of(0, chunkSize));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        List<String> studentUserIds = eventRepository.findStudentUserIdsByIdIn(ids);
+        stuCarryForwardRepository.addEvents(ids);
+        archivedEventRepository.copyFromEvents(ids);
+        if (!studentUserIds.isEmpty()) {
+            outboxService.eventsArchived(studentUserIds);
+        }
+        return eventRepository.deleteByIdIn(ids);
+    }
+}
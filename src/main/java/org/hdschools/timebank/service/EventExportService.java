@@ -0,0 +1,250 @@
+package org.hdschools.timebank.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.model.EventType;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Streams the event ledger as CSV or NDJSON straight from a forward-only JDBC cursor.
+ * <p>
+ * Rows are written to the output as they are read, so heap usage stays flat regardless of table size.
+ * With MySQL, a fetch size of {@link Integer#MIN_VALUE}, the default of {@code timebank.export.fetch-size},
+ * makes the driver stream rows one at a time instead of buffering the full result set.
+ */
+@Service
+@Slf4j
+public class EventExportService {
+
+    public static final String FORMAT_CSV = "csv";
+    public static final String FORMAT_NDJSON = "ndjson";
+
+    private static final String[] COLUMNS = {
+            "id", "created_at", "init_stu_id", "init_sta_id", "recv_stu_id", "recv_sta_id",
+            "point_diff", "credit_diff", "type", "content_html"
+    };
+
+    private static final int CONTENT_HTML_INDEX = COLUMNS.length - 1;
+
+    /**
+     * Selects {@link #COLUMNS} with business user IDs and type names, as exports always showed them.
+     */
+    private static final String SELECT_EVENTS = "SELECT e.id AS id, e.created_at AS created_at, "
+            + "si.user_id AS init_stu_id, ai.user_id AS init_sta_id, sr.user_id AS recv_stu_id, "
+            + "ar.user_id AS recv_sta_id, e.point_diff AS point_diff, e.credit_diff AS credit_diff, "
+            + Arrays.stream(EventType.values())
+                    .map(type -> "WHEN " + type.getCode() + " THEN '" + type.getValue() + "'")
+                    .collect(Collectors.joining(" ", "CASE e.type ", " END AS type, "))
+            + "e.content_html AS content_html FROM event e "
+            + "LEFT JOIN stu_user si ON si.id = e.init_stu_id LEFT JOIN sta_user ai ON ai.id = e.init_sta_id "
+            + "LEFT JOIN stu_user sr ON sr.id = e.recv_stu_id LEFT JOIN sta_user ar ON ar.id = e.recv_sta_id ";
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+
+    public EventExportService(DataSource dataSource, PlatformTransactionManager transactionManager,
+                              ObjectMapper objectMapper,
+                              @Value("${timebank.export.fetch-size:" + Integer.MIN_VALUE + "}") int fetchSize) {
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Filters for an export. Null fields are not applied.
+     */
+    @Getter
+    @Builder
+    public static class Filter {
+        private final Instant from;
+        private final Instant to;
+        private final EventType type;
+        private final String studentUserId;
+    }
+
+    /**
+     * Writes every matching event, in id order, to the output stream.
+     *
+     * @param filter the export filters
+     * @param format {@link #FORMAT_CSV} or {@link #FORMAT_NDJSON}
+     * @param output the destination; not closed by this method
+     * @return number of rows written
+     */
+    public long export(Filter filter, String format, OutputStream output) {
+        StringBuilder sql = new StringBuilder(SELECT_EVENTS).append("WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (filter.getFrom() != null) {
+            sql.append(" AND e.created_at >= ?");
+            args.add(Timestamp.from(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND e.created_at < ?");
+            args.add(Timestamp.from(filter.getTo()));
+        }
+        if (filter.getType() != null) {
+            sql.append(" AND e.type = ?");
+            args.add(filter.getType().getCode());
+        }
+        if (filter.getStudentUserId() != null) {
+            sql.append(" AND (e.init_stu_id = (SELECT id FROM stu_user WHERE user_id = ?)"
+                    + " OR e.recv_stu_id = (SELECT id FROM stu_user WHERE user_id = ?))");
+            args.add(filter.getStudentUserId());
+            args.add(filter.getStudentUserId());
+        }
+        sql.append(" ORDER BY e.id");
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8), 64 * 1024);
+        RowWriter rowWriter = FORMAT_NDJSON.equals(format) ? new NdjsonRowWriter(writer) : new CsvRowWriter(writer);
+        long[] rows = new long[1];
+
+        try {
+            rowWriter.start();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        readOnlyTransaction.executeWithoutResult(status -> streamingJdbcTemplate.query(sql.toString(), resultSet -> {
+            try {
+                rowWriter.write(resultSet);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        }, args.toArray()));
+
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        log.info("Exported {} events as {}", rows[0], format);
+        return rows[0];
+    }
+
+    private interface RowWriter {
+        default void start() throws IOException {
+        }
+
+        void write(ResultSet row) throws IOException, SQLException;
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        /**
+         * Writes the header before any row is read, so an export matching nothing is still a valid file.
+         */
+        @Override
+        public void start() throws IOException {
+            writer.write(String.join(",", COLUMNS));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet row) throws IOException, SQLException {
+            for (int i = 0; i < COLUMNS.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                Object value = row.getObject(i + 1);
+                if (value instanceof Timestamp timestamp) {
+                    value = timestamp.toInstant();
+                }
+                if (value != null) {
+                    writeField(i == CONTENT_HTML_INDEX ? neutralizeFormula(value.toString()) : value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        /**
+         * Prefixes free text that a spreadsheet would evaluate as a formula with a single quote.
+         */
+        private static String neutralizeFormula(String value) {
+            if (value.isEmpty()) {
+                return value;
+            }
+            char first = value.charAt(0);
+            boolean formula = first == '=' || first == '+' || first == '-' || first == '@'
+                    || first == '\t' || first == '\r';
+            return formula ? "'" + value : value;
+        }
+
+        private void writeField(String value) throws IOException {
+            boolean quote = value.indexOf(',') >= 0 || value.indexOf('"') >= 0
+                    || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0;
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private final JsonGenerator generator;
+
+        NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+            try {
+                this.generator = objectMapper.getFactory().createGenerator(writer)
+                        .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public void write(ResultSet row) throws IOException, SQLException {
+            generator.writeStartObject();
+            generator.writeNumberField("id", row.getLong("id"));
+            Timestamp createdAt = row.getTimestamp("created_at");
+            generator.writeStringField("createdAt", createdAt != null ? createdAt.toInstant().toString() : null);
+            generator.writeStringField("initStuId", row.getString("init_stu_id"));
+            generator.writeStringField("initStaId", row.getString("init_sta_id"));
+            generator.writeStringField("recvStuId", row.getString("recv_stu_id"));
+            generator.writeStringField("recvStaId", row.getString("recv_sta_id"));
+            generator.writeNumberField("pointDiff", row.getInt("point_diff"));
+            generator.writeNumberField("creditDiff", row.getInt("credit_diff"));
+            generator.writeStringField("type", row.getString("type"));
+            generator.writeStringField("contentHtml", row.getString("content_html"));
+            generator.writeEndObject();
+            generator.flush();
+            writer.write('\n');
+        }
+    }
+}
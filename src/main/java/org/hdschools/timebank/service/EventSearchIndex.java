@@ -0,0 +1,550 @@
+package org.hdschools.timebank.service;
+
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.charfilter.HTMLStripCharFilter;
+import org.apache.lucene.analysis.en.EnglishPossessiveFilter;
+import org.apache.lucene.analysis.en.PorterStemFilter;
+import org.apache.lucene.analysis.standard.StandardTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.simple.SimpleQueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.EventSearchHit;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Full-text search over event content, from a Lucene index on this node's local disk.
+ * <p>
+ * Each school has its own index under {@code timebank.search.directory}, holding one document per event
+ * with content: the HTML-stripped, stemmed text plus the event type, student and creation time as
+ * filters. New events arrive through the outbox and become searchable at the next refresh, every
+ * {@code timebank.search.refresh-interval-ms}. Changes are committed to disk every
+ * {@code timebank.search.commit-interval-ms}.
+ * <p>
+ * A school's index is opened on first use and caught up in the background on
+ * {@code timebank.search.build-threads} threads: a new index from the live and archived event tables,
+ * an existing one from the live events after the highest ID it recorded as complete. That bound is read
+ * when the index is opened, so events delivered through the outbox meanwhile do not move it, and the
+ * index records a new one only once its catch-up has finished. Searches see partial results until then.
+ * <p>
+ * {@link #rebuild()} builds a fresh index generation in a new directory, also in the background, while
+ * the current one keeps serving; outbox deliveries go to both until the new generation is swapped in.
+ * A pointer file names the current generation, so a build interrupted by a restart is discarded.
+ */
+@Service
+@Slf4j
+public class EventSearchIndex implements OutboxListener {
+
+    static final String JOB_NAME = "search-index";
+
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_STUDENT = "student";
+    private static final String FIELD_CREATED = "created";
+    private static final String FIELD_CONTENT = "content";
+    private static final String LAST_EVENT_ID = "lastEventId";
+    private static final String CURRENT_GENERATION = "current";
+
+    private static final String SELECT_COLUMNS = "SELECT e.id, e.created_at, e.type, e.content_html, u.user_id ";
+    private static final String JOIN_STUDENT = "LEFT JOIN stu_user u ON u.id = COALESCE(e.recv_stu_id, e.init_stu_id) ";
+
+    private static final String LOAD_ONE = SELECT_COLUMNS + "FROM event e " + JOIN_STUDENT + "WHERE e.id = ?";
+
+    private static final String LOAD_LIVE_CHUNK = SELECT_COLUMNS + "FROM event e " + JOIN_STUDENT
+            + "WHERE e.id > ? AND e.content_html IS NOT NULL ORDER BY e.id LIMIT ?";
+
+    private static final String LOAD_ARCHIVED_CHUNK = SELECT_COLUMNS + "FROM event_archive e " + JOIN_STUDENT
+            + "WHERE e.id > ? AND e.content_html IS NOT NULL ORDER BY e.id LIMIT ?";
+
+    private static final Analyzer INDEX_ANALYZER = new ContentAnalyzer(true);
+    private static final Analyzer QUERY_ANALYZER = new ContentAnalyzer(false);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TenantJobRunner tenantJobRunner;
+    private final Path directory;
+    private final int chunkSize;
+    private final Map<String, SchoolIndex> schools = new ConcurrentHashMap<>();
+    private final List<Generation> retired = new CopyOnWriteArrayList<>();
+    private final ExecutorService builds;
+
+    public EventSearchIndex(JdbcTemplate jdbcTemplate, TenantJobRunner tenantJobRunner,
+                            @Value("${timebank.search.directory:data/search}") Path directory,
+                            @Value("${timebank.search.rebuild-chunk-size:5000}") int chunkSize,
+                            @Value("${timebank.search.build-threads:2}") int buildThreads) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.tenantJobRunner = tenantJobRunner;
+        this.directory = directory;
+        this.chunkSize = chunkSize;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.builds = Executors.newFixedThreadPool(buildThreads, runnable -> {
+            Thread thread = new Thread(runnable, "search-index-build-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Finds the current school's events whose content matches a query, best match first.
+     * <p>
+     * The query uses simple syntax: words must all match, {@code "quoted phrases"} match in order,
+     * {@code word*} matches a prefix, {@code -word} excludes and {@code |} separates alternatives.
+     *
+     * @param text          the query
+     * @param type          only events of this type, or {@code null} for all
+     * @param studentUserId only events of this student, or {@code null} for all
+     * @param from          first creation day (inclusive, UTC), or {@code null}
+     * @param to            last creation day (inclusive, UTC), or {@code null}
+     * @param limit         maximum number of hits
+     * @return the hits, best first
+     */
+    public List<EventSearchHit> search(String text, EventType type, String studentUserId,
+                                       LocalDate from, LocalDate to, int limit) {
+        SimpleQueryParser parser = new SimpleQueryParser(QUERY_ANALYZER, FIELD_CONTENT);
+        parser.setDefaultOperator(BooleanClause.Occur.MUST);
+        BooleanQuery.Builder query = new BooleanQuery.Builder().add(parser.parse(text), BooleanClause.Occur.MUST);
+        if (type != null) {
+            query.add(new TermQuery(new Term(FIELD_TYPE, type.getValue())), BooleanClause.Occur.FILTER);
+        }
+        if (studentUserId != null) {
+            query.add(new TermQuery(new Term(FIELD_STUDENT, studentUserId)), BooleanClause.Occur.FILTER);
+        }
+        if (from != null || to != null) {
+            long fromMillis = from != null ? startOfDay(from) : Long.MIN_VALUE;
+            long toMillis = to != null ? startOfDay(to.plusDays(1)) - 1 : Long.MAX_VALUE;
+            query.add(LongPoint.newRangeQuery(FIELD_CREATED, fromMillis, toMillis), BooleanClause.Occur.FILTER);
+        }
+
+        SearcherManager searcherManager = school().current.searcherManager;
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                List<EventSearchHit> hits = new ArrayList<>();
+                for (ScoreDoc scoreDoc : searcher.search(query.build(), limit).scoreDocs) {
+                    String eventId = searcher.storedFields().document(scoreDoc.doc, Set.of(FIELD_ID)).get(FIELD_ID);
+                    hits.add(new EventSearchHit(Long.parseLong(eventId), scoreDoc.score));
+                }
+                return hits;
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Indexes each written event into the school's current index and into a generation being rebuilt.
+     * Re-indexing a redelivered event replaces its document.
+     *
+     * @param record the change record
+     */
+    @Override
+    public void onRecord(OutboxRecord record) {
+        if (!OutboxRecord.AGGREGATE_EVENT.equals(record.getAggregateType())) {
+            return;
+        }
+        SchoolIndex school = school();
+        jdbcTemplate.query(LOAD_ONE, resultSet -> {
+            IndexedEvent event = IndexedEvent.from(resultSet);
+            school.current.add(event);
+            Generation building = school.building;
+            if (building != null) {
+                building.add(event);
+            }
+        }, Long.parseLong(record.getAggregateId()));
+    }
+
+    /**
+     * Opens every school's index if needed and makes recently indexed events searchable.
+     */
+    @Scheduled(fixedDelayString = "${timebank.search.refresh-interval-ms:1000}")
+    public void refreshAll() {
+        tenantJobRunner.forEachTenant(JOB_NAME, () -> {
+            try {
+                school().current.searcherManager.maybeRefreshBlocking();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+
+    /**
+     * Commits every open index and closes generations replaced since the last commit.
+     */
+    @Scheduled(fixedDelayString = "${timebank.search.commit-interval-ms:60000}",
+            initialDelayString = "${timebank.search.commit-interval-ms:60000}")
+    public void commitAll() {
+        schools.forEach((tenantId, school) -> {
+            try {
+                school.current.commit();
+            } catch (IOException e) {
+                log.error("Committing the search index of school {} failed", tenantId, e);
+            }
+        });
+        // Replaced generations stay open for one interval so searches in flight can finish
+        for (Generation generation : retired) {
+            retired.remove(generation);
+            generation.close();
+            FileSystemUtils.deleteRecursively(generation.path.toFile());
+        }
+    }
+
+    /**
+     * Starts rebuilding the current school's index on this node from the live and archived event tables.
+     * The current index keeps serving until the new one is complete.
+     *
+     * @return the number of events indexed once the rebuild completes, or empty if one is already running
+     */
+    public Optional<CompletableFuture<Long>> rebuild() {
+        SchoolIndex school = school();
+        if (!school.rebuilding.compareAndSet(false, true)) {
+            return Optional.empty();
+        }
+        return Optional.of(CompletableFuture.supplyAsync(() -> {
+            try {
+                return rebuild(school);
+            } finally {
+                school.rebuilding.set(false);
+            }
+        }, runnable -> builds.execute(TenantContext.wrap(runnable))));
+    }
+
+    @PreDestroy
+    void close() {
+        builds.shutdownNow();
+        schools.forEach((tenantId, school) -> {
+            try {
+                school.current.commit();
+            } catch (IOException e) {
+                log.warn("Committing the search index of school {} failed", tenantId, e);
+            }
+            school.current.close();
+            Generation building = school.building;
+            if (building != null) {
+                building.close();
+            }
+        });
+        retired.forEach(Generation::close);
+    }
+
+    /**
+     * Returns the current school's index, opening it and starting its catch-up on first use.
+     */
+    private SchoolIndex school() {
+        String tenantId = TenantContext.current();
+        SchoolIndex school = schools.get(tenantId);
+        if (school != null) {
+            return school;
+        }
+        synchronized (schools) {
+            school = schools.get(tenantId);
+            if (school == null) {
+                school = open(directory.resolve(tenantId));
+                schools.put(tenantId, school);
+                Generation opened = school.current;
+                builds.execute(TenantContext.wrap(() -> catchUp(opened)));
+            }
+            return school;
+        }
+    }
+
+    /**
+     * Opens the school's current generation and deletes any other, such as an interrupted rebuild.
+     */
+    private SchoolIndex open(Path schoolPath) {
+        try {
+            Files.createDirectories(schoolPath);
+            Path pointer = schoolPath.resolve(CURRENT_GENERATION);
+            int generation = Files.exists(pointer) ? Integer.parseInt(Files.readString(pointer).trim()) : 0;
+            try (DirectoryStream<Path> entries = Files.newDirectoryStream(schoolPath, Files::isDirectory)) {
+                for (Path entry : entries) {
+                    if (!entry.getFileName().toString().equals(String.valueOf(generation))) {
+                        FileSystemUtils.deleteRecursively(entry);
+                    }
+                }
+            }
+            return new SchoolIndex(schoolPath, Generation.open(schoolPath, generation));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void catchUp(Generation generation) {
+        try {
+            long indexed;
+            if (generation.catchUpFrom < 0) {
+                indexed = indexAll(generation, LOAD_ARCHIVED_CHUNK, 0) + indexAll(generation, LOAD_LIVE_CHUNK, 0);
+            } else {
+                indexed = indexAll(generation, LOAD_LIVE_CHUNK, generation.catchUpFrom);
+            }
+            generation.complete = true;
+            generation.commit();
+            generation.searcherManager.maybeRefresh();
+            log.info("Search index of school {} caught up on {} events", TenantContext.current(), indexed);
+        } catch (IOException | RuntimeException e) {
+            log.error("Search index catch-up of school {} failed", TenantContext.current(), e);
+        }
+    }
+
+    private long rebuild(SchoolIndex school) {
+        Generation previous = school.current;
+        Generation next;
+        try {
+            next = Generation.open(school.path, previous.number + 1);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        school.building = next;
+        try {
+            long indexed = indexAll(next, LOAD_ARCHIVED_CHUNK, 0) + indexAll(next, LOAD_LIVE_CHUNK, 0);
+            next.complete = true;
+            next.commit();
+            next.searcherManager.maybeRefreshBlocking();
+
+            Path pointer = school.path.resolve(CURRENT_GENERATION);
+            Path written = school.path.resolve(CURRENT_GENERATION + ".tmp");
+            Files.writeString(written, String.valueOf(next.number));
+            Files.move(written, pointer, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            school.current = next;
+            school.building = null;
+            retired.add(previous);
+            log.info("Rebuilt the search index of school {} from {} events", TenantContext.current(), indexed);
+            return indexed;
+        } catch (IOException e) {
+            abandon(school, next, e);
+            throw new UncheckedIOException(e);
+        } catch (RuntimeException e) {
+            abandon(school, next, e);
+            throw e;
+        }
+    }
+
+    private void abandon(SchoolIndex school, Generation next, Exception cause) {
+        log.error("Rebuilding the search index of school {} failed", TenantContext.current(), cause);
+        school.building = null;
+        next.close();
+        FileSystemUtils.deleteRecursively(next.path.toFile());
+    }
+
+    /**
+     * Indexes the events of one table after an ID, in chunks.
+     *
+     * @return the number of events indexed
+     */
+    private long indexAll(Generation generation, String chunkQuery, long afterId) {
+        long indexed = 0;
+        long lastId = afterId;
+        while (true) {
+            long[] chunk = {lastId, 0};
+            jdbcTemplate.query(chunkQuery, resultSet -> {
+                IndexedEvent event = IndexedEvent.from(resultSet);
+                generation.add(event);
+                chunk[0] = event.eventId();
+                chunk[1]++;
+            }, lastId, chunkSize);
+            indexed += chunk[1];
+            lastId = chunk[0];
+            if (chunk[1] < chunkSize) {
+                return indexed;
+            }
+        }
+    }
+
+    private static long startOfDay(LocalDate day) {
+        return day.atStartOfDay(ZoneOffset.UTC).toInstant().toEpochMilli();
+    }
+
+    /**
+     * One school's indexes: the generation serving searches and, during a rebuild, its replacement.
+     */
+    private static final class SchoolIndex {
+        private final Path path;
+        private volatile Generation current;
+        private volatile Generation building;
+        private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+        SchoolIndex(Path path, Generation current) {
+            this.path = path;
+            this.current = current;
+        }
+    }
+
+    /**
+     * One index directory. The writer and searcher manager are thread-safe.
+     */
+    private static final class Generation {
+        private final int number;
+        private final Path path;
+        private final Directory directory;
+        private final IndexWriter writer;
+        private final SearcherManager searcherManager;
+        /** Highest event ID recorded as complete when opened, or -1 if the index must be built from scratch. */
+        private final long catchUpFrom;
+        private final AtomicLong highestIndexed = new AtomicLong(-1);
+        private volatile boolean complete;
+
+        private Generation(int number, Path path, Directory directory, IndexWriter writer, long catchUpFrom)
+                throws IOException {
+            this.number = number;
+            this.path = path;
+            this.directory = directory;
+            this.writer = writer;
+            this.searcherManager = new SearcherManager(writer, null);
+            this.catchUpFrom = catchUpFrom;
+        }
+
+        static Generation open(Path schoolPath, int number) throws IOException {
+            Path path = schoolPath.resolve(String.valueOf(number));
+            Directory directory = FSDirectory.open(path);
+            IndexWriter writer = new IndexWriter(directory, new IndexWriterConfig(INDEX_ANALYZER));
+            long catchUpFrom = -1;
+            for (Map.Entry<String, String> entry : writer.getLiveCommitData()) {
+                if (LAST_EVENT_ID.equals(entry.getKey())) {
+                    catchUpFrom = Long.parseLong(entry.getValue());
+                }
+            }
+            return new Generation(number, path, directory, writer, catchUpFrom);
+        }
+
+        void add(IndexedEvent event) {
+            if (event.document() != null) {
+                try {
+                    writer.updateDocument(new Term(FIELD_ID, String.valueOf(event.eventId())), event.document());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+            highestIndexed.accumulateAndGet(event.eventId(), Math::max);
+        }
+
+        /**
+         * Commits pending changes. The recorded bound only moves past the one read at open once the
+         * catch-up has finished; until then a restart repeats the catch-up.
+         */
+        void commit() throws IOException {
+            if (!writer.hasUncommittedChanges()) {
+                return;
+            }
+            long bound = complete ? Math.max(catchUpFrom, highestIndexed.get()) : catchUpFrom;
+            writer.setLiveCommitData(bound >= 0
+                    ? Map.of(LAST_EVENT_ID, String.valueOf(bound)).entrySet()
+                    : Map.<String, String>of().entrySet());
+            writer.commit();
+        }
+
+        void close() {
+            try {
+                searcherManager.close();
+                writer.close();
+                directory.close();
+            } catch (IOException e) {
+                log.warn("Closing search index {} failed", path, e);
+            }
+        }
+    }
+
+    /**
+     * An event row turned into a document, or a {@code null} document if the event has no content.
+     */
+    private record IndexedEvent(long eventId, Document document) {
+
+        static IndexedEvent from(ResultSet row) throws SQLException {
+            long eventId = row.getLong("id");
+            String contentHtml = row.getString("content_html");
+            if (contentHtml == null) {
+                return new IndexedEvent(eventId, null);
+            }
+            Document document = new Document();
+            document.add(new StringField(FIELD_ID, String.valueOf(eventId), Field.Store.YES));
+            document.add(new StringField(FIELD_TYPE, EventType.fromCode(row.getInt("type")).getValue(),
+                    Field.Store.NO));
+            String studentUserId = row.getString("user_id");
+            if (studentUserId != null) {
+                document.add(new StringField(FIELD_STUDENT, studentUserId, Field.Store.NO));
+            }
+            document.add(new LongPoint(FIELD_CREATED, row.getTimestamp("created_at").getTime()));
+            document.add(new TextField(FIELD_CONTENT, contentHtml, Field.Store.NO));
+            return new IndexedEvent(eventId, document);
+        }
+    }
+
+    /**
+     * Standard tokenization, lower-cased and Porter-stemmed so "cleanups" finds "cleanup". Indexed
+     * content has its HTML markup and entities stripped first.
+     */
+    private static final class ContentAnalyzer extends Analyzer {
+        private final boolean stripHtml;
+
+        ContentAnalyzer(boolean stripHtml) {
+            this.stripHtml = stripHtml;
+        }
+
+        @Override
+        protected Reader initReader(String fieldName, Reader reader) {
+            return stripHtml ? new HTMLStripCharFilter(reader) : reader;
+        }
+
+        @Override
+        protected TokenStreamComponents createComponents(String fieldName) {
+            Tokenizer source = new StandardTokenizer();
+            TokenStream result = new LowerCaseFilter(source);
+            result = new EnglishPossessiveFilter(result);
+            result = new PorterStemFilter(result);
+            return new TokenStreamComponents(source, result);
+        }
+
+        @Override
+        protected TokenStream normalize(String fieldName, TokenStream in) {
+            return new LowerCaseFilter(in);
+        }
+    }
+}
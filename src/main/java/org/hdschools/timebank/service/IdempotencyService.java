@@ -0,0 +1,125 @@
+package org.hdschools.timebank.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tracks client-supplied idempotency keys so retried submissions return the original result.
+ * <p>
+ * Recently used keys are kept in a bounded, TTL-limited in-memory store. Keys that have been
+ * evicted (or were recorded by another instance) fall back to the unique
+ * {@code event.idempotency_key} column, which is the source of truth. In-memory entries are keyed by
+ * school, since each school's event IDs come from its own database.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private static final int MAX_KEY_LENGTH = 64;
+
+    private final EventRepository eventRepository;
+    private final Duration ttl;
+    private final Map<String, Entry> entries;
+
+    public IdempotencyService(EventRepository eventRepository,
+                              @Value("${timebank.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${timebank.idempotency.ttl-minutes:60}") long ttlMinutes) {
+        this.eventRepository = eventRepository;
+        this.ttl = Duration.ofMinutes(ttlMinutes);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Checks that a client-supplied key is usable.
+     *
+     * @param key the raw header value
+     * @return {@code true} if the key is non-blank and at most 64 characters long
+     */
+    public boolean isValidKey(String key) {
+        return key != null && !key.isBlank() && key.length() <= MAX_KEY_LENGTH;
+    }
+
+    /**
+     * Builds the key stored for a user, so different users can never collide on the same value.
+     *
+     * @param userType the authenticated user type ("student" or "staff")
+     * @param userId   the authenticated user's ID
+     * @param key      the raw header value
+     * @return the user-scoped key
+     */
+    public String scopedKey(String userType, Long userId, String key) {
+        return userType + ":" + userId + ":" + key;
+    }
+
+    /**
+     * Finds the event previously created for a scoped key.
+     * Checks the in-memory store first and only queries the database on a miss.
+     *
+     * @param scopedKey the user-scoped key
+     * @return Optional containing the original event ID if the key was already used
+     */
+    public Optional<Long> findEventId(String scopedKey) {
+        Optional<Long> remembered = findRemembered(scopedKey);
+        if (remembered.isPresent()) {
+            return remembered;
+        }
+
+        Optional<Long> stored = eventRepository.findIdByIdempotencyKey(scopedKey);
+        stored.ifPresent(eventId -> remember(scopedKey, eventId));
+        return stored;
+    }
+
+    /**
+     * Finds the event previously created for a scoped key in the in-memory store only.
+     * Callers that cannot block on the repository query the database themselves on a miss.
+     *
+     * @param scopedKey the user-scoped key
+     * @return Optional containing the original event ID if the key is remembered and not expired
+     */
+    public Optional<Long> findRemembered(String scopedKey) {
+        Instant now = Instant.now();
+        String entryKey = TenantContext.key(scopedKey);
+        synchronized (entries) {
+            Entry entry = entries.get(entryKey);
+            if (entry != null) {
+                if (entry.expiresAt().isAfter(now)) {
+                    log.debug("Idempotency key hit in memory: key={}", scopedKey);
+                    return Optional.of(entry.eventId());
+                }
+                entries.remove(entryKey);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Records the event created for a scoped key.
+     *
+     * @param scopedKey the user-scoped key
+     * @param eventId   the ID of the event created for the submission
+     */
+    public void remember(String scopedKey, Long eventId) {
+        Entry entry = new Entry(eventId, Instant.now().plus(ttl));
+        synchronized (entries) {
+            entries.put(TenantContext.key(scopedKey), entry);
+        }
+    }
+
+    private record Entry(Long eventId, Instant expiresAt) {
+    }
+}
@@ -0,0 +1,192 @@
+package org.hdschools.timebank.service;
+
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.NodeIdentity;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.JobLease;
+import org.hdschools.timebank.repository.JobLeaseRepository;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Coordinates scheduled jobs across nodes with database-backed leases.
+ * <p>
+ * A node must claim a job's lease before running it and heartbeats the lease while the job runs.
+ * If the holder dies, the lease expires and another node can claim it.
+ * <p>
+ * If a renewal finds the lease taken, or renewals keep failing for longer than the TTL, the lease is
+ * marked lost and the job's thread is interrupted. Jobs call {@link #checkHeld()} before each write,
+ * which then throws, so a node that lost its lease stops instead of racing the new holder.
+ */
+@Service
+@Slf4j
+public class LeaseService {
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final String owner;
+    private final ScheduledExecutorService heartbeats;
+    private final ThreadLocal<HeldLease> heldLease = new ThreadLocal<>();
+
+    public LeaseService(JobLeaseRepository jobLeaseRepository, NodeIdentity nodeIdentity) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.owner = nodeIdentity.getId();
+        this.heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "lease-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs a job if this node can claim its lease, heartbeating the lease until the job finishes.
+     *
+     * @param name the lease name
+     * @param ttl  how long the lease stays valid without a heartbeat
+     * @param job  the job to run
+     * @return {@code true} if this node ran the job, {@code false} if another node holds the lease
+     */
+    public boolean runExclusively(String name, Duration ttl, Runnable job) {
+        ensureLease(name);
+        Instant now = Instant.now();
+        if (jobLeaseRepository.tryClaim(name, owner, now, now.plus(ttl)) == 0) {
+            log.info("Lease {} is held by another node, skipping", name);
+            return false;
+        }
+        log.info("Acquired lease {} as {}", name, owner);
+
+        HeldLease lease = new HeldLease(name, ttl, Thread.currentThread());
+        HeldLease outer = heldLease.get();
+        heldLease.set(lease);
+        long heartbeatMillis = Math.max(1, ttl.toMillis() / 3);
+        // Leases live in each school's database, so heartbeats must reach the same school as the claim
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleAtFixedRate(TenantContext.wrap(() -> heartbeat(lease)),
+                heartbeatMillis, heartbeatMillis, TimeUnit.MILLISECONDS);
+
+        boolean completed = false;
+        try {
+            job.run();
+            completed = true;
+        } finally {
+            heartbeat.cancel(false);
+            heldLease.set(outer);
+            if (lease.lost) {
+                // Do not leave the interrupt meant for the job to whatever runs next on this thread
+                Thread.interrupted();
+                completed = false;
+            }
+            if (completed) {
+                jobLeaseRepository.complete(name, owner, Instant.now());
+            } else {
+                jobLeaseRepository.release(name, owner);
+            }
+            log.info("Released lease {} (completed={})", name, completed);
+        }
+        return true;
+    }
+
+    /**
+     * Throws if the lease held by the calling job has been lost or could not be renewed within its TTL.
+     * Does nothing when called outside {@link #runExclusively}, so jobs can also be run directly.
+     *
+     * @throws IllegalStateException if the lease is no longer held
+     */
+    public void checkHeld() {
+        HeldLease lease = heldLease.get();
+        if (lease == null) {
+            return;
+        }
+        if (System.nanoTime() - lease.renewedAt > lease.ttlNanos) {
+            lease.lost = true;
+        }
+        if (lease.lost) {
+            throw new IllegalStateException("Lost lease " + lease.name);
+        }
+    }
+
+    /**
+     * Returns when the job last completed successfully on any node.
+     *
+     * @param name the lease name
+     * @return Optional containing the last completion time
+     */
+    public Optional<Instant> lastCompletedAt(String name) {
+        return ensureLease(name).map(JobLease::getLastCompletedAt);
+    }
+
+    private void heartbeat(HeldLease lease) {
+        if (lease.lost) {
+            return;
+        }
+        try {
+            long renewedAt = System.nanoTime();
+            Instant now = Instant.now();
+            if (jobLeaseRepository.renew(lease.name, owner, now, now.plusNanos(lease.ttlNanos)) == 0) {
+                log.error("Lost lease {}; stopping the job", lease.name);
+                lose(lease);
+                return;
+            }
+            lease.renewedAt = renewedAt;
+        } catch (Exception e) {
+            log.warn("Failed to renew lease {}", lease.name, e);
+            if (System.nanoTime() - lease.renewedAt > lease.ttlNanos) {
+                log.error("Lease {} expired without renewal; stopping the job", lease.name);
+                lose(lease);
+            }
+        }
+    }
+
+    private static void lose(HeldLease lease) {
+        lease.lost = true;
+        lease.jobThread.interrupt();
+    }
+
+    /**
+     * Creates the lease row on first use. A new job counts as completed now,
+     * so its first run is its next scheduled time rather than immediately.
+     */
+    private Optional<JobLease> ensureLease(String name) {
+        Optional<JobLease> existing = jobLeaseRepository.findById(name);
+        if (existing.isPresent()) {
+            return existing;
+        }
+        try {
+            Instant now = Instant.now();
+            return Optional.of(jobLeaseRepository.saveAndFlush(JobLease.builder()
+                    .name(name)
+                    .expiresAt(now)
+                    .lastCompletedAt(now)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            // Another node created it first
+            return jobLeaseRepository.findById(name);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        heartbeats.shutdownNow();
+    }
+
+    private static final class HeldLease {
+        private final String name;
+        private final long ttlNanos;
+        private final Thread jobThread;
+        private volatile long renewedAt;
+        private volatile boolean lost;
+
+        HeldLease(String name, Duration ttl, Thread jobThread) {
+            this.name = name;
+            this.ttlNanos = ttl.toNanos();
+            this.jobThread = jobThread;
+            this.renewedAt = System.nanoTime();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.hdschools.timebank.service;
+
+import org.hdschools.timebank.model.OutboxRecord;
+
+/**
+ * Receives change records from the outbox feed.
+ * <p>
+ * Delivery is at-least-once: a record may be delivered again after a failure or restart,
+ * so implementations must be idempotent. Records mostly arrive in id order, but one whose transaction
+ * committed late is delivered after records with higher ids. Records arrive with their school in
+ * {@link org.hdschools.timebank.config.TenantContext}; record IDs are only unique within a school.
+ */
+public interface OutboxListener {
+
+    /**
+     * Handles one change record. Throwing stops the batch; the record is redelivered on the next poll.
+     *
+     * @param record the change record
+     */
+    void onRecord(OutboxRecord record);
+}
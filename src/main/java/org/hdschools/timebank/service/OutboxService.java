@@ -0,0 +1,136 @@
+package org.hdschools.timebank.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.config.NodeIdentity;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.model.StuDetails;
+import org.hdschools.timebank.repository.OutboxRecordRepository;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Appends change records to the transactional outbox.
+ * Must be called inside the transaction that performs the change, so records commit or roll back with it.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private final OutboxRecordRepository outboxRecordRepository;
+    private final NodeIdentity nodeIdentity;
+    private final ObjectMapper objectMapper;
+    private final StudentVersionRegistry studentVersionRegistry;
+
+    /**
+     * Records that an event was written.
+     *
+     * @param event         the saved event
+     * @param studentUserId the student the event concerns
+     * @param requestId     the pending request a decision refers to, or {@code null} for new requests
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void eventWritten(Event event, String studentUserId, Long requestId) {
+        append(OutboxRecord.AGGREGATE_EVENT, String.valueOf(event.getId()), event.getType().getValue(),
+                eventPayload(event, studentUserId, requestId));
+        studentVersionRegistry.changedAfterCommit(studentUserId, event.getType() == EventType.ACCEPTED);
+    }
+
+    /**
+     * Records the new state of a student's details.
+     *
+     * @param details the saved details
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void detailsUpdated(StuDetails details) {
+        append(OutboxRecord.AGGREGATE_STU_DETAILS, details.getUserId(), OutboxRecord.CHANGE_UPDATED,
+                detailsPayload(details));
+        studentVersionRegistry.changedAfterCommit(details.getUserId(), true);
+    }
+
+    /**
+     * Records that students were added to the school, which moves every student's leaderboard position.
+     *
+     * @param count number of students added
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void studentsAdded(int count) {
+        append(OutboxRecord.AGGREGATE_SCHOOL, TenantContext.current(), OutboxRecord.CHANGE_STUDENTS_ADDED,
+                toJson(Map.of("students", count)));
+        studentVersionRegistry.schoolChangedAfterCommit();
+    }
+
+    /**
+     * Records that events of the given students moved to the archive, which changes their history.
+     *
+     * @param studentUserIds the students the archived events concern
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void eventsArchived(Collection<String> studentUserIds) {
+        append(OutboxRecord.AGGREGATE_SCHOOL, TenantContext.current(), OutboxRecord.CHANGE_EVENTS_ARCHIVED,
+                toJson(Map.of("studentUserIds", studentUserIds)));
+        studentUserIds.forEach(studentUserId -> studentVersionRegistry.changedAfterCommit(studentUserId, false));
+    }
+
+    /**
+     * Serializes the payload of an event record, for writers that insert outbox rows themselves.
+     *
+     * @param event         the saved event
+     * @param studentUserId the student the event concerns
+     * @param requestId     the pending request a decision refers to, or {@code null} for new requests
+     * @return the JSON payload
+     */
+    public String eventPayload(Event event, String studentUserId, Long requestId) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("eventId", event.getId());
+        payload.put("studentUserId", studentUserId);
+        payload.put("pointDiff", event.getPointDiff());
+        payload.put("creditDiff", event.getCreditDiff());
+        if (requestId != null) {
+            payload.put("requestId", requestId);
+        }
+        return toJson(payload);
+    }
+
+    /**
+     * Serializes the payload of a details record, for writers that insert outbox rows themselves.
+     *
+     * @param details the saved details
+     * @return the JSON payload
+     */
+    public String detailsPayload(StuDetails details) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("accumulatedPoints", details.getAccumulatedPoints());
+        payload.put("accumulatedCredits", details.getAccumulatedCredits());
+        payload.put("requestsMade", details.getRequestsMade());
+        payload.put("requestsApproved", details.getRequestsApproved());
+        payload.put("totalPointAdditions", details.getTotalPointAdditions());
+        return toJson(payload);
+    }
+
+    private void append(String aggregateType, String aggregateId, String changeType, String payload) {
+        outboxRecordRepository.save(OutboxRecord.builder()
+                .originNode(nodeIdentity.getId())
+                .aggregateType(aggregateType)
+                .aggregateId(aggregateId)
+                .changeType(changeType)
+                .payload(payload)
+                .build());
+    }
+
+    private String toJson(Map<String, Object> payload) {
+        try {
+            return objectMapper.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize outbox payload", e);
+        }
+    }
+}
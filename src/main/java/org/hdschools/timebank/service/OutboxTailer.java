@@ -0,0 +1,191 @@
+package org.hdschools.timebank.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.NodeIdentity;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.OutboxCursor;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.repository.OutboxCursorRepository;
+import org.hdschools.timebank.repository.OutboxRecordRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Tails the outbox and dispatches records to every registered {@link OutboxListener}.
+ * <p>
+ * Record IDs are assigned at insert but become visible at commit, so a record can appear after records
+ * with higher IDs. The tailer therefore remembers every ID it skipped below the highest one delivered
+ * and looks for those again on each poll, for up to {@code timebank.outbox.gap-timeout}; IDs still
+ * missing by then belong to rolled-back transactions and are given up. Late records are delivered
+ * after the higher IDs already seen.
+ * <p>
+ * Each node keeps its own persisted cursor, keyed by {@link NodeIdentity#getStableName()} so it is
+ * found again after a restart. The cursor is the highest ID below the oldest open gap, so a restart
+ * redelivers rather than skips, which gives at-least-once delivery. A consumer seen for the first time
+ * starts at the end of the feed, since listeners hold derived in-memory state rather than history.
+ * <p>
+ * Every school has its own outbox and cursors, tailed in parallel; listeners receive each record with
+ * its school in {@link TenantContext}.
+ */
+@Service
+@Slf4j
+public class OutboxTailer {
+
+    /** A jump in IDs larger than this is not tracked as gaps, e.g. after an auto-increment reset. */
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final OutboxRecordRepository outboxRecordRepository;
+    private final OutboxCursorRepository outboxCursorRepository;
+    private final ObjectProvider<OutboxListener> listeners;
+    private final TenantJobRunner tenantJobRunner;
+    private final String consumer;
+    private final int batchSize;
+    private final Duration retention;
+    private final Duration gapTimeout;
+
+    private final Map<String, Feed> feeds = new ConcurrentHashMap<>();
+
+    public OutboxTailer(OutboxRecordRepository outboxRecordRepository,
+                        OutboxCursorRepository outboxCursorRepository,
+                        ObjectProvider<OutboxListener> listeners,
+                        TenantJobRunner tenantJobRunner,
+                        NodeIdentity nodeIdentity,
+                        @Value("${timebank.outbox.batch-size:500}") int batchSize,
+                        @Value("${timebank.outbox.retention:7d}") Duration retention,
+                        @Value("${timebank.outbox.gap-timeout:5m}") Duration gapTimeout) {
+        this.outboxRecordRepository = outboxRecordRepository;
+        this.outboxCursorRepository = outboxCursorRepository;
+        this.listeners = listeners;
+        this.tenantJobRunner = tenantJobRunner;
+        this.consumer = nodeIdentity.getStableName();
+        this.batchSize = batchSize;
+        this.retention = retention;
+        this.gapTimeout = gapTimeout;
+    }
+
+    /**
+     * Reads late records and the next batches of new ones, dispatching them until the feed is drained
+     * or a listener fails.
+     */
+    @Scheduled(fixedDelayString = "${timebank.outbox.poll-interval-ms:1000}")
+    public synchronized void poll() {
+        tenantJobRunner.forEachTenant("outbox-poll", this::pollCurrentTenant);
+    }
+
+    private void pollCurrentTenant() {
+        Feed feed = feeds.computeIfAbsent(TenantContext.current(), tenantId -> new Feed(
+                outboxCursorRepository.findById(consumer)
+                        .map(OutboxCursor::getLastId)
+                        .orElseGet(outboxRecordRepository::findMaxId)));
+        long cursor = feed.cursor();
+
+        drain(feed);
+
+        int abandoned = feed.expireGaps(System.currentTimeMillis() - gapTimeout.toMillis());
+        if (abandoned > 0) {
+            log.debug("Gave up on {} outbox ids of school {}, presumably rolled back", abandoned,
+                    TenantContext.current());
+        }
+        if (feed.cursor() != cursor) {
+            outboxCursorRepository.save(OutboxCursor.builder().consumer(consumer).lastId(feed.cursor()).build());
+        }
+    }
+
+    private void drain(Feed feed) {
+        if (!feed.gaps.isEmpty()) {
+            List<OutboxRecord> late = outboxRecordRepository.findByIdInOrderByIdAsc(feed.gaps.keySet());
+            if (dispatch(feed, late)) {
+                return;
+            }
+        }
+        List<OutboxRecord> batch;
+        do {
+            batch = outboxRecordRepository.findByIdGreaterThanOrderByIdAsc(feed.highWater,
+                    PageRequest.of(0, batchSize));
+            if (dispatch(feed, batch)) {
+                return;
+            }
+        } while (batch.size() == batchSize);
+    }
+
+    /**
+     * Deletes records older than the retention period.
+     */
+    @Scheduled(fixedDelayString = "${timebank.outbox.prune-interval-ms:3600000}")
+    public void prune() {
+        tenantJobRunner.forEachTenant("outbox-prune", () -> {
+            int deleted = outboxRecordRepository.deleteOlderThan(Instant.now().minus(retention));
+            if (deleted > 0) {
+                log.info("Pruned {} outbox records of school {}", deleted, TenantContext.current());
+            }
+        });
+    }
+
+    /**
+     * Dispatches records in order, marking each fully handled record as delivered.
+     *
+     * @return {@code true} if a listener failed and the rest of the batch was held back
+     */
+    private boolean dispatch(Feed feed, List<OutboxRecord> batch) {
+        for (OutboxRecord record : batch) {
+            try {
+                listeners.orderedStream().forEach(listener -> listener.onRecord(record));
+            } catch (Exception e) {
+                log.warn("Outbox listener failed on record id={}, will retry", record.getId(), e);
+                return true;
+            }
+            feed.delivered(record.getId());
+        }
+        return false;
+    }
+
+    /**
+     * One school's read position: the highest ID delivered and the lower IDs still missing, with the
+     * time each was first missed. Only touched by {@link #poll()}, which is synchronized.
+     */
+    private static final class Feed {
+        private long highWater;
+        private final NavigableMap<Long, Long> gaps = new TreeMap<>();
+
+        Feed(long cursor) {
+            this.highWater = cursor;
+        }
+
+        void delivered(long id) {
+            if (id > highWater) {
+                if (id - highWater <= MAX_TRACKED_GAP) {
+                    long now = System.currentTimeMillis();
+                    for (long missing = highWater + 1; missing < id; missing++) {
+                        gaps.put(missing, now);
+                    }
+                }
+                highWater = id;
+            } else {
+                gaps.remove(id);
+            }
+        }
+
+        int expireGaps(long missedBefore) {
+            int before = gaps.size();
+            gaps.values().removeIf(missedAt -> missedAt < missedBefore);
+            return before - gaps.size();
+        }
+
+        /**
+         * @return the highest ID below which every record was delivered or given up
+         */
+        long cursor() {
+            return gaps.isEmpty() ? highWater : gaps.firstKey() - 1;
+        }
+    }
+}
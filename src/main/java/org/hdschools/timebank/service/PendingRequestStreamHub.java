@@ -0,0 +1,268 @@
+package org.hdschools.timebank.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.model.PendingRequestNotice;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Fans out pending-request notices to connected staff dashboards over Server-Sent Events.
+ * <p>
+ * Notices come from the outbox feed, so requests created or decided on any node are seen by every
+ * node's subscribers. Each notice is serialized once and queued to every subscriber. Queues are
+ * drained by a fixed pool of {@code timebank.sse.sender-threads}, one subscriber at a time per thread
+ * and a limited number of notices per turn, so a client whose socket stops accepting data blocks only
+ * its own sends and one sender thread. Subscribers whose queue fills up, or whose send has been blocked
+ * longer than {@code timebank.sse.send-timeout}, are disconnected, which frees their thread. The SSE
+ * event ID is the outbox record ID, and a bounded buffer of recent notices lets clients resume with
+ * {@code Last-Event-ID}. Staff only receive notices of their own school.
+ */
+@Service
+@Slf4j
+public class PendingRequestStreamHub implements OutboxListener {
+
+    private static final String EVENT_NAME = "pendingRequest";
+    private static final int NOTICES_PER_TURN = 32;
+
+    private final ObjectMapper objectMapper;
+    private final Duration timeout;
+    private final int replayBufferSize;
+    private final int subscriberQueueSize;
+    private final Duration sendTimeout;
+    private final ExecutorService senders;
+
+    private final Deque<Notice> replayBuffer = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+
+    public PendingRequestStreamHub(ObjectMapper objectMapper,
+                                   @Value("${timebank.sse.timeout:30m}") Duration timeout,
+                                   @Value("${timebank.sse.replay-buffer-size:1000}") int replayBufferSize,
+                                   @Value("${timebank.sse.subscriber-queue-size:256}") int subscriberQueueSize,
+                                   @Value("${timebank.sse.send-timeout:10s}") Duration sendTimeout,
+                                   @Value("${timebank.sse.sender-threads:8}") int senderThreads) {
+        this.objectMapper = objectMapper;
+        this.timeout = timeout;
+        this.replayBufferSize = replayBufferSize;
+        this.subscriberQueueSize = subscriberQueueSize;
+        this.sendTimeout = sendTimeout;
+        // Each subscriber has at most one drain task queued or running, so the task queue is bounded too
+        this.senders = Executors.newFixedThreadPool(senderThreads, runnable -> {
+            Thread thread = new Thread(runnable, "sse-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a new stream, first replaying buffered notices newer than {@code lastEventId}.
+     *
+     * @param lastEventId the last event ID the client received, or {@code null}
+     * @return the emitter to return from the controller
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        String tenantId = TenantContext.current();
+        Subscriber subscriber = new Subscriber(tenantId, emitter, new ArrayBlockingQueue<>(subscriberQueueSize));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(error -> subscribers.remove(subscriber));
+
+        List<Notice> missed = new ArrayList<>();
+        synchronized (replayBuffer) {
+            if (lastEventId != null) {
+                for (Notice notice : replayBuffer) {
+                    if (notice.tenantId().equals(tenantId) && notice.id() > lastEventId) {
+                        missed.add(notice);
+                    }
+                }
+            }
+            // Register under the buffer lock so no notice falls between replay and live delivery
+            subscribers.add(subscriber);
+        }
+        missed.forEach(subscriber::offer);
+        return emitter;
+    }
+
+    /**
+     * Converts pending-request events from the outbox into notices and broadcasts them.
+     *
+     * @param record the change record
+     */
+    @Override
+    public void onRecord(OutboxRecord record) {
+        if (!OutboxRecord.AGGREGATE_EVENT.equals(record.getAggregateType())) {
+            return;
+        }
+        Notice notice = toNotice(record);
+        if (notice == null) {
+            return;
+        }
+        synchronized (replayBuffer) {
+            replayBuffer.addLast(notice);
+            while (replayBuffer.size() > replayBufferSize) {
+                replayBuffer.removeFirst();
+            }
+        }
+        subscribers.forEach(subscriber -> {
+            if (subscriber.tenantId().equals(notice.tenantId())) {
+                subscriber.offer(notice);
+            }
+        });
+    }
+
+    /**
+     * Disconnects subscribers stuck in a send, then sends a comment to every other subscriber so idle
+     * connections stay open through proxies.
+     */
+    @Scheduled(fixedDelayString = "${timebank.sse.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long stuckSince = System.nanoTime() - sendTimeout.toNanos();
+        subscribers.forEach(subscriber -> {
+            if (subscriber.sendingSince(stuckSince)) {
+                subscriber.drop("Dropping SSE subscriber blocked in a send");
+            } else {
+                subscriber.offer(Notice.HEARTBEAT);
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter().complete());
+        senders.shutdownNow();
+    }
+
+    private Notice toNotice(OutboxRecord record) {
+        try {
+            JsonNode payload = objectMapper.readTree(record.getPayload());
+            boolean created = "pending".equals(record.getChangeType());
+            PendingRequestNotice notice = PendingRequestNotice.builder()
+                    .kind(created ? "created" : "decided")
+                    .requestId(created ? payload.path("eventId").asLong() : payload.path("requestId").asLong())
+                    .decision(created ? null : record.getChangeType())
+                    .studentUserId(payload.path("studentUserId").asText(null))
+                    .pointDiff(payload.path("pointDiff").asInt())
+                    .build();
+            return new Notice(TenantContext.current(), record.getId(), objectMapper.writeValueAsString(notice));
+        } catch (JsonProcessingException e) {
+            log.warn("Skipping unreadable outbox record id={}", record.getId(), e);
+            return null;
+        }
+    }
+
+    private record Notice(String tenantId, long id, String json) {
+        static final Notice HEARTBEAT = new Notice(null, -1, null);
+    }
+
+    private final class Subscriber {
+
+        private final String tenantId;
+        private final SseEmitter emitter;
+        private final Queue<Notice> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private volatile Thread sender;
+        private volatile long sendStarted;
+
+        Subscriber(String tenantId, SseEmitter emitter, Queue<Notice> queue) {
+            this.tenantId = tenantId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+
+        String tenantId() {
+            return tenantId;
+        }
+
+        SseEmitter emitter() {
+            return emitter;
+        }
+
+        boolean sendingSince(long nanos) {
+            long started = sendStarted;
+            return started != 0 && started - nanos < 0;
+        }
+
+        void offer(Notice notice) {
+            if (!queue.offer(notice)) {
+                drop("Dropping slow SSE subscriber");
+                return;
+            }
+            if (draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void drop(String reason) {
+            if (!subscribers.remove(this)) {
+                return;
+            }
+            log.info(reason);
+            Thread blocked = sender;
+            if (blocked != null) {
+                // Interrupting the blocked write fails it, and the sender completes the emitter
+                blocked.interrupt();
+            } else {
+                emitter.complete();
+            }
+        }
+
+        private void drain() {
+            sender = Thread.currentThread();
+            try {
+                Notice notice;
+                for (int sent = 0; sent < NOTICES_PER_TURN && (notice = queue.poll()) != null; sent++) {
+                    sendStarted = System.nanoTime() | 1;
+                    if (notice == Notice.HEARTBEAT) {
+                        emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(String.valueOf(notice.id()))
+                                .name(EVENT_NAME)
+                                .data(notice.json(), MediaType.APPLICATION_JSON));
+                    }
+                    sendStarted = 0;
+                }
+            } catch (IOException | IllegalStateException e) {
+                subscribers.remove(this);
+                emitter.completeWithError(e);
+                return;
+            } finally {
+                sendStarted = 0;
+                sender = null;
+                // Clear an interrupt that arrived after the last send so it cannot hit the next task
+                Thread.interrupted();
+                draining.set(false);
+            }
+            if (!subscribers.contains(this)) {
+                emitter.complete();
+                return;
+            }
+            // Notices left for the next turn, or queued after the last poll but before draining was cleared
+            if (!queue.isEmpty() && draining.compareAndSet(false, true)) {
+                senders.execute(this::drain);
+            }
+        }
+    }
+}
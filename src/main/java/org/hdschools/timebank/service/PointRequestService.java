@@ -0,0 +1,211 @@
+package org.hdschools.timebank.service;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.StaValidatePointsRequest;
+import org.hdschools.timebank.model.StuDetails;
+import org.hdschools.timebank.repository.EventRepository;
+import org.hdschools.timebank.repository.StuDetailsRepository;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Writes point requests and staff decisions together with the student details and outbox records
+ * they affect, each in a single transaction.
+ */
+@Service
+@RequiredArgsConstructor
+public class PointRequestService {
+
+    private static final String INSERT_PENDING = "INSERT INTO event (init_stu_id, point_diff, credit_diff, type, "
+            + "content_html, idempotency_key) VALUES (?, ?, 0, " + EventType.PENDING_CODE + ", ?, ?)";
+
+    private static final String ADD_REQUESTS_MADE = "INSERT INTO stu_details (user_id, accumulated_points, "
+            + "accumulated_credits, requests_made, requests_approved, total_point_additions) VALUES (?, "
+            + StuDetails.INITIAL_POINTS + ", " + StuDetails.INITIAL_CREDITS + ", ?, 0, 0) "
+            + "ON DUPLICATE KEY UPDATE requests_made = requests_made + VALUES(requests_made)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EventRepository eventRepository;
+    private final StuDetailsRepository stuDetailsRepository;
+    private final OutboxService outboxService;
+    private final RollupService rollupService;
+
+    /**
+     * Stores a "pending" request and increments the student's requestsMade counter.
+     *
+     * @param submission the request to store
+     * @return the saved event
+     */
+    @Transactional
+    public Event createPendingRequest(Submission submission) {
+        String studentUserId = submission.studentUserId();
+
+        // Create the event entry
+        Event event = eventRepository.save(Event.builder()
+                .initStuId(submission.studentKey())
+                .pointDiff(submission.pointChange())
+                .creditDiff(0)
+                .type(EventType.PENDING)
+                .contentHtml(submission.contentHtml())
+                .idempotencyKey(submission.idempotencyKey())
+                .build());
+
+        // Increment requestsMade counter
+        StuDetails details = loadOrCreateDetails(studentUserId);
+        details.setRequestsMade(details.getRequestsMade() + 1);
+        stuDetailsRepository.save(details);
+
+        outboxService.eventWritten(event, studentUserId, null);
+        outboxService.detailsUpdated(details);
+        return event;
+    }
+
+    /**
+     * Stores several "pending" requests in one transaction: one multi-row event insert, one
+     * requestsMade increment per student, and the outbox records for both.
+     * <p>
+     * Fails as a whole if any submission violates a constraint, such as a reused idempotency key.
+     *
+     * @param submissions the requests to store
+     * @return the saved events, in submission order
+     */
+    @Transactional
+    public List<Event> createPendingRequests(List<Submission> submissions) {
+        // Insert all events; the driver rewrites the batch into a multi-row insert
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_PENDING, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement statement, int i) throws SQLException {
+                        Submission submission = submissions.get(i);
+                        statement.setLong(1, submission.studentKey());
+                        statement.setInt(2, submission.pointChange());
+                        statement.setString(3, submission.contentHtml());
+                        statement.setString(4, submission.idempotencyKey());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return submissions.size();
+                    }
+                }, keyHolder);
+
+        List<Map<String, Object>> keys = keyHolder.getKeyList();
+        List<Event> events = new ArrayList<>(submissions.size());
+        for (int i = 0; i < submissions.size(); i++) {
+            Submission submission = submissions.get(i);
+            Event event = Event.builder()
+                    .id(((Number) keys.get(i).values().iterator().next()).longValue())
+                    .initStuId(submission.studentKey())
+                    .pointDiff(submission.pointChange())
+                    .creditDiff(0)
+                    .type(EventType.PENDING)
+                    .contentHtml(submission.contentHtml())
+                    .idempotencyKey(submission.idempotencyKey())
+                    .build();
+            events.add(event);
+            outboxService.eventWritten(event, submission.studentUserId(), null);
+        }
+
+        // One counter update per student, in key order so concurrent batches lock rows in the same order
+        Map<String, Integer> requestsMade = new TreeMap<>();
+        submissions.forEach(submission -> requestsMade.merge(submission.studentUserId(), 1, Integer::sum));
+        List<Map.Entry<String, Integer>> increments = new ArrayList<>(requestsMade.entrySet());
+        jdbcTemplate.batchUpdate(ADD_REQUESTS_MADE, increments, increments.size(), (statement, increment) -> {
+            statement.setString(1, increment.getKey());
+            statement.setInt(2, increment.getValue());
+        });
+        stuDetailsRepository.findByUserIdIn(requestsMade.keySet()).forEach(outboxService::detailsUpdated);
+        return events;
+    }
+
+    /**
+     * Stores an "accepted" or "rejected" decision on a pending request, received by the requesting student.
+     * If accepted, updates the student's accumulated points and credits.
+     * Also adds the decision to the reporting rollups.
+     * <p>
+     * Nothing is written if the request was already decided or is claimed by another staff member.
+     *
+     * @param originalRequest the pending request being decided
+     * @param studentUserId   the requesting student's user ID
+     * @param staffKey        the deciding staff member's sta_user.id
+     * @param staffId         the deciding staff member's user ID
+     * @param request         the decision and adjustments
+     * @param idempotencyKey  the scoped idempotency key, or {@code null}
+     * @return Optional containing the saved decision event, or empty if the request is not open to this staff member
+     */
+    @Transactional
+    public Optional<Event> recordDecision(Event originalRequest, String studentUserId, Long staffKey,
+                                          String staffId, StaValidatePointsRequest request, String idempotencyKey) {
+        Long studentKey = originalRequest.getInitStuId();
+        Instant now = Instant.now();
+
+        // Close the request first; the conditional update lets only one decision through
+        if (eventRepository.markDecided(originalRequest.getId(), staffId, now) == 0) {
+            return Optional.empty();
+        }
+
+        // Create the validation event entry
+        Event event = eventRepository.save(Event.builder()
+                .initStaId(staffKey)
+                .recvStuId(studentKey)
+                .pointDiff(request.getPointDiff())
+                .creditDiff(request.getCreditDiff())
+                .type(request.isAccepted() ? EventType.ACCEPTED : EventType.REJECTED)
+                .contentHtml(request.getContentHtml())
+                .idempotencyKey(idempotencyKey)
+                .build());
+        outboxService.eventWritten(event, studentUserId, originalRequest.getId());
+        rollupService.recordDecision(studentUserId, now, request.isAccepted(),
+                request.getPointDiff(), request.getCreditDiff());
+
+        // Update student details if request is accepted
+        if (request.isAccepted()) {
+            StuDetails details = loadOrCreateDetails(studentUserId);
+            details.setAccumulatedPoints(details.getAccumulatedPoints() + request.getPointDiff());
+            details.setAccumulatedCredits(details.getAccumulatedCredits() + request.getCreditDiff());
+            details.setRequestsApproved(details.getRequestsApproved() + 1);
+
+            // Add to totalPointAdditions only if pointDiff is positive
+            if (request.getPointDiff() > 0) {
+                details.setTotalPointAdditions(details.getTotalPointAdditions() + request.getPointDiff());
+            }
+
+            stuDetailsRepository.save(details);
+            outboxService.detailsUpdated(details);
+        }
+        return Optional.of(event);
+    }
+
+    private StuDetails loadOrCreateDetails(String studentUserId) {
+        return stuDetailsRepository.findByUserId(studentUserId)
+                .orElseGet(() -> StuDetails.initial(studentUserId));
+    }
+
+    /**
+     * A student's point request waiting to be stored.
+     *
+     * @param studentKey     the requesting student's stu_user.id
+     * @param studentUserId  the requesting student's user ID
+     * @param pointChange    the requested point change
+     * @param contentHtml    the request description
+     * @param idempotencyKey the scoped idempotency key, or {@code null}
+     */
+    public record Submission(long studentKey, String studentUserId, int pointChange, String contentHtml,
+                             String idempotencyKey) {
+    }
+}
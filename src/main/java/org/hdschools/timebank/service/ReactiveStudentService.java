@@ -0,0 +1,215 @@
+package org.hdschools.timebank.service;
+
+import io.r2dbc.spi.Readable;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.config.NodeIdentity;
+import org.hdschools.timebank.config.ReactiveConnections;
+import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.LeaderboardPosition;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.model.StuDetails;
+import org.hdschools.timebank.model.StuHistoryEntry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Serves student submissions and dashboard reads over R2DBC, for the non-blocking request path.
+ * <p>
+ * A submission performs the same writes as {@link PointRequestService#createPendingRequest} in one
+ * R2DBC transaction: the event, the requestsMade increment and both outbox records. Like
+ * {@link ReactiveTokenService}, it works against the default school's database only.
+ */
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "timebank.reactive.enabled", havingValue = "true")
+public class ReactiveStudentService {
+
+    private static final String INSERT_PENDING = "INSERT INTO event (init_stu_id, point_diff, credit_diff, type, "
+            + "content_html, idempotency_key) VALUES (:studentKey, :pointChange, 0, " + EventType.PENDING_CODE + ", "
+            + ":contentHtml, :idempotencyKey)";
+
+    private static final String ADD_REQUEST_MADE = "INSERT INTO stu_details (user_id, accumulated_points, "
+            + "accumulated_credits, requests_made, requests_approved, total_point_additions) "
+            + "VALUES (:userId, " + StuDetails.INITIAL_POINTS + ", " + StuDetails.INITIAL_CREDITS + ", 1, 0, 0) "
+            + "ON DUPLICATE KEY UPDATE requests_made = requests_made + 1";
+
+    private static final String INSERT_OUTBOX = "INSERT INTO outbox (origin_node, aggregate_type, aggregate_id, "
+            + "change_type, payload) VALUES (:originNode, :aggregateType, :aggregateId, :changeType, :payload)";
+
+    private static final String FIND_DETAILS = "SELECT user_id, accumulated_points, accumulated_credits, "
+            + "requests_made, requests_approved, total_point_additions, updated_at FROM stu_details "
+            + "WHERE user_id = :userId";
+
+    private static final String FIND_EVENT_BY_KEY = "SELECT id FROM event WHERE idempotency_key = :key";
+
+    private static final String FIND_HISTORY = "SELECT id, created_at, type, point_diff, credit_diff, content_html "
+            + "FROM event WHERE init_stu_id = :studentKey OR recv_stu_id = :studentKey "
+            + "ORDER BY id DESC LIMIT :size OFFSET :offset";
+
+    private static final String COUNT_POSITION = "SELECT COUNT(CASE WHEN accumulated_points > :points THEN 1 END) "
+            + "AS above, COUNT(*) AS students FROM stu_details";
+
+    private final ReactiveConnections reactiveConnections;
+    private final OutboxService outboxService;
+    private final NodeIdentity nodeIdentity;
+    private final IdempotencyService idempotencyService;
+    private final StudentVersionRegistry studentVersionRegistry;
+
+    /**
+     * Stores a "pending" request and increments the student's requestsMade counter.
+     *
+     * @param submission the request to store
+     * @return the saved event's ID, once committed; errors with a {@code DataIntegrityViolationException}
+     *         if the idempotency key is already used
+     */
+    public Mono<Long> createPendingRequest(PointRequestService.Submission submission) {
+        DatabaseClient client = reactiveConnections.client();
+        String studentUserId = submission.studentUserId();
+
+        DatabaseClient.GenericExecuteSpec insert = client.sql(INSERT_PENDING)
+                .filter(statement -> statement.returnGeneratedValues("id"))
+                .bind("studentKey", submission.studentKey())
+                .bind("pointChange", submission.pointChange());
+        insert = submission.contentHtml() != null
+                ? insert.bind("contentHtml", submission.contentHtml())
+                : insert.bindNull("contentHtml", String.class);
+        insert = submission.idempotencyKey() != null
+                ? insert.bind("idempotencyKey", submission.idempotencyKey())
+                : insert.bindNull("idempotencyKey", String.class);
+
+        Mono<Long> writes = insert.map(row -> row.get("id", Long.class)).one()
+                .flatMap(eventId -> client.sql(ADD_REQUEST_MADE)
+                        .bind("userId", studentUserId)
+                        .then()
+                        .then(findDetails(studentUserId))
+                        .flatMap(details -> appendOutbox(OutboxRecord.AGGREGATE_EVENT, String.valueOf(eventId),
+                                EventType.PENDING.getValue(),
+                                outboxService.eventPayload(pendingEvent(eventId, submission), studentUserId, null))
+                                .then(appendOutbox(OutboxRecord.AGGREGATE_STU_DETAILS, studentUserId,
+                                        OutboxRecord.CHANGE_UPDATED, outboxService.detailsPayload(details))))
+                        .thenReturn(eventId));
+
+        return writes.as(reactiveConnections.transactional()::transactional)
+                // A pending submission changes the student's history and request count, never their points
+                .doOnSuccess(eventId -> studentVersionRegistry.changed(studentUserId, false));
+    }
+
+    /**
+     * Finds the event previously created for a scoped idempotency key, checking the in-memory store first.
+     *
+     * @param scopedKey the user-scoped key
+     * @return the original event ID, or empty if the key was not used
+     */
+    public Mono<Long> findEventId(String scopedKey) {
+        return Mono.justOrEmpty(idempotencyService.findRemembered(scopedKey))
+                .switchIfEmpty(reactiveConnections.client().sql(FIND_EVENT_BY_KEY)
+                        .bind("key", scopedKey)
+                        .map(row -> row.get("id", Long.class))
+                        .one()
+                        .doOnNext(eventId -> idempotencyService.remember(scopedKey, eventId)));
+    }
+
+    /**
+     * Returns a student's current totals.
+     *
+     * @param studentUserId the student user ID
+     * @return the details, at the starting balance if the student has none yet
+     */
+    public Mono<StuDetails> details(String studentUserId) {
+        return findDetails(studentUserId)
+                .defaultIfEmpty(StuDetails.initial(studentUserId));
+    }
+
+    /**
+     * Returns a page of a student's requests and decisions, newest first.
+     *
+     * @param studentKey the student's stu_user.id
+     * @param page       zero-based page number
+     * @param size       page size
+     * @return the history entries
+     */
+    public Flux<StuHistoryEntry> history(long studentKey, int page, int size) {
+        return reactiveConnections.client().sql(FIND_HISTORY)
+                .bind("studentKey", studentKey)
+                .bind("size", size)
+                .bind("offset", (long) page * size)
+                .map(row -> StuHistoryEntry.builder()
+                        .eventId(row.get("id", Long.class))
+                        .createdAt(toInstant(row.get("created_at", LocalDateTime.class)))
+                        .type(EventType.fromCode(((Number) row.get("type")).intValue()).getValue())
+                        .pointDiff(row.get("point_diff", Integer.class))
+                        .creditDiff(row.get("credit_diff", Integer.class))
+                        .contentHtml(row.get("content_html", String.class))
+                        .build())
+                .all();
+    }
+
+    /**
+     * Returns a student's rank by accumulated points.
+     *
+     * @param studentUserId the student user ID
+     * @return the leaderboard position
+     */
+    public Mono<LeaderboardPosition> leaderboardPosition(String studentUserId) {
+        return details(studentUserId)
+                .flatMap(details -> reactiveConnections.client().sql(COUNT_POSITION)
+                        .bind("points", details.getAccumulatedPoints())
+                        .map(row -> LeaderboardPosition.builder()
+                                .rank(((Number) row.get("above")).longValue() + 1)
+                                .accumulatedPoints(details.getAccumulatedPoints())
+                                .students(((Number) row.get("students")).longValue())
+                                .build())
+                        .one());
+    }
+
+    private Mono<StuDetails> findDetails(String studentUserId) {
+        return reactiveConnections.client().sql(FIND_DETAILS)
+                .bind("userId", studentUserId)
+                .map(ReactiveStudentService::mapDetails)
+                .one();
+    }
+
+    private Mono<Void> appendOutbox(String aggregateType, String aggregateId, String changeType, String payload) {
+        return reactiveConnections.client().sql(INSERT_OUTBOX)
+                .bind("originNode", nodeIdentity.getId())
+                .bind("aggregateType", aggregateType)
+                .bind("aggregateId", aggregateId)
+                .bind("changeType", changeType)
+                .bind("payload", payload)
+                .then();
+    }
+
+    private static Event pendingEvent(long eventId, PointRequestService.Submission submission) {
+        return Event.builder()
+                .id(eventId)
+                .initStuId(submission.studentKey())
+                .pointDiff(submission.pointChange())
+                .creditDiff(0)
+                .type(EventType.PENDING)
+                .build();
+    }
+
+    private static StuDetails mapDetails(Readable row) {
+        return StuDetails.builder()
+                .userId(row.get("user_id", String.class))
+                .accumulatedPoints(row.get("accumulated_points", Integer.class))
+                .accumulatedCredits(row.get("accumulated_credits", Integer.class))
+                .requestsMade(row.get("requests_made", Integer.class))
+                .requestsApproved(row.get("requests_approved", Integer.class))
+                .totalPointAdditions(row.get("total_point_additions", Integer.class))
+                .updatedAt(toInstant(row.get("updated_at", LocalDateTime.class)))
+                .build();
+    }
+
+    private static Instant toInstant(LocalDateTime timestamp) {
+        // Hibernate writes Instants in the JVM's zone, so read them back the same way
+        return timestamp != null ? timestamp.atZone(ZoneId.systemDefault()).toInstant() : null;
+    }
+}
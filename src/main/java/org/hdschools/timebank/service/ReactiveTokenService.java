@@ -0,0 +1,105 @@
+package org.hdschools.timebank.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.ReactiveConnections;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.jfr.TokenValidationEvent;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Mono;
+
+/**
+ * Validates and refreshes authentication tokens over R2DBC, for the non-blocking request path.
+ * <p>
+ * Applies the same rolling 30-minute expiration as {@link TokenService}, and resolves a student's
+ * user ID in the same query. Only tokens of the default school are accepted: the current school is
+ * held per thread, which a reactive pipeline does not stay on.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "timebank.reactive.enabled", havingValue = "true")
+public class ReactiveTokenService {
+
+    private static final int TOKEN_EXPIRY_MINUTES = 30;
+
+    private static final String FIND_TOKEN = "SELECT t.user_id, t.user_type, t.expires_at, s.user_id AS student_user_id "
+            + "FROM token t LEFT JOIN stu_user s ON t.user_type = 'student' AND s.id = t.user_id "
+            + "WHERE t.token = :token";
+
+    private static final String REFRESH_TOKEN = "UPDATE token SET expires_at = :expiresAt WHERE token = :token";
+
+    private final ReactiveConnections reactiveConnections;
+
+    /**
+     * Validates a token and refreshes its expiration to 30 minutes from now.
+     *
+     * @param tokenString the token to validate and refresh
+     * @return the authenticated user, or empty if the token is unknown, expired or issued by another school
+     */
+    public Mono<Authenticated> validateAndRefreshToken(String tokenString) {
+        if (!TenantContext.DEFAULT_TENANT.equals(TokenService.tenantOf(tokenString))) {
+            return Mono.empty();
+        }
+        return Mono.defer(() -> {
+            TokenValidationEvent event = new TokenValidationEvent();
+            event.begin();
+            LocalDateTime now = LocalDateTime.now(ZoneId.systemDefault());
+            return reactiveConnections.client().sql(FIND_TOKEN)
+                    .bind("token", tokenString)
+                    .map(row -> new Found(
+                            new Authenticated(row.get("user_id", Long.class), row.get("user_type", String.class),
+                                    row.get("student_user_id", String.class)),
+                            row.get("expires_at", LocalDateTime.class)))
+                    .one()
+                    .filter(found -> found.expiresAt().isAfter(now))
+                    .flatMap(found -> reactiveConnections.client().sql(REFRESH_TOKEN)
+                            .bind("expiresAt", now.plusMinutes(TOKEN_EXPIRY_MINUTES))
+                            .bind("token", tokenString)
+                            .fetch()
+                            .rowsUpdated()
+                            .thenReturn(found.authenticated()))
+                    .doOnSuccess(authenticated -> {
+                        // Completes with null when the token was not found or has expired
+                        commit(event, authenticated != null);
+                        if (authenticated != null) {
+                            log.debug("Refreshed token expiration for userId={}", authenticated.userId());
+                        }
+                    });
+        });
+    }
+
+    private static void commit(TokenValidationEvent event, boolean hit) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.hit = hit;
+            event.refreshed = hit;
+            event.commit();
+        }
+    }
+
+    /**
+     * The user a token was issued to.
+     *
+     * @param userId        the account's primary key
+     * @param userType      "student" or "staff"
+     * @param studentUserId the student's user ID, or {@code null} for staff
+     */
+    public record Authenticated(Long userId, String userType, String studentUserId) {
+
+        /**
+         * Returns the student's user ID if this is a student.
+         *
+         * @return the student user ID, or {@code null} for staff
+         */
+        public String student() {
+            return "student".equals(userType) ? studentUserId : null;
+        }
+    }
+
+    private record Found(Authenticated authenticated, LocalDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,91 @@
+package org.hdschools.timebank.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZonedDateTime;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.support.CronExpression;
+import org.springframework.stereotype.Service;
+
+/**
+ * Triggers the weekly details recalculation on exactly one node.
+ * <p>
+ * Every node fires on the cron schedule, but only the node that claims the lease runs the job.
+ * Nodes also check periodically whether the latest scheduled run was missed (for example because
+ * the lease holder died mid-run) and take over if so. Each school has its own lease, in its own
+ * database, so schools are recalculated in parallel and possibly by different nodes.
+ */
+@Service
+@Slf4j
+public class RecalculationScheduler {
+
+    static final String JOB_NAME = "balance-recalculation";
+    private static final String RECALCULATION_CRON = "0 0 0 * * MON";
+
+    private final BalanceRecalculationService balanceRecalculationService;
+    private final LeaseService leaseService;
+    private final TenantJobRunner tenantJobRunner;
+    private final Duration leaseTtl;
+    private final CronExpression cron = CronExpression.parse(RECALCULATION_CRON);
+
+    public RecalculationScheduler(BalanceRecalculationService balanceRecalculationService,
+                                  LeaseService leaseService,
+                                  TenantJobRunner tenantJobRunner,
+                                  @Value("${timebank.lease.ttl:10m}") Duration leaseTtl) {
+        this.balanceRecalculationService = balanceRecalculationService;
+        this.leaseService = leaseService;
+        this.tenantJobRunner = tenantJobRunner;
+        this.leaseTtl = leaseTtl;
+    }
+
+    /**
+     * Runs the recalculation every Monday at 00:00 (midnight) for each school whose lease this node wins.
+     */
+    @Scheduled(cron = RECALCULATION_CRON)
+    public void onSchedule() {
+        tenantJobRunner.forEachTenant(JOB_NAME, this::runIfDue);
+    }
+
+    /**
+     * Takes over a missed or failed run once the previous holder's lease has expired.
+     */
+    @Scheduled(fixedDelayString = "${timebank.lease.failover-check-ms:60000}",
+            initialDelayString = "${timebank.lease.failover-check-ms:60000}")
+    public void failoverCheck() {
+        tenantJobRunner.forEachTenant(JOB_NAME, this::runIfDue);
+    }
+
+    private void runIfDue() {
+        Instant due = latestScheduledTime();
+        if (!isDue(due)) {
+            return;
+        }
+        log.info("Recalculation due since {}", due);
+        leaseService.runExclusively(JOB_NAME, leaseTtl, () -> {
+            // Another node may have finished between the check above and claiming the lease
+            if (isDue(due)) {
+                balanceRecalculationService.recalculateAllBalances();
+            }
+        });
+    }
+
+    private boolean isDue(Instant due) {
+        return leaseService.lastCompletedAt(JOB_NAME).orElse(Instant.EPOCH).isBefore(due);
+    }
+
+    /**
+     * Finds the most recent cron fire time at or before now.
+     */
+    private Instant latestScheduledTime() {
+        ZonedDateTime now = ZonedDateTime.now();
+        ZonedDateTime latest = now.minusWeeks(1).minusDays(1);
+        ZonedDateTime next = cron.next(latest);
+        while (next != null && !next.isAfter(now)) {
+            latest = next;
+            next = cron.next(latest);
+        }
+        return latest.toInstant();
+    }
+}
@@ -0,0 +1,64 @@
+package org.hdschools.timebank.service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import org.hdschools.timebank.model.ClaimedRequest;
+import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Hands out pending requests to reviewing staff as time-limited claims.
+ * <p>
+ * Each claim locks the oldest open requests with {@code FOR UPDATE SKIP LOCKED}, so concurrent
+ * reviewers get disjoint batches without waiting on each other. Claims that are not decided
+ * before they expire simply become claimable again; decisions on another staff member's live
+ * claim are refused by {@link PointRequestService#recordDecision}.
+ */
+@Service
+public class ReviewQueueService {
+
+    private final EventRepository eventRepository;
+    private final UserDirectoryService userDirectoryService;
+    private final Duration claimTtl;
+
+    public ReviewQueueService(EventRepository eventRepository, UserDirectoryService userDirectoryService,
+                              @Value("${timebank.review.claim-ttl:10m}") Duration claimTtl) {
+        this.eventRepository = eventRepository;
+        this.userDirectoryService = userDirectoryService;
+        this.claimTtl = claimTtl;
+    }
+
+    /**
+     * Claims up to {@code limit} of the oldest open requests for a staff member.
+     * Requests the staff member already holds are included and their claims extended.
+     *
+     * @param staffId the reviewing staff user ID
+     * @param limit   maximum number of requests
+     * @return the claimed requests, oldest first
+     */
+    @Transactional
+    public List<ClaimedRequest> claim(String staffId, int limit) {
+        Instant now = Instant.now();
+        List<Long> ids = eventRepository.lockClaimable(staffId, now, limit).stream()
+                .map(Number::longValue)
+                .toList();
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        eventRepository.claim(ids, staffId, now.plus(claimTtl));
+        List<Event> events = eventRepository.findAllById(ids);
+        Map<Long, String> studentUserIds = userDirectoryService.findStudentUserIds(
+                events.stream().map(Event::getInitStuId).toList());
+        return events.stream()
+                .sorted(Comparator.comparing(Event::getId))
+                .map(event -> ClaimedRequest.from(event, studentUserIds.get(event.getInitStuId())))
+                .toList();
+    }
+}
@@ -0,0 +1,169 @@
+package org.hdschools.timebank.service;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.TemporalAdjusters;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.StuRollup;
+import org.hdschools.timebank.repository.ArchivedEventRepository;
+import org.hdschools.timebank.repository.DecisionSummary;
+import org.hdschools.timebank.repository.EventRepository;
+import org.hdschools.timebank.repository.StuRollupRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Maintains daily and weekly rollups of decision totals per student and school-wide.
+ * <p>
+ * Rollups are updated incrementally with every staff decision, so reports read a handful of bucket
+ * rows instead of scanning the event table. A chunked backfill rebuilds them from history.
+ */
+@Service
+@Slf4j
+public class RollupService {
+
+    private final StuRollupRepository stuRollupRepository;
+    private final EventRepository eventRepository;
+    private final ArchivedEventRepository archivedEventRepository;
+    private final LeaseService leaseService;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+
+    public RollupService(StuRollupRepository stuRollupRepository,
+                         EventRepository eventRepository,
+                         ArchivedEventRepository archivedEventRepository,
+                         LeaseService leaseService,
+                         PlatformTransactionManager transactionManager,
+                         @Value("${timebank.rollup.backfill-chunk-size:5000}") int chunkSize) {
+        this.stuRollupRepository = stuRollupRepository;
+        this.eventRepository = eventRepository;
+        this.archivedEventRepository = archivedEventRepository;
+        this.leaseService = leaseService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Adds one decision to the student's and the school's day and week buckets.
+     * Must run inside the transaction that records the decision.
+     *
+     * @param studentUserId the student the decision concerns
+     * @param decidedAt     when the decision was made
+     * @param accepted      whether the request was accepted
+     * @param pointDiff     the approved point differential
+     * @param creditDiff    the approved credit differential
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordDecision(String studentUserId, Instant decidedAt, boolean accepted, int pointDiff,
+                               int creditDiff) {
+        Totals totals = new Totals();
+        totals.add(accepted, pointDiff, creditDiff);
+        LocalDate day = dayOf(decidedAt);
+        stuRollupRepository.addToStudentAndSchoolBuckets(studentUserId, day, weekOf(day), totals.points,
+                totals.credits, totals.requestsMade, totals.requestsApproved);
+    }
+
+    /**
+     * Rebuilds all rollups from the archived and live event history, one chunk of decisions per transaction.
+     * <p>
+     * The highest event id is read in the transaction that empties the buckets, and the backfill stops
+     * there: decisions recorded after the buckets are emptied carry higher ids and are counted only by
+     * {@link #recordDecision}, so reviews can continue while the backfill runs.
+     *
+     * @return number of decisions processed
+     */
+    public long backfill() {
+        // Read the bound after the delete: it waits out decisions already holding bucket rows,
+        // whose ids are then visible to the read
+        long maxId = transactionTemplate.execute(status -> {
+            leaseService.checkHeld();
+            stuRollupRepository.deleteAllBuckets();
+            return eventRepository.findMaxId();
+        });
+
+        long processed = backfillFrom(archivedEventRepository::findDecisionsBetween, maxId, 0);
+        return backfillFrom(eventRepository::findDecisionsBetween, maxId, processed);
+    }
+
+    private long backfillFrom(DecisionSource source, long maxId, long processed) {
+        long lastId = 0;
+        while (true) {
+            List<DecisionSummary> chunk = source.find(lastId, maxId, PageRequest.of(0, chunkSize));
+            if (chunk.isEmpty()) {
+                break;
+            }
+
+            // Aggregate the chunk in memory so each bucket is written once per chunk
+            Map<BucketKey, Totals> buckets = new HashMap<>();
+            for (DecisionSummary decision : chunk) {
+                boolean accepted = decision.getType() == EventType.ACCEPTED;
+                LocalDate day = dayOf(decision.getCreatedAt());
+                for (String userId : List.of(decision.getRecvStuId(), StuRollup.SCHOOL_WIDE)) {
+                    buckets.computeIfAbsent(new BucketKey(userId, StuRollup.BUCKET_DAY, day), key -> new Totals())
+                            .add(accepted, decision.getPointDiff(), decision.getCreditDiff());
+                    buckets.computeIfAbsent(new BucketKey(userId, StuRollup.BUCKET_WEEK, weekOf(day)), key -> new Totals())
+                            .add(accepted, decision.getPointDiff(), decision.getCreditDiff());
+                }
+            }
+            transactionTemplate.executeWithoutResult(status -> {
+                leaseService.checkHeld();
+                buckets.forEach((key, totals) ->
+                        addToBucket(key.userId(), key.bucketType(), key.bucketStart(), totals));
+            });
+
+            processed += chunk.size();
+            lastId = chunk.get(chunk.size() - 1).getId();
+            log.info("Rollup backfill progress: {} decisions processed", processed);
+        }
+        return processed;
+    }
+
+    private void addToBucket(String userId, String bucketType, LocalDate bucketStart, Totals totals) {
+        stuRollupRepository.addToBucket(userId, bucketType, bucketStart, totals.points, totals.credits,
+                totals.requestsMade, totals.requestsApproved);
+    }
+
+    private static LocalDate dayOf(Instant instant) {
+        return LocalDate.ofInstant(instant, ZoneOffset.UTC);
+    }
+
+    private static LocalDate weekOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    @FunctionalInterface
+    private interface DecisionSource {
+        List<DecisionSummary> find(Long id, Long maxId, Pageable pageable);
+    }
+
+    private record BucketKey(String userId, String bucketType, LocalDate bucketStart) {
+    }
+
+    private static final class Totals {
+        private int points;
+        private int credits;
+        private int requestsMade;
+        private int requestsApproved;
+
+        void add(boolean accepted, int pointDiff, int creditDiff) {
+            credits += creditDiff;
+            requestsMade++;
+            if (accepted) {
+                points += pointDiff;
+                requestsApproved++;
+            }
+        }
+    }
+}
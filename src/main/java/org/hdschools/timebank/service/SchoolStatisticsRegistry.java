@@ -0,0 +1,261 @@
+package org.hdschools.timebank.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.NodeIdentity;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.model.SchoolStatistics;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Keeps live school-wide totals in memory so the statistics endpoint never touches the database.
+ * <p>
+ * Counters are striped {@link LongAdder}s, bumped by the submission and decision endpoints once their
+ * writes have committed. Writes made on other nodes arrive through the outbox; this node's own records
+ * are skipped there, since they were already counted. Daily counts cover the current UTC day, like the
+ * reporting rollups, and start over at midnight.
+ * <p>
+ * Each school is seeded from one aggregate query plus the IDs of today's active students, first at
+ * startup and then every {@code timebank.stats.reconcile-interval-ms}. Reseeding also corrects drift,
+ * such as a write counted both by the seed and by its endpoint because it committed while the seed was read.
+ */
+@Service
+@Slf4j
+public class SchoolStatisticsRegistry implements OutboxListener {
+
+    static final String JOB_NAME = "statistics-reconcile";
+
+    private static final String SEED = "SELECT "
+            + "(SELECT COUNT(*) FROM event WHERE type = " + EventType.PENDING_CODE + " AND decided_at IS NULL) "
+            + "AS pending_requests, "
+            + "(SELECT COUNT(*) FROM event WHERE type = " + EventType.ACCEPTED_CODE + " AND created_at >= ?) "
+            + "AS accepted_today, "
+            + "(SELECT COUNT(*) FROM event WHERE type = " + EventType.REJECTED_CODE + " AND created_at >= ?) "
+            + "AS rejected_today, "
+            + "(SELECT COALESCE(SUM(total_point_additions), 0) FROM stu_details) AS points_issued, "
+            + "(SELECT COALESCE(MAX(id), 0) FROM outbox) AS last_outbox_id";
+
+    private static final String ACTIVE_TODAY = "SELECT DISTINCT u.user_id FROM event e "
+            + "JOIN stu_user u ON u.id = COALESCE(e.recv_stu_id, e.init_stu_id) WHERE e.created_at >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final TenantJobRunner tenantJobRunner;
+    private final String nodeId;
+    private final Map<String, SchoolCounters> schools = new ConcurrentHashMap<>();
+
+    public SchoolStatisticsRegistry(JdbcTemplate jdbcTemplate, ObjectMapper objectMapper,
+                                    TenantJobRunner tenantJobRunner, NodeIdentity nodeIdentity) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.tenantJobRunner = tenantJobRunner;
+        this.nodeId = nodeIdentity.getId();
+    }
+
+    /**
+     * Returns the current school's totals, seeding them first if this node has not yet done so.
+     *
+     * @return the school's statistics
+     */
+    public SchoolStatistics current() {
+        SchoolCounters counters = schools.get(TenantContext.current());
+        if (counters == null) {
+            counters = reconcile();
+        }
+        // A record from a node whose clock runs ahead may already have started the next day
+        Day day = counters.dayFor(today());
+        if (day == null) {
+            day = counters.today.get();
+        }
+        return SchoolStatistics.builder()
+                .pendingRequests(counters.pendingRequests.sum())
+                .day(day.date)
+                .acceptedToday(day.accepted.sum())
+                .rejectedToday(day.rejected.sum())
+                .activeStudentsToday(day.activeStudents.size())
+                .pointsIssued(counters.pointsIssued.sum())
+                .build();
+    }
+
+    /**
+     * Counts a request submitted through this node. Call after the request has committed.
+     *
+     * @param studentUserId the requesting student
+     */
+    public void requestSubmitted(String studentUserId) {
+        counted(studentUserId, EventType.PENDING, 0, today(), true);
+    }
+
+    /**
+     * Counts a decision recorded through this node. Call after the decision has committed.
+     *
+     * @param studentUserId the student the decision concerns
+     * @param accepted      whether the request was accepted
+     * @param pointDiff     the approved point differential
+     */
+    public void decisionRecorded(String studentUserId, boolean accepted, int pointDiff) {
+        counted(studentUserId, accepted ? EventType.ACCEPTED : EventType.REJECTED, pointDiff, today(), true);
+    }
+
+    /**
+     * Counts event records written by other nodes. Records at or below the seed's last outbox ID are
+     * already covered by it, and records already delivered since the seed are redeliveries; both are
+     * skipped. A record that commits after the seed is read but has a lower ID is missed, and corrected
+     * by the next reconciliation.
+     *
+     * @param record the change record
+     */
+    @Override
+    public void onRecord(OutboxRecord record) {
+        if (!OutboxRecord.AGGREGATE_EVENT.equals(record.getAggregateType())) {
+            return;
+        }
+        SchoolCounters counters = schools.get(TenantContext.current());
+        if (counters == null || record.getId() <= counters.seededThroughRecordId
+                || !counters.deliveredRecordIds.add(record.getId())) {
+            return;
+        }
+        if (nodeId.equals(record.getOriginNode())) {
+            return;
+        }
+
+        JsonNode payload;
+        try {
+            payload = objectMapper.readTree(record.getPayload());
+        } catch (IOException e) {
+            log.warn("Skipping unreadable outbox record id={}", record.getId(), e);
+            return;
+        }
+        EventType type = EventType.fromValue(record.getChangeType());
+        counted(payload.path("studentUserId").asText(null), type, payload.path("pointDiff").asInt(),
+                LocalDate.ofInstant(record.getCreatedAt(), ZoneOffset.UTC),
+                type == EventType.PENDING || payload.hasNonNull("requestId"));
+    }
+
+    /**
+     * Reseeds every school's counters from the database, starting at startup.
+     */
+    @Scheduled(fixedDelayString = "${timebank.stats.reconcile-interval-ms:600000}")
+    public void reconcileAll() {
+        tenantJobRunner.forEachTenant(JOB_NAME, this::reconcile);
+    }
+
+    /**
+     * Replaces the current school's counters with freshly seeded ones.
+     */
+    private SchoolCounters reconcile() {
+        LocalDate today = today();
+        Timestamp dayStart = Timestamp.from(today.atStartOfDay(ZoneOffset.UTC).toInstant());
+        SchoolCounters seeded = jdbcTemplate.queryForObject(SEED, (resultSet, rowNum) -> {
+            SchoolCounters counters = new SchoolCounters(today);
+            counters.pendingRequests.add(resultSet.getLong("pending_requests"));
+            counters.pointsIssued.add(resultSet.getLong("points_issued"));
+            counters.today.get().accepted.add(resultSet.getLong("accepted_today"));
+            counters.today.get().rejected.add(resultSet.getLong("rejected_today"));
+            counters.seededThroughRecordId = resultSet.getLong("last_outbox_id");
+            return counters;
+        }, dayStart, dayStart);
+        seeded.today.get().activeStudents.addAll(jdbcTemplate.queryForList(ACTIVE_TODAY, String.class, dayStart));
+
+        SchoolCounters previous = schools.put(TenantContext.current(), seeded);
+        if (previous != null) {
+            long pendingDrift = seeded.pendingRequests.sum() - previous.pendingRequests.sum();
+            long pointsDrift = seeded.pointsIssued.sum() - previous.pointsIssued.sum();
+            if (pendingDrift != 0 || pointsDrift != 0) {
+                log.info("Reconciled statistics of school {}: pending {}, points issued {}",
+                        TenantContext.current(), pendingDrift, pointsDrift);
+            }
+        }
+        return seeded;
+    }
+
+    private void counted(String studentUserId, EventType type, int pointDiff, LocalDate date, boolean movesPending) {
+        SchoolCounters counters = schools.get(TenantContext.current());
+        if (counters == null) {
+            // Not seeded yet; the seed will include this write
+            return;
+        }
+        if (type == EventType.PENDING) {
+            counters.pendingRequests.increment();
+        } else if (movesPending) {
+            counters.pendingRequests.decrement();
+        }
+        if (type == EventType.ACCEPTED && pointDiff > 0) {
+            counters.pointsIssued.add(pointDiff);
+        }
+
+        Day day = counters.dayFor(date);
+        if (day == null) {
+            return;
+        }
+        if (type == EventType.ACCEPTED) {
+            day.accepted.increment();
+        } else if (type == EventType.REJECTED) {
+            day.rejected.increment();
+        }
+        if (studentUserId != null) {
+            day.activeStudents.add(studentUserId);
+        }
+    }
+
+    private static LocalDate today() {
+        return LocalDate.now(ZoneOffset.UTC);
+    }
+
+    /**
+     * One school's counters. Replaced as a whole on reconciliation.
+     */
+    private static final class SchoolCounters {
+        private final LongAdder pendingRequests = new LongAdder();
+        private final LongAdder pointsIssued = new LongAdder();
+        private final AtomicReference<Day> today;
+        private final Set<Long> deliveredRecordIds = ConcurrentHashMap.newKeySet();
+        private long seededThroughRecordId;
+
+        SchoolCounters(LocalDate date) {
+            this.today = new AtomicReference<>(new Day(date));
+        }
+
+        /**
+         * Returns the daily counts for a date, starting a new day if the date is later than the current one.
+         *
+         * @return the day, or {@code null} for a date before the current day
+         */
+        Day dayFor(LocalDate date) {
+            Day current = today.get();
+            while (current.date.isBefore(date)) {
+                Day next = new Day(date);
+                if (today.compareAndSet(current, next)) {
+                    return next;
+                }
+                current = today.get();
+            }
+            return current.date.equals(date) ? current : null;
+        }
+    }
+
+    private static final class Day {
+        private final LocalDate date;
+        private final LongAdder accepted = new LongAdder();
+        private final LongAdder rejected = new LongAdder();
+        private final Set<String> activeStudents = ConcurrentHashMap.newKeySet();
+
+        Day(LocalDate date) {
+            this.date = date;
+        }
+    }
+}
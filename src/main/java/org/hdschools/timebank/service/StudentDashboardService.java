@@ -0,0 +1,73 @@
+package org.hdschools.timebank.service;
+
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.model.LeaderboardPosition;
+import org.hdschools.timebank.model.StuDetails;
+import org.hdschools.timebank.model.StuDetailsResponse;
+import org.hdschools.timebank.model.StuHistoryEntry;
+import org.hdschools.timebank.repository.EventRepository;
+import org.hdschools.timebank.repository.StuDetailsRepository;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Loads the student dashboard, each read in one read-only transaction so that, with read replicas
+ * enabled, it is served by a replica unless the student wrote within the read-your-writes window.
+ */
+@Service
+@RequiredArgsConstructor
+public class StudentDashboardService {
+
+    private final StuDetailsRepository stuDetailsRepository;
+    private final EventRepository eventRepository;
+
+    /**
+     * Returns a student's current totals.
+     *
+     * @param userId the student user ID
+     * @return the student's details, at the starting balance if none are stored yet
+     */
+    @Transactional(readOnly = true)
+    public StuDetailsResponse details(String userId) {
+        StuDetails details = stuDetailsRepository.findByUserId(userId)
+                .orElseGet(() -> StuDetails.initial(userId));
+        return StuDetailsResponse.from(details);
+    }
+
+    /**
+     * Returns a page of a student's requests and decisions, newest first.
+     *
+     * @param studentKey the stu_user primary key
+     * @param page       zero-based page number
+     * @param size       page size
+     * @return the history page
+     */
+    @Transactional(readOnly = true)
+    public List<StuHistoryEntry> history(Long studentKey, int page, int size) {
+        return eventRepository
+                .findByInitStuIdOrRecvStuIdOrderByIdDesc(studentKey, studentKey, PageRequest.of(page, size))
+                .stream()
+                .map(StuHistoryEntry::from)
+                .toList();
+    }
+
+    /**
+     * Returns a student's rank by accumulated points.
+     *
+     * @param userId the student user ID
+     * @return the leaderboard position
+     */
+    @Transactional(readOnly = true)
+    public LeaderboardPosition leaderboardPosition(String userId) {
+        int points = stuDetailsRepository.findByUserId(userId)
+                .map(StuDetails::getAccumulatedPoints)
+                .orElse(0);
+        return LeaderboardPosition.builder()
+                .rank(stuDetailsRepository.countWithMorePoints(points) + 1)
+                .accumulatedPoints(points)
+                .students(stuDetailsRepository.count())
+                .build();
+    }
+}
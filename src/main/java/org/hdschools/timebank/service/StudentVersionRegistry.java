@@ -0,0 +1,140 @@
+package org.hdschools.timebank.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.NodeIdentity;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Keeps in-memory version counters for each student's data and for the school-wide leaderboard,
+ * from which read endpoints derive strong ETags.
+ * <p>
+ * Local writes bump versions as soon as they commit; writes on other nodes arrive through the outbox.
+ * Counters start over on restart and differ between nodes, so every ETag carries this instance's
+ * epoch: a tag issued elsewhere never matches, and the client simply gets a full response.
+ * Student counters are keyed by school, and each school has its own leaderboard counter.
+ */
+@Service
+@Slf4j
+public class StudentVersionRegistry implements OutboxListener {
+
+    private final ObjectMapper objectMapper;
+    private final String epoch;
+    private final Map<String, Long> studentVersions = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> schoolVersions = new ConcurrentHashMap<>();
+
+    public StudentVersionRegistry(ObjectMapper objectMapper, NodeIdentity nodeIdentity) {
+        this.objectMapper = objectMapper;
+        this.epoch = Integer.toHexString(nodeIdentity.getId().hashCode())
+                + Long.toString(System.currentTimeMillis(), 36);
+    }
+
+    /**
+     * Returns the ETag for a student's details and history.
+     *
+     * @param studentUserId the student user ID
+     * @return a quoted strong ETag
+     */
+    public String studentETag(String studentUserId) {
+        return "\"" + epoch + "-" + studentVersions.getOrDefault(TenantContext.key(studentUserId), 0L) + "\"";
+    }
+
+    /**
+     * Returns the ETag for a student's leaderboard position, which moves whenever any student's points change.
+     *
+     * @param studentUserId the student user ID
+     * @return a quoted strong ETag
+     */
+    public String leaderboardETag(String studentUserId) {
+        return "\"" + epoch + "-" + studentVersions.getOrDefault(TenantContext.key(studentUserId), 0L) + "."
+                + schoolVersion().get() + "\"";
+    }
+
+    /**
+     * Bumps a student's version once the current transaction commits.
+     *
+     * @param studentUserId the student whose data changed
+     * @param pointsChanged whether the change can move the leaderboard
+     */
+    public void changedAfterCommit(String studentUserId, boolean pointsChanged) {
+        afterCommit(() -> changed(studentUserId, pointsChanged));
+    }
+
+    /**
+     * Bumps the school's leaderboard version once the current transaction commits, for changes that
+     * move every position without touching any one student's data.
+     */
+    public void schoolChangedAfterCommit() {
+        afterCommit(() -> schoolVersion().incrementAndGet());
+    }
+
+    /**
+     * Bumps versions for changes made on any node, including ones already seen locally.
+     *
+     * @param record the change record
+     */
+    @Override
+    public void onRecord(OutboxRecord record) {
+        if (OutboxRecord.AGGREGATE_STU_DETAILS.equals(record.getAggregateType())) {
+            changed(record.getAggregateId(), true);
+        } else if (OutboxRecord.AGGREGATE_EVENT.equals(record.getAggregateType())) {
+            try {
+                String studentUserId = objectMapper.readTree(record.getPayload()).path("studentUserId").asText(null);
+                if (studentUserId != null) {
+                    changed(studentUserId, "accepted".equals(record.getChangeType()));
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("Skipping unreadable outbox record id={}", record.getId(), e);
+            }
+        } else if (OutboxRecord.AGGREGATE_SCHOOL.equals(record.getAggregateType())) {
+            if (OutboxRecord.CHANGE_STUDENTS_ADDED.equals(record.getChangeType())) {
+                schoolVersion().incrementAndGet();
+            } else if (OutboxRecord.CHANGE_EVENTS_ARCHIVED.equals(record.getChangeType())) {
+                try {
+                    objectMapper.readTree(record.getPayload()).path("studentUserIds")
+                            .forEach(studentUserId -> changed(studentUserId.asText(), false));
+                } catch (JsonProcessingException e) {
+                    log.warn("Skipping unreadable outbox record id={}", record.getId(), e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Bumps a student's version immediately, for writes committed outside a Spring-managed transaction.
+     *
+     * @param studentUserId the student whose data changed
+     * @param pointsChanged whether the change can move the leaderboard
+     */
+    public void changed(String studentUserId, boolean pointsChanged) {
+        studentVersions.merge(TenantContext.key(studentUserId), 1L, Long::sum);
+        if (pointsChanged) {
+            schoolVersion().incrementAndGet();
+        }
+    }
+
+    private static void afterCommit(Runnable bump) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            bump.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                bump.run();
+            }
+        });
+    }
+
+    private AtomicLong schoolVersion() {
+        return schoolVersions.computeIfAbsent(TenantContext.current(), tenantId -> new AtomicLong());
+    }
+}
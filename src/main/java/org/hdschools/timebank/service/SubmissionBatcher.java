@@ -0,0 +1,213 @@
+package org.hdschools.timebank.service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.Event;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Group-commits student point requests during submission bursts.
+ * <p>
+ * When {@code timebank.submission-batching.enabled} is set, submissions are queued and a single writer
+ * thread stores up to {@code max-batch-size} of them per transaction, waiting at most {@code max-delay}
+ * after the first one for others to arrive. Each caller blocks until the transaction holding its request
+ * has committed, so a success response still means the request is durable.
+ * <p>
+ * If the queue is full, the caller stores its request in its own transaction instead. If a batch fails
+ * on a constraint, such as a reused idempotency key, its submissions are retried one by one so only the
+ * offending ones fail. Submissions from different schools share the queue but are stored in separate
+ * transactions, each against its own school's database.
+ * <p>
+ * The writer starts with the application context and stops after the web server has stopped taking
+ * requests: new submissions are then stored directly, and the writer finishes everything already queued
+ * before it exits.
+ */
+@Service
+@Slf4j
+public class SubmissionBatcher implements SmartLifecycle {
+
+    /**
+     * Stops after the web server's graceful shutdown, whose requests may still be submitting.
+     */
+    private static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 4096;
+
+    private final PointRequestService pointRequestService;
+    private final boolean enabled;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final BlockingQueue<QueuedSubmission> queue;
+
+    private volatile Thread writer;
+    private volatile boolean running;
+
+    public SubmissionBatcher(PointRequestService pointRequestService,
+                             @Value("${timebank.submission-batching.enabled:false}") boolean enabled,
+                             @Value("${timebank.submission-batching.max-batch-size:200}") int maxBatchSize,
+                             @Value("${timebank.submission-batching.max-delay:5ms}") Duration maxDelay,
+                             @Value("${timebank.submission-batching.queue-capacity:2000}") int queueCapacity) {
+        this.pointRequestService = pointRequestService;
+        this.enabled = enabled;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    }
+
+    /**
+     * Starts the writer thread if batching is enabled.
+     */
+    @Override
+    public void start() {
+        if (!enabled || running) {
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "submission-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops queueing new submissions, then waits for the writer to store the queued ones.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(10));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Only left over if the writer did not finish in time; store them here rather than drop them
+        List<QueuedSubmission> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        for (int from = 0; from < remaining.size(); from += maxBatchSize) {
+            flushByTenant(remaining.subList(from, Math.min(remaining.size(), from + maxBatchSize)));
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    /**
+     * Stores a "pending" request, returning once it has committed.
+     *
+     * @param submission the request to store
+     * @return the saved event
+     * @throws DataIntegrityViolationException if the idempotency key is already used
+     */
+    public Event submit(PointRequestService.Submission submission) {
+        if (!enabled || !running) {
+            return createOne(submission);
+        }
+        QueuedSubmission queued = new QueuedSubmission(TenantContext.current(), submission, new CompletableFuture<>());
+        if (!queue.offer(queued)) {
+            // Saturated: fall back to a transaction of our own rather than queueing unboundedly
+            return createOne(submission);
+        }
+        if (!running && queue.remove(queued)) {
+            // Stopped after the check above, possibly after the last drain; nothing else will store it
+            return createOne(submission);
+        }
+        try {
+            return queued.result().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for the submission to commit", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to store submission", e.getCause());
+        }
+    }
+
+    private Event createOne(PointRequestService.Submission submission) {
+        return pointRequestService.createPendingRequest(submission);
+    }
+
+    private void writeLoop() {
+        List<QueuedSubmission> batch = new ArrayList<>(maxBatchSize);
+        // Once stopped, keep going until everything accepted before the stop is stored
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedSubmission first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxDelayNanos;
+                while (batch.size() < maxBatchSize) {
+                    QueuedSubmission next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                // stop() never interrupts; treat an outside interrupt as a stop and drain the queue
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flushByTenant(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flushByTenant(List<QueuedSubmission> batch) {
+        Map<String, List<QueuedSubmission>> byTenant = new LinkedHashMap<>();
+        for (QueuedSubmission queued : batch) {
+            byTenant.computeIfAbsent(queued.tenantId(), tenantId -> new ArrayList<>()).add(queued);
+        }
+        byTenant.forEach((tenantId, submissions) -> TenantContext.runAs(tenantId, () -> flush(submissions)));
+    }
+
+    private void flush(List<QueuedSubmission> batch) {
+        try {
+            List<Event> events = pointRequestService.createPendingRequests(
+                    batch.stream().map(QueuedSubmission::submission).toList());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(events.get(i));
+            }
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Batch of {} submissions hit a constraint, retrying individually", batch.size());
+            for (QueuedSubmission queued : batch) {
+                try {
+                    queued.result().complete(createOne(queued.submission()));
+                } catch (RuntimeException individual) {
+                    queued.result().completeExceptionally(individual);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to store batch of {} submissions", batch.size(), e);
+            batch.forEach(queued -> queued.result().completeExceptionally(e));
+        }
+    }
+
+    private record QueuedSubmission(String tenantId, PointRequestService.Submission submission,
+                                    CompletableFuture<Event> result) {
+    }
+}
@@ -0,0 +1,64 @@
+package org.hdschools.timebank.service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.TenantContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs a scheduled job once for every school, in parallel, each run seeing its school in {@link TenantContext}.
+ * <p>
+ * Runs are independent: a failure in one school is logged and does not stop the others. The caller
+ * returns once every school's run has finished, so a fixed-delay schedule never overlaps itself.
+ * With a single school the job simply runs on the calling thread.
+ */
+@Service
+@Slf4j
+public class TenantJobRunner {
+
+    private final TenantRegistry tenantRegistry;
+    private final ExecutorService workers;
+
+    public TenantJobRunner(TenantRegistry tenantRegistry,
+                           @Value("${timebank.tenancy.job-threads:4}") int jobThreads) {
+        this.tenantRegistry = tenantRegistry;
+        this.workers = Executors.newFixedThreadPool(jobThreads, runnable -> {
+            Thread thread = new Thread(runnable, "tenant-job");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Runs a job for every school and waits for all runs to finish.
+     *
+     * @param jobName name used in logs
+     * @param job     the job, run once per school
+     */
+    public void forEachTenant(String jobName, Runnable job) {
+        Set<String> tenantIds = tenantRegistry.tenantIds();
+        if (tenantIds.size() == 1) {
+            TenantContext.runAs(tenantIds.iterator().next(), job);
+            return;
+        }
+        List<CompletableFuture<Void>> runs = tenantIds.stream()
+                .map(tenantId -> CompletableFuture.runAsync(() -> TenantContext.runAs(tenantId, job), workers)
+                        .exceptionally(e -> {
+                            log.error("Job {} failed for school {}", jobName, tenantId, e);
+                            return null;
+                        }))
+                .toList();
+        CompletableFuture.allOf(runs.toArray(CompletableFuture[]::new)).join();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdownNow();
+    }
+}
@@ -0,0 +1,190 @@
+package org.hdschools.timebank.service;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.Tenant;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Knows which schools this deployment serves and owns their connection pools.
+ * <p>
+ * Schools are read from the {@code tenant} table of the default database every
+ * {@code timebank.tenancy.refresh-interval-ms}, and again when an unknown school is asked for, so
+ * onboarding a school only takes a new row. A pool is opened on a school's first connection and closed
+ * once the school is disabled or its connection settings change. When {@code timebank.tenancy.enabled}
+ * is off, only the default tenant exists.
+ */
+@Service
+@Slf4j
+public class TenantRegistry {
+
+    /** Limits how often lookups of unknown schools, such as forged token prefixes, reach the database. */
+    private static final Duration MISS_RELOAD_INTERVAL = Duration.ofSeconds(5);
+
+    private static final String LOAD_ENABLED = "SELECT tenant_id, name, jdbc_url, username, password, enabled "
+            + "FROM tenant WHERE enabled = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final DataSourceProperties dataSourceProperties;
+    private final boolean enabled;
+    private final int poolSize;
+    private final Map<String, TenantPool> pools = new ConcurrentHashMap<>();
+
+    private volatile Map<String, Tenant> tenants = Map.of();
+    private volatile long lastLoadNanos;
+
+    public TenantRegistry(JdbcTemplate jdbcTemplate,
+                          DataSourceProperties dataSourceProperties,
+                          @Value("${timebank.tenancy.enabled:false}") boolean enabled,
+                          @Value("${timebank.tenancy.pool-size:5}") int poolSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.dataSourceProperties = dataSourceProperties;
+        this.enabled = enabled;
+        this.poolSize = poolSize;
+    }
+
+    /**
+     * Checks whether a school is served, reloading the registry if it was not known.
+     *
+     * @param tenantId the tenant ID
+     * @return {@code true} for the default tenant and for enabled schools
+     */
+    public boolean exists(String tenantId) {
+        if (TenantContext.DEFAULT_TENANT.equals(tenantId)) {
+            return true;
+        }
+        if (!enabled || !TenantContext.isValidId(tenantId)) {
+            return false;
+        }
+        if (tenants.containsKey(tenantId)) {
+            return true;
+        }
+        if (System.nanoTime() - lastLoadNanos >= MISS_RELOAD_INTERVAL.toNanos()) {
+            refresh();
+        }
+        return tenants.containsKey(tenantId);
+    }
+
+    /**
+     * Returns every school served, the default tenant first.
+     *
+     * @return the tenant IDs
+     */
+    public Set<String> tenantIds() {
+        Set<String> tenantIds = new LinkedHashSet<>();
+        tenantIds.add(TenantContext.DEFAULT_TENANT);
+        tenantIds.addAll(new TreeSet<>(tenants.keySet()));
+        return tenantIds;
+    }
+
+    /**
+     * Returns the connection pool of a school, opening it on first use.
+     *
+     * @param tenantId the tenant ID, other than the default tenant
+     * @return the school's data source
+     * @throws IllegalStateException if the school is not served
+     */
+    public DataSource dataSource(String tenantId) {
+        return pools.computeIfAbsent(tenantId, id -> {
+            Tenant tenant = tenants.get(id);
+            if (tenant == null) {
+                throw new IllegalStateException("Unknown school: " + id);
+            }
+            return new TenantPool(tenant, openPool(tenant));
+        }).dataSource();
+    }
+
+    /**
+     * Reloads the enabled schools and closes the pools of schools that were removed or changed.
+     */
+    @Scheduled(fixedDelayString = "${timebank.tenancy.refresh-interval-ms:30000}")
+    public synchronized void refresh() {
+        if (!enabled) {
+            return;
+        }
+        // Plain JDBC, so a reload during a request never binds the request's JPA session to the default database
+        List<Tenant> rows = TenantContext.callAs(TenantContext.DEFAULT_TENANT,
+                () -> jdbcTemplate.query(LOAD_ENABLED, TenantRegistry::mapTenant));
+        Map<String, Tenant> loaded = rows.stream()
+                .filter(tenant -> TenantContext.isValidId(tenant.getTenantId())
+                        && !TenantContext.DEFAULT_TENANT.equals(tenant.getTenantId()))
+                .collect(Collectors.toUnmodifiableMap(Tenant::getTenantId, Function.identity()));
+        lastLoadNanos = System.nanoTime();
+
+        Set<String> added = new TreeSet<>(loaded.keySet());
+        added.removeAll(tenants.keySet());
+        tenants = loaded;
+        if (!added.isEmpty()) {
+            log.info("Serving new school(s): {}", added);
+        }
+
+        pools.forEach((tenantId, pool) -> {
+            Tenant current = loaded.get(tenantId);
+            if (current == null || !sameConnection(current, pool.tenant())) {
+                log.info("Closing connection pool of school {}", tenantId);
+                pools.remove(tenantId, pool);
+                pool.dataSource().close();
+            }
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        pools.values().forEach(pool -> pool.dataSource().close());
+        pools.clear();
+    }
+
+    private static Tenant mapTenant(ResultSet resultSet, int rowNum) throws SQLException {
+        return Tenant.builder()
+                .tenantId(resultSet.getString("tenant_id"))
+                .name(resultSet.getString("name"))
+                .jdbcUrl(resultSet.getString("jdbc_url"))
+                .username(resultSet.getString("username"))
+                .password(resultSet.getString("password"))
+                .enabled(resultSet.getBoolean("enabled"))
+                .build();
+    }
+
+    private HikariDataSource openPool(Tenant tenant) {
+        log.info("Opening connection pool of school {}", tenant.getTenantId());
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .driverClassName(dataSourceProperties.determineDriverClassName())
+                .url(tenant.getJdbcUrl())
+                .username(tenant.getUsername() != null ? tenant.getUsername() : dataSourceProperties.determineUsername())
+                .password(tenant.getPassword() != null ? tenant.getPassword() : dataSourceProperties.determinePassword())
+                .build();
+        dataSource.setPoolName("tenant-" + tenant.getTenantId());
+        dataSource.setMaximumPoolSize(poolSize);
+        return dataSource;
+    }
+
+    private static boolean sameConnection(Tenant a, Tenant b) {
+        return Objects.equals(a.getJdbcUrl(), b.getJdbcUrl())
+                && Objects.equals(a.getUsername(), b.getUsername())
+                && Objects.equals(a.getPassword(), b.getPassword());
+    }
+
+    private record TenantPool(Tenant tenant, HikariDataSource dataSource) {
+    }
+}
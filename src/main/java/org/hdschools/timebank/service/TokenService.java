@@ -1,25 +1,31 @@
 package org.hdschools.timebank.service;
 
-import jakarta.transaction.Transactional;
 import java.security.SecureRandom;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.Base64;
 import java.util.Optional;
 import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.jfr.TokenValidationEvent;
 import org.hdschools.timebank.model.Token;
 import org.hdschools.timebank.repository.TokenRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Manages authentication tokens with rolling 30-minute expiration.
+ * Tokens issued for a school other than the default one start with the school's tenant ID and a dot,
+ * which tells {@link org.hdschools.timebank.config.AuthenticationInterceptor} where to look them up.
  */
 @Service
 @Slf4j
 public class TokenService {
 
     private static final int TOKEN_EXPIRY_MINUTES = 30;
+    private static final int REFRESH_INTERVAL_MINUTES = 1;
     private static final int TOKEN_LENGTH_BYTES = 32;
+    private static final char TENANT_SEPARATOR = '.';
     private final TokenRepository tokenRepository;
     private final SecureRandom secureRandom;
 
@@ -29,7 +35,19 @@ public class TokenService {
     }
 
     /**
-     * Generates a new authentication token for a user.
+     * Returns the school a token was issued for. The random part is URL-safe Base64, which never
+     * contains the separator.
+     *
+     * @param tokenString the token
+     * @return the tenant ID from the token's prefix, or the default tenant if it has none
+     */
+    public static String tenantOf(String tokenString) {
+        int separator = tokenString.indexOf(TENANT_SEPARATOR);
+        return separator > 0 ? tokenString.substring(0, separator) : TenantContext.DEFAULT_TENANT;
+    }
+
+    /**
+     * Generates a new authentication token for a user of the current school.
      *
      * @param userId   the user's ID
      * @param userType the type of user ("student" or "staff")
@@ -44,6 +62,10 @@ public class TokenService {
         byte[] randomBytes = new byte[TOKEN_LENGTH_BYTES];
         secureRandom.nextBytes(randomBytes);
         String tokenString = Base64.getUrlEncoder().withoutPadding().encodeToString(randomBytes);
+        String tenantId = TenantContext.current();
+        if (!TenantContext.DEFAULT_TENANT.equals(tenantId)) {
+            tokenString = tenantId + TENANT_SEPARATOR + tokenString;
+        }
 
         // Create and save token with 30-minute expiration
         Token token = Token.builder()
@@ -62,36 +84,64 @@ public class TokenService {
     /**
      * Validates a token and returns the associated Token entity if valid.
      * Does NOT refresh expiration - use {@link #validateAndRefreshToken} for that.
+     * Runs read-only, so it may be served by a read replica.
      *
      * @param tokenString the token to validate
      * @return Optional containing the Token if valid and not expired
      */
+    @Transactional(readOnly = true)
     public Optional<Token> validateToken(String tokenString) {
-        return tokenRepository.findByToken(tokenString)
-                .filter(token -> token.getExpiresAt().isAfter(Instant.now()));
+        TokenValidationEvent event = new TokenValidationEvent();
+        event.begin();
+        Optional<Token> tokenOpt = findUnexpired(tokenString);
+        commit(event, tokenOpt.isPresent(), false);
+        return tokenOpt;
     }
 
     /**
      * Validates a token and refreshes its expiration to 30 minutes from now.
-     * This implements rolling expiration for authenticated requests.
+     * This implements rolling expiration for authenticated requests. A token refreshed within the
+     * last minute is not written again, so a burst of requests costs one update rather than one each.
      *
      * @param tokenString the token to validate and refresh
      * @return Optional containing the Token if valid
      */
     @Transactional
     public Optional<Token> validateAndRefreshToken(String tokenString) {
-        Optional<Token> tokenOpt = validateToken(tokenString);
+        TokenValidationEvent event = new TokenValidationEvent();
+        event.begin();
+        Optional<Token> tokenOpt = findUnexpired(tokenString);
         
+        boolean refreshed = false;
         if (tokenOpt.isPresent()) {
             Token token = tokenOpt.get();
-            token.setExpiresAt(Instant.now().plus(TOKEN_EXPIRY_MINUTES, ChronoUnit.MINUTES));
-            tokenRepository.save(token);
-            log.debug("Refreshed token expiration for userId={}", token.getUserId());
+            Instant expiresAt = Instant.now().plus(TOKEN_EXPIRY_MINUTES, ChronoUnit.MINUTES);
+            if (token.getExpiresAt().isBefore(expiresAt.minus(REFRESH_INTERVAL_MINUTES, ChronoUnit.MINUTES))) {
+                token.setExpiresAt(expiresAt);
+                tokenRepository.save(token);
+                refreshed = true;
+                log.debug("Refreshed token expiration for userId={}", token.getUserId());
+            }
         }
         
+        commit(event, tokenOpt.isPresent(), refreshed);
         return tokenOpt;
     }
 
+    private Optional<Token> findUnexpired(String tokenString) {
+        return tokenRepository.findByToken(tokenString)
+                .filter(token -> token.getExpiresAt().isAfter(Instant.now()));
+    }
+
+    private static void commit(TokenValidationEvent event, boolean hit, boolean refreshed) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.hit = hit;
+            event.refreshed = refreshed;
+            event.commit();
+        }
+    }
+
     /**
      * Invalidates a token by deleting it.
      *
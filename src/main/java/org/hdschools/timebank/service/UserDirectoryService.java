@@ -0,0 +1,103 @@
+package org.hdschools.timebank.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import lombok.RequiredArgsConstructor;
+import org.hdschools.timebank.config.TenantContext;
+import org.hdschools.timebank.model.StaUser;
+import org.hdschools.timebank.model.StuUser;
+import org.hdschools.timebank.repository.StaUserRepository;
+import org.hdschools.timebank.repository.StuUserRepository;
+import org.springframework.stereotype.Service;
+
+/**
+ * Resolves authenticated primary keys (as stored on tokens) to business user IDs.
+ * The mapping never changes for an account, so resolved IDs are cached in memory, keyed by school.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserDirectoryService {
+
+    private final StuUserRepository stuUserRepository;
+    private final StaUserRepository staUserRepository;
+
+    private final Map<String, String> studentUserIds = new ConcurrentHashMap<>();
+    private final Map<String, String> staffUserIds = new ConcurrentHashMap<>();
+
+    /**
+     * Resolves a stu_user primary key to the student's business user ID.
+     *
+     * @param id the stu_user.id value
+     * @return Optional containing the student's user ID if the account exists
+     */
+    public Optional<String> findStudentUserId(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        String key = TenantContext.key(id.toString());
+        String cached = studentUserIds.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return stuUserRepository.findById(id)
+                .map(StuUser::getUserId)
+                .map(userId -> {
+                    studentUserIds.put(key, userId);
+                    return userId;
+                });
+    }
+
+    /**
+     * Resolves several stu_user primary keys at once, looking up the uncached ones in a single query.
+     *
+     * @param ids the stu_user.id values
+     * @return user IDs by primary key, for the accounts that exist
+     */
+    public Map<Long, String> findStudentUserIds(Collection<Long> ids) {
+        Map<Long, String> resolved = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long id : ids) {
+            String cached = id != null ? studentUserIds.get(TenantContext.key(id.toString())) : null;
+            if (cached != null) {
+                resolved.put(id, cached);
+            } else if (id != null) {
+                missing.add(id);
+            }
+        }
+        if (!missing.isEmpty()) {
+            for (StuUser user : stuUserRepository.findAllById(missing)) {
+                studentUserIds.put(TenantContext.key(user.getId().toString()), user.getUserId());
+                resolved.put(user.getId(), user.getUserId());
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * Resolves a sta_user primary key to the staff member's business user ID.
+     *
+     * @param id the sta_user.id value
+     * @return Optional containing the staff user ID if the account exists
+     */
+    public Optional<String> findStaffUserId(Long id) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        String key = TenantContext.key(id.toString());
+        String cached = staffUserIds.get(key);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        return staUserRepository.findById(id)
+                .map(StaUser::getUserId)
+                .map(userId -> {
+                    staffUserIds.put(key, userId);
+                    return userId;
+                });
+    }
+}
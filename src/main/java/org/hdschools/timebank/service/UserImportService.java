@@ -0,0 +1,199 @@
+package org.hdschools.timebank.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import lombok.extern.slf4j.Slf4j;
+import org.hdschools.timebank.model.StuDetails;
+import org.hdschools.timebank.model.UserImportError;
+import org.hdschools.timebank.model.UserImportResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Bulk-loads student or staff accounts from a CSV stream of {@code user_id,password} rows.
+ * <p>
+ * Rows are processed in chunks: each chunk is validated, checked against existing user IDs with a
+ * single IN query, and inserted with JDBC batches in its own transaction. Student chunks also create
+ * zeroed stu_details rows so the first requests don't have to, and record an outbox change so cached
+ * leaderboard positions are revalidated.
+ */
+@Service
+@Slf4j
+public class UserImportService {
+
+    public static final String TYPE_STUDENT = "student";
+    public static final String TYPE_STAFF = "staff";
+
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final int chunkSize;
+
+    public UserImportService(JdbcTemplate jdbcTemplate,
+                             NamedParameterJdbcTemplate namedParameterJdbcTemplate,
+                             PlatformTransactionManager transactionManager,
+                             OutboxService outboxService,
+                             @Value("${timebank.import.chunk-size:1000}") int chunkSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxService = outboxService;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports users from CSV. A first line of {@code user_id,password} is treated as a header.
+     *
+     * @param userType {@link #TYPE_STUDENT} or {@link #TYPE_STAFF}
+     * @param csv      the CSV content
+     * @return counts and per-row errors
+     * @throws IOException if the stream cannot be read
+     */
+    public UserImportResponse importUsers(String userType, Reader csv) throws IOException {
+        String table = TYPE_STUDENT.equals(userType) ? "stu_user" : "sta_user";
+        UserImportResponse result = UserImportResponse.builder()
+                .userType(userType)
+                .errors(new ArrayList<>())
+                .build();
+        Set<String> seenInFile = new HashSet<>();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        BufferedReader reader = new BufferedReader(csv);
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank() || (lineNumber == 1 && line.trim().equalsIgnoreCase("user_id,password"))) {
+                continue;
+            }
+            result.setRowsRead(result.getRowsRead() + 1);
+
+            List<String> fields = parseCsvLine(line);
+            String userId = fields.isEmpty() ? null : fields.get(0).trim();
+            String error = validate(fields, userId);
+            if (error != null) {
+                reportError(result, lineNumber, userId, error);
+                continue;
+            }
+            if (!seenInFile.add(userId)) {
+                result.setDuplicates(result.getDuplicates() + 1);
+                continue;
+            }
+
+            chunk.add(new Row(userId, fields.get(1)));
+            if (chunk.size() >= chunkSize) {
+                flushChunk(table, userType, chunk, result);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            flushChunk(table, userType, chunk, result);
+        }
+
+        log.info("User import finished: type={}, rowsRead={}, inserted={}, duplicates={}, failed={}",
+                userType, result.getRowsRead(), result.getInserted(), result.getDuplicates(), result.getFailed());
+        return result;
+    }
+
+    private void flushChunk(String table, String userType, List<Row> chunk, UserImportResponse result) {
+        List<String> userIds = chunk.stream().map(Row::userId).toList();
+        Set<String> existing = new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT user_id FROM " + table + " WHERE user_id IN (:userIds)",
+                Map.of("userIds", userIds), String.class));
+        List<Row> toInsert = chunk.stream().filter(row -> !existing.contains(row.userId())).toList();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate("INSERT INTO " + table + " (user_id, password) VALUES (?, ?)",
+                    toInsert, toInsert.size(), (statement, row) -> {
+                        statement.setString(1, row.userId());
+                        statement.setString(2, row.password());
+                    });
+            if (TYPE_STUDENT.equals(userType) && !toInsert.isEmpty()) {
+                jdbcTemplate.batchUpdate("INSERT INTO stu_details (user_id, accumulated_points, accumulated_credits, "
+                                + "requests_made, requests_approved, total_point_additions) VALUES (?, "
+                                + StuDetails.INITIAL_POINTS + ", " + StuDetails.INITIAL_CREDITS + ", 0, 0, 0) "
+                                + "ON DUPLICATE KEY UPDATE user_id = user_id",
+                        toInsert, toInsert.size(), (statement, row) -> statement.setString(1, row.userId()));
+                outboxService.studentsAdded(toInsert.size());
+            }
+        });
+
+        result.setInserted(result.getInserted() + toInsert.size());
+        result.setDuplicates(result.getDuplicates() + existing.size());
+        log.info("User import progress: type={}, rowsRead={}, inserted={}",
+                userType, result.getRowsRead(), result.getInserted());
+        chunk.clear();
+    }
+
+    private static String validate(List<String> fields, String userId) {
+        if (fields.size() != 2) {
+            return "Expected 2 fields (user_id,password) but found " + fields.size();
+        }
+        if (userId.isEmpty()) {
+            return "user_id is empty";
+        }
+        if (fields.get(1).isEmpty()) {
+            return "password is empty";
+        }
+        if (userId.length() > MAX_FIELD_LENGTH || fields.get(1).length() > MAX_FIELD_LENGTH) {
+            return "Field longer than " + MAX_FIELD_LENGTH + " characters";
+        }
+        return null;
+    }
+
+    private static void reportError(UserImportResponse result, long line, String userId, String message) {
+        result.setFailed(result.getFailed() + 1);
+        if (result.getErrors().size() < MAX_REPORTED_ERRORS) {
+            result.getErrors().add(new UserImportError(line, userId, message));
+        } else {
+            result.setErrorsTruncated(true);
+        }
+    }
+
+    /**
+     * Splits one CSV line, honouring double-quoted fields with {@code ""} escapes.
+     */
+    private static List<String> parseCsvLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private record Row(String userId, String password) {
+    }
+}
@@ -0,0 +1,79 @@
+package org.hdschools.timebank.util;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Lock-free token bucket. Tokens refill continuously at a fixed rate up to the bucket capacity.
+ * State is replaced atomically with compare-and-set, so concurrent requests never block each other.
+ */
+public class TokenBucket {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000d;
+
+    private final int capacity;
+    private final double refillPerNano;
+    private final AtomicReference<State> state;
+
+    /**
+     * Creates a full bucket.
+     *
+     * @param capacity        maximum number of tokens (burst size)
+     * @param refillPerSecond tokens added per second
+     * @param nowNanos        current {@link System#nanoTime()} value
+     */
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        this.capacity = capacity;
+        this.refillPerNano = refillPerSecond / NANOS_PER_SECOND;
+        this.state = new AtomicReference<>(new State(capacity, nowNanos));
+    }
+
+    /**
+     * Attempts to take one token.
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @return {@code true} if a token was available
+     */
+    public boolean tryConsume(long nowNanos) {
+        while (true) {
+            State current = state.get();
+            double tokens = refill(current, nowNanos);
+            boolean allowed = tokens >= 1d;
+            State next = new State(allowed ? tokens - 1d : tokens, Math.max(nowNanos, current.updatedNanos()));
+            if (state.compareAndSet(current, next)) {
+                return allowed;
+            }
+        }
+    }
+
+    /**
+     * Returns the number of whole seconds until the next token becomes available.
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @return seconds to wait, at least 1
+     */
+    public long secondsUntilNextToken(long nowNanos) {
+        double missing = 1d - refill(state.get(), nowNanos);
+        if (missing <= 0d || refillPerNano <= 0d) {
+            return 1;
+        }
+        return Math.max(1, (long) Math.ceil(missing / refillPerNano / NANOS_PER_SECOND));
+    }
+
+    /**
+     * Returns how long the bucket has gone without being touched.
+     *
+     * @param nowNanos current {@link System#nanoTime()} value
+     * @return idle time in nanoseconds
+     */
+    public long idleNanos(long nowNanos) {
+        return nowNanos - state.get().updatedNanos();
+    }
+
+    private double refill(State current, long nowNanos) {
+        long elapsed = Math.max(0, nowNanos - current.updatedNanos());
+        return Math.min(capacity, current.tokens() + elapsed * refillPerNano);
+    }
+
+    private record State(double tokens, long updatedNanos) {
+    }
+}
@@ -0,0 +1,139 @@
+-- Converts existing databases to integer actor keys and one-byte type codes on event and event_archive
+-- (new databases get them from table_init.sql). Stop the application first: rows written during the
+-- migration would be missed. Run it with the mysql client and without --force, so a failed check stops
+-- the script before anything is changed.
+
+-- Size before, for comparison with the same query at the end
+ANALYZE TABLE `event`, `event_archive`;
+SELECT `table_name`, `table_rows`, `data_length`, `index_length`
+FROM `information_schema`.`tables`
+WHERE `table_schema` = DATABASE() AND `table_name` IN ('event', 'event_archive');
+
+-- Checks that would otherwise lose data when the old columns are dropped; each aborts the script.
+-- An aborted run leaves the procedure behind, so a rerun after fixing the data replaces it
+DROP PROCEDURE IF EXISTS `event_compact_keys_require_none`;
+DELIMITER //
+CREATE PROCEDURE `event_compact_keys_require_none`(IN `problem_rows` bigint, IN `problem` varchar(128))
+BEGIN
+    IF `problem_rows` > 0 THEN
+        SIGNAL SQLSTATE '45000' SET MESSAGE_TEXT = `problem`;
+    END IF;
+END //
+DELIMITER ;
+
+-- Unknown types would have no code; map any other legacy values first
+SET @unknown_types = (SELECT COUNT(*) FROM `event`
+        WHERE `type` IS NULL OR `type` NOT IN ('pending', 'accepted', 'rejected'))
+    + (SELECT COUNT(*) FROM `event_archive`
+        WHERE `type` IS NULL OR `type` NOT IN ('pending', 'accepted', 'rejected'));
+CALL `event_compact_keys_require_none`(@unknown_types, 'event or event_archive has unknown type values');
+
+-- Business IDs without an account would become NULL; create or remap those accounts first
+SET @unknown_event_actors = (SELECT COUNT(*) FROM `event` e
+    LEFT JOIN `stu_user` si ON si.`user_id` = e.`init_stu_id`
+    LEFT JOIN `sta_user` ai ON ai.`user_id` = e.`init_sta_id`
+    LEFT JOIN `stu_user` sr ON sr.`user_id` = e.`recv_stu_id`
+    LEFT JOIN `sta_user` ar ON ar.`user_id` = e.`recv_sta_id`
+    WHERE (e.`init_stu_id` IS NOT NULL AND si.`id` IS NULL) OR (e.`init_sta_id` IS NOT NULL AND ai.`id` IS NULL)
+       OR (e.`recv_stu_id` IS NOT NULL AND sr.`id` IS NULL) OR (e.`recv_sta_id` IS NOT NULL AND ar.`id` IS NULL));
+CALL `event_compact_keys_require_none`(@unknown_event_actors, 'event references user IDs without an account');
+
+SET @unknown_archive_actors = (SELECT COUNT(*) FROM `event_archive` e
+    LEFT JOIN `stu_user` si ON si.`user_id` = e.`init_stu_id`
+    LEFT JOIN `sta_user` ai ON ai.`user_id` = e.`init_sta_id`
+    LEFT JOIN `stu_user` sr ON sr.`user_id` = e.`recv_stu_id`
+    LEFT JOIN `sta_user` ar ON ar.`user_id` = e.`recv_sta_id`
+    WHERE (e.`init_stu_id` IS NOT NULL AND si.`id` IS NULL) OR (e.`init_sta_id` IS NOT NULL AND ai.`id` IS NULL)
+       OR (e.`recv_stu_id` IS NOT NULL AND sr.`id` IS NULL) OR (e.`recv_sta_id` IS NOT NULL AND ar.`id` IS NULL));
+CALL `event_compact_keys_require_none`(@unknown_archive_actors, 'event_archive references user IDs without an account');
+
+DROP PROCEDURE `event_compact_keys_require_none`;
+
+-- event: add the compact columns, fill them, then swap them in
+ALTER TABLE `event`
+    ADD COLUMN `init_stu_key` int unsigned DEFAULT NULL,
+    ADD COLUMN `init_sta_key` int unsigned DEFAULT NULL,
+    ADD COLUMN `recv_stu_key` int unsigned DEFAULT NULL,
+    ADD COLUMN `recv_sta_key` int unsigned DEFAULT NULL,
+    ADD COLUMN `type_code` tinyint unsigned DEFAULT NULL;
+
+UPDATE `event` e
+    LEFT JOIN `stu_user` si ON si.`user_id` = e.`init_stu_id`
+    LEFT JOIN `sta_user` ai ON ai.`user_id` = e.`init_sta_id`
+    LEFT JOIN `stu_user` sr ON sr.`user_id` = e.`recv_stu_id`
+    LEFT JOIN `sta_user` ar ON ar.`user_id` = e.`recv_sta_id`
+SET e.`init_stu_key` = si.`id`, e.`init_sta_key` = ai.`id`, e.`recv_stu_key` = sr.`id`, e.`recv_sta_key` = ar.`id`,
+    e.`type_code` = CASE e.`type` WHEN 'pending' THEN 1 WHEN 'accepted' THEN 2 WHEN 'rejected' THEN 3 END;
+
+ALTER TABLE `event`
+    DROP KEY `idx_event_init_stu_id`,
+    DROP KEY `idx_event_recv_stu_id`,
+    DROP KEY `idx_event_open_requests`,
+    DROP COLUMN `init_stu_id`,
+    DROP COLUMN `init_sta_id`,
+    DROP COLUMN `recv_stu_id`,
+    DROP COLUMN `recv_sta_id`,
+    DROP COLUMN `type`,
+    RENAME COLUMN `init_stu_key` TO `init_stu_id`,
+    RENAME COLUMN `init_sta_key` TO `init_sta_id`,
+    RENAME COLUMN `recv_stu_key` TO `recv_stu_id`,
+    RENAME COLUMN `recv_sta_key` TO `recv_sta_id`,
+    RENAME COLUMN `type_code` TO `type`;
+
+ALTER TABLE `event`
+    MODIFY COLUMN `init_stu_id` int unsigned DEFAULT NULL COMMENT 'References stu_user.id' AFTER `created_at`,
+    MODIFY COLUMN `init_sta_id` int unsigned DEFAULT NULL COMMENT 'References sta_user.id' AFTER `init_stu_id`,
+    MODIFY COLUMN `recv_stu_id` int unsigned DEFAULT NULL COMMENT 'References stu_user.id' AFTER `init_sta_id`,
+    MODIFY COLUMN `recv_sta_id` int unsigned DEFAULT NULL COMMENT 'References sta_user.id' AFTER `recv_stu_id`,
+    MODIFY COLUMN `type` tinyint unsigned NOT NULL COMMENT '1 = pending, 2 = accepted, 3 = rejected' AFTER `credit_diff`,
+    ADD KEY `idx_event_init_stu_id` (`init_stu_id`),
+    ADD KEY `idx_event_recv_stu_id` (`recv_stu_id`),
+    ADD KEY `idx_event_open_requests` (`type`, `decided_at`),
+    ADD CONSTRAINT `fk_event_init_stu` FOREIGN KEY (`init_stu_id`) REFERENCES `stu_user` (`id`),
+    ADD CONSTRAINT `fk_event_init_sta` FOREIGN KEY (`init_sta_id`) REFERENCES `sta_user` (`id`),
+    ADD CONSTRAINT `fk_event_recv_stu` FOREIGN KEY (`recv_stu_id`) REFERENCES `stu_user` (`id`),
+    ADD CONSTRAINT `fk_event_recv_sta` FOREIGN KEY (`recv_sta_id`) REFERENCES `sta_user` (`id`);
+
+-- event_archive: same conversion, without foreign keys
+ALTER TABLE `event_archive`
+    ADD COLUMN `init_stu_key` int unsigned DEFAULT NULL,
+    ADD COLUMN `init_sta_key` int unsigned DEFAULT NULL,
+    ADD COLUMN `recv_stu_key` int unsigned DEFAULT NULL,
+    ADD COLUMN `recv_sta_key` int unsigned DEFAULT NULL,
+    ADD COLUMN `type_code` tinyint unsigned DEFAULT NULL;
+
+UPDATE `event_archive` e
+    LEFT JOIN `stu_user` si ON si.`user_id` = e.`init_stu_id`
+    LEFT JOIN `sta_user` ai ON ai.`user_id` = e.`init_sta_id`
+    LEFT JOIN `stu_user` sr ON sr.`user_id` = e.`recv_stu_id`
+    LEFT JOIN `sta_user` ar ON ar.`user_id` = e.`recv_sta_id`
+SET e.`init_stu_key` = si.`id`, e.`init_sta_key` = ai.`id`, e.`recv_stu_key` = sr.`id`, e.`recv_sta_key` = ar.`id`,
+    e.`type_code` = CASE e.`type` WHEN 'pending' THEN 1 WHEN 'accepted' THEN 2 WHEN 'rejected' THEN 3 END;
+
+ALTER TABLE `event_archive`
+    DROP KEY `idx_event_archive_recv_stu_id`,
+    DROP COLUMN `init_stu_id`,
+    DROP COLUMN `init_sta_id`,
+    DROP COLUMN `recv_stu_id`,
+    DROP COLUMN `recv_sta_id`,
+    DROP COLUMN `type`,
+    RENAME COLUMN `init_stu_key` TO `init_stu_id`,
+    RENAME COLUMN `init_sta_key` TO `init_sta_id`,
+    RENAME COLUMN `recv_stu_key` TO `recv_stu_id`,
+    RENAME COLUMN `recv_sta_key` TO `recv_sta_id`,
+    RENAME COLUMN `type_code` TO `type`;
+
+ALTER TABLE `event_archive`
+    MODIFY COLUMN `init_stu_id` int unsigned DEFAULT NULL COMMENT 'References stu_user.id' AFTER `archived_at`,
+    MODIFY COLUMN `init_sta_id` int unsigned DEFAULT NULL COMMENT 'References sta_user.id' AFTER `init_stu_id`,
+    MODIFY COLUMN `recv_stu_id` int unsigned DEFAULT NULL COMMENT 'References stu_user.id' AFTER `init_sta_id`,
+    MODIFY COLUMN `recv_sta_id` int unsigned DEFAULT NULL COMMENT 'References sta_user.id' AFTER `recv_stu_id`,
+    MODIFY COLUMN `type` tinyint unsigned NOT NULL COMMENT '1 = pending, 2 = accepted, 3 = rejected' AFTER `credit_diff`,
+    ADD KEY `idx_event_archive_recv_stu_id` (`recv_stu_id`);
+
+-- Rebuild to reclaim the space of the dropped columns, then measure again
+OPTIMIZE TABLE `event`, `event_archive`;
+ANALYZE TABLE `event`, `event_archive`;
+SELECT `table_name`, `table_rows`, `data_length`, `index_length`
+FROM `information_schema`.`tables`
+WHERE `table_schema` = DATABASE() AND `table_name` IN ('event', 'event_archive');
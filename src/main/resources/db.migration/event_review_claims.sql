@@ -0,0 +1,15 @@
+-- Adds review claims to existing databases (new databases get them from table_init.sql)
+ALTER TABLE `event`
+    ADD COLUMN `claimed_by` varchar(255) DEFAULT NULL COMMENT 'Staff user_id reviewing a pending request',
+    ADD COLUMN `claim_expires_at` timestamp NULL DEFAULT NULL COMMENT 'When the review claim returns to the pool',
+    ADD COLUMN `decided_at` timestamp NULL DEFAULT NULL COMMENT 'When a pending request was accepted or rejected',
+    ADD KEY `idx_event_open_requests` (`type`, `decided_at`);
+
+ALTER TABLE `event_archive`
+    ADD COLUMN `claimed_by` varchar(255) DEFAULT NULL,
+    ADD COLUMN `claim_expires_at` timestamp NULL DEFAULT NULL,
+    ADD COLUMN `decided_at` timestamp NULL DEFAULT NULL;
+
+-- Decision events do not reference the request they decide, so requests decided before this
+-- migration cannot be told apart from open ones. Once the existing backlog has been reviewed, close it with:
+-- UPDATE `event` SET `decided_at` = `created_at` WHERE `type` = 'pending' AND `decided_at` IS NULL;
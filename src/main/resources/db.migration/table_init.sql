@@ -30,15 +30,27 @@ CREATE TABLE IF NOT EXISTS `sta_user` (
 CREATE TABLE IF NOT EXISTS `event` (
     `id` int unsigned NOT NULL AUTO_INCREMENT,
     `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
-    `init_stu_id` varchar(255) DEFAULT NULL,
-    `init_sta_id` varchar(255) DEFAULT NULL,
-    `recv_stu_id` varchar(255) DEFAULT NULL,
-    `recv_sta_id` varchar(255) DEFAULT NULL,
+    `init_stu_id` int unsigned DEFAULT NULL COMMENT 'References stu_user.id',
+    `init_sta_id` int unsigned DEFAULT NULL COMMENT 'References sta_user.id',
+    `recv_stu_id` int unsigned DEFAULT NULL COMMENT 'References stu_user.id',
+    `recv_sta_id` int unsigned DEFAULT NULL COMMENT 'References sta_user.id',
     `point_diff` int NOT NULL DEFAULT '0',
     `credit_diff` int NOT NULL DEFAULT '0',
-    `type` varchar(255) NOT NULL,
+    `type` tinyint unsigned NOT NULL COMMENT '1 = pending, 2 = accepted, 3 = rejected',
     `content_html` mediumtext DEFAULT NULL,
-    PRIMARY KEY (`id`)
+    `idempotency_key` varchar(128) DEFAULT NULL UNIQUE COMMENT 'Client Idempotency-Key scoped to the submitting user',
+    `claimed_by` varchar(255) DEFAULT NULL COMMENT 'Staff user_id reviewing a pending request',
+    `claim_expires_at` timestamp NULL DEFAULT NULL COMMENT 'When the review claim returns to the pool',
+    `decided_at` timestamp NULL DEFAULT NULL COMMENT 'When a pending request was accepted or rejected',
+    PRIMARY KEY (`id`),
+    KEY `idx_event_created_at` (`created_at`),
+    KEY `idx_event_init_stu_id` (`init_stu_id`),
+    KEY `idx_event_recv_stu_id` (`recv_stu_id`),
+    KEY `idx_event_open_requests` (`type`, `decided_at`),
+    CONSTRAINT `fk_event_init_stu` FOREIGN KEY (`init_stu_id`) REFERENCES `stu_user` (`id`),
+    CONSTRAINT `fk_event_init_sta` FOREIGN KEY (`init_sta_id`) REFERENCES `sta_user` (`id`),
+    CONSTRAINT `fk_event_recv_stu` FOREIGN KEY (`recv_stu_id`) REFERENCES `stu_user` (`id`),
+    CONSTRAINT `fk_event_recv_sta` FOREIGN KEY (`recv_sta_id`) REFERENCES `sta_user` (`id`)
   ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
 
 CREATE TABLE IF NOT EXISTS `stu_details` (
@@ -52,4 +64,99 @@ CREATE TABLE IF NOT EXISTS `stu_details` (
     `requests_approved` int NOT NULL DEFAULT '0' COMMENT 'Total number of requests approved for the student',
     `total_point_additions` int NOT NULL DEFAULT '0' COMMENT 'Total points added (only positive changes)',
     PRIMARY KEY (`id`)
-  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci
\ No newline at end of file
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `stu_balance` (
+    `id` int unsigned NOT NULL AUTO_INCREMENT,
+    `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `updated_at` TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    `user_id` varchar(255) UNIQUE NOT NULL COMMENT 'References stu_user.user_id',
+    `accumulated_points` int NOT NULL DEFAULT '0',
+    `accumulated_credits` int NOT NULL DEFAULT '0',
+    PRIMARY KEY (`id`)
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `job_lease` (
+    `name` varchar(64) NOT NULL COMMENT 'Scheduled job name',
+    `owner` varchar(128) DEFAULT NULL COMMENT 'Node currently holding the lease',
+    `expires_at` timestamp NOT NULL COMMENT 'Lease is free once this passes without a heartbeat',
+    `heartbeat_at` timestamp NULL DEFAULT NULL COMMENT 'Last heartbeat from the holder',
+    `last_completed_at` timestamp NULL DEFAULT NULL COMMENT 'Last successful run on any node',
+    PRIMARY KEY (`name`)
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `outbox` (
+    `id` bigint unsigned NOT NULL AUTO_INCREMENT,
+    `created_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `origin_node` varchar(128) NOT NULL COMMENT 'Node that wrote the change',
+    `aggregate_type` varchar(32) NOT NULL COMMENT 'Either "event" or "stu_details"',
+    `aggregate_id` varchar(255) NOT NULL COMMENT 'event.id or stu_details.user_id',
+    `change_type` varchar(32) NOT NULL COMMENT 'Event type, or "updated" for details',
+    `payload` varchar(1024) DEFAULT NULL COMMENT 'Compact JSON description of the change',
+    PRIMARY KEY (`id`),
+    KEY `idx_outbox_created_at` (`created_at`)
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `outbox_cursor` (
+    `consumer` varchar(128) NOT NULL COMMENT 'Consuming node ID',
+    `last_id` bigint unsigned NOT NULL COMMENT 'Last outbox.id fully dispatched',
+    PRIMARY KEY (`consumer`)
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `stu_rollup` (
+    `id` int unsigned NOT NULL AUTO_INCREMENT,
+    `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    `user_id` varchar(255) NOT NULL COMMENT 'References stu_user.user_id, or "*" for school-wide totals',
+    `bucket_type` varchar(8) NOT NULL COMMENT 'Either "day" or "week" (weeks start on Monday, UTC)',
+    `bucket_start` date NOT NULL COMMENT 'First day of the bucket',
+    `points` int NOT NULL DEFAULT '0' COMMENT 'Points from accepted decisions',
+    `credits` int NOT NULL DEFAULT '0' COMMENT 'Credits from accepted and rejected decisions',
+    `requests_made` int NOT NULL DEFAULT '0' COMMENT 'Requests decided in the bucket',
+    `requests_approved` int NOT NULL DEFAULT '0' COMMENT 'Requests accepted in the bucket',
+    PRIMARY KEY (`id`),
+    UNIQUE KEY `uk_stu_rollup_bucket` (`user_id`, `bucket_type`, `bucket_start`)
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `event_archive` (
+    `id` int unsigned NOT NULL COMMENT 'Original event.id',
+    `created_at` timestamp NOT NULL,
+    `archived_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `init_stu_id` int unsigned DEFAULT NULL COMMENT 'References stu_user.id',
+    `init_sta_id` int unsigned DEFAULT NULL COMMENT 'References sta_user.id',
+    `recv_stu_id` int unsigned DEFAULT NULL COMMENT 'References stu_user.id',
+    `recv_sta_id` int unsigned DEFAULT NULL COMMENT 'References sta_user.id',
+    `point_diff` int NOT NULL DEFAULT '0',
+    `credit_diff` int NOT NULL DEFAULT '0',
+    `type` tinyint unsigned NOT NULL COMMENT '1 = pending, 2 = accepted, 3 = rejected',
+    `content_html` mediumtext DEFAULT NULL,
+    `idempotency_key` varchar(128) DEFAULT NULL,
+    `claimed_by` varchar(255) DEFAULT NULL,
+    `claim_expires_at` timestamp NULL DEFAULT NULL,
+    `decided_at` timestamp NULL DEFAULT NULL,
+    PRIMARY KEY (`id`),
+    KEY `idx_event_archive_recv_stu_id` (`recv_stu_id`)
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+CREATE TABLE IF NOT EXISTS `stu_carry_forward` (
+    `id` int unsigned NOT NULL AUTO_INCREMENT,
+    `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    `user_id` varchar(255) UNIQUE NOT NULL COMMENT 'References stu_user.user_id',
+    `points` int NOT NULL DEFAULT '0' COMMENT 'Points from archived accepted decisions',
+    `credits` int NOT NULL DEFAULT '0' COMMENT 'Credits from archived accepted and rejected decisions',
+    `requests_made` int NOT NULL DEFAULT '0' COMMENT 'Archived requests made',
+    `requests_approved` int NOT NULL DEFAULT '0' COMMENT 'Archived requests approved',
+    `point_additions` int NOT NULL DEFAULT '0' COMMENT 'Positive points from archived accepted decisions',
+    PRIMARY KEY (`id`)
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+-- Only read in the default database
+CREATE TABLE IF NOT EXISTS `tenant` (
+    `tenant_id` varchar(20) NOT NULL COMMENT 'Lowercase school key, also the prefix of its tokens',
+    `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    `name` varchar(128) NOT NULL COMMENT 'School display name',
+    `jdbc_url` varchar(255) NOT NULL COMMENT 'Database holding the school''s tables',
+    `username` varchar(64) DEFAULT NULL COMMENT 'Defaults to spring.datasource.username',
+    `password` varchar(128) DEFAULT NULL COMMENT 'Defaults to spring.datasource.password',
+    `enabled` tinyint(1) NOT NULL DEFAULT '1',
+    PRIMARY KEY (`tenant_id`)
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
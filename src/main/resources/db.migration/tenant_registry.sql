@@ -0,0 +1,20 @@
+-- Adds the school registry to an existing default database (new databases get it from table_init.sql)
+CREATE TABLE IF NOT EXISTS `tenant` (
+    `tenant_id` varchar(20) NOT NULL COMMENT 'Lowercase school key, also the prefix of its tokens',
+    `updated_at` timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    `name` varchar(128) NOT NULL COMMENT 'School display name',
+    `jdbc_url` varchar(255) NOT NULL COMMENT 'Database holding the school''s tables',
+    `username` varchar(64) DEFAULT NULL COMMENT 'Defaults to spring.datasource.username',
+    `password` varchar(128) DEFAULT NULL COMMENT 'Defaults to spring.datasource.password',
+    `enabled` tinyint(1) NOT NULL DEFAULT '1',
+    PRIMARY KEY (`tenant_id`)
+  ) ENGINE = InnoDB DEFAULT CHARSET = utf8mb4 COLLATE = utf8mb4_0900_ai_ci;
+
+-- Onboarding a school, without restarting any node:
+--   1. CREATE DATABASE `timebank_northside`; then run table_init.sql in it.
+--   2. Register it in the default database:
+--      INSERT INTO `tenant` (`tenant_id`, `name`, `jdbc_url`)
+--      VALUES ('northside', 'Northside High School',
+--              'jdbc:mysql://localhost:3306/timebank_northside?useSSL=false&serverTimezone=UTC&rewriteBatchedStatements=true');
+-- Nodes pick the school up within timebank.tenancy.refresh-interval-ms, or on its first login.
+-- Setting `enabled` = 0 stops serving the school and closes its connection pools.
@@ -0,0 +1,94 @@
+package org.hdschools.timebank.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.hdschools.timebank.model.ApiResponse;
+import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.LoginResponse;
+import org.hdschools.timebank.model.StuUpdatePointsResponse;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Compares serialization cost and payload size of {@link ApiResponse} bodies across encodings.
+ * Run with {@code ./gradlew serializationBenchmark}; iteration counts can be passed as arguments.
+ */
+public final class SerializationBenchmark {
+
+	private static final int HISTORY_PAGE_SIZE = 500;
+
+	private SerializationBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		int warmup = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+		int iterations = args.length > 1 ? Integer.parseInt(args[1]) : 50_000;
+
+		ObjectMapper plain = Jackson2ObjectMapperBuilder.json().build();
+		ObjectMapper tuned = Jackson2ObjectMapperBuilder.json().modulesToInstall(new BlackbirdModule()).build();
+		Map<String, ObjectMapper> encodings = new LinkedHashMap<>();
+		encodings.put("json", plain);
+		encodings.put("json+blackbird", tuned);
+		encodings.put("cbor+blackbird", tuned.copyWith(new CBORFactory()));
+		encodings.put("smile+blackbird", tuned.copyWith(new SmileFactory()));
+
+		Map<String, ApiResponse<?>> payloads = new LinkedHashMap<>();
+		payloads.put("LoginResponse", ApiResponse.success("Login successful",
+				new LoginResponse(42L, "s20240042", "student", "q7Xb0m1TQy2m8bZ0tZz3c8v9Wf6Jk1Lr2Ns4Pu5Ov6I")));
+		payloads.put("StuUpdatePointsResponse", ApiResponse.success("Point update request created",
+				new StuUpdatePointsResponse(123456L)));
+		payloads.put("history page (" + HISTORY_PAGE_SIZE + " events)", ApiResponse.success("History", historyPage()));
+
+		System.out.printf("%-30s %-16s %12s %10s%n", "payload", "encoding", "ns/op", "bytes");
+		for (Map.Entry<String, ApiResponse<?>> payload : payloads.entrySet()) {
+			for (Map.Entry<String, ObjectMapper> encoding : encodings.entrySet()) {
+				// Build the writer once per response type, as a cached writer would be in production
+				ObjectMapper mapper = encoding.getValue();
+				JavaType type = mapper.getTypeFactory().constructParametricType(ApiResponse.class,
+						payload.getValue().getData().getClass());
+				ObjectWriter writer = mapper.writerFor(type);
+
+				int size = 0;
+				for (int i = 0; i < warmup; i++) {
+					size = writer.writeValueAsBytes(payload.getValue()).length;
+				}
+				int iterationsForPayload = payload.getKey().startsWith("history") ? iterations / 100 : iterations;
+				long start = System.nanoTime();
+				for (int i = 0; i < iterationsForPayload; i++) {
+					size = writer.writeValueAsBytes(payload.getValue()).length;
+				}
+				long nanosPerOp = (System.nanoTime() - start) / iterationsForPayload;
+				System.out.printf("%-30s %-16s %12d %10d%n", payload.getKey(), encoding.getKey(), nanosPerOp, size);
+			}
+		}
+	}
+
+	private static List<Event> historyPage() {
+		List<Event> events = new ArrayList<>(HISTORY_PAGE_SIZE);
+		Instant start = Instant.parse("2025-09-01T08:00:00Z");
+		for (int i = 0; i < HISTORY_PAGE_SIZE; i++) {
+			boolean decision = i % 2 == 1;
+			events.add(Event.builder()
+					.id(100_000L + i)
+					.createdAt(start.plusSeconds(3_600L * i))
+					.initStuId(decision ? null : 4_042L)
+					.initStaId(decision ? 107L : null)
+					.recvStuId(decision ? 4_042L : null)
+					.pointDiff(i % 7)
+					.creditDiff(-(i % 3))
+					.type(decision ? EventType.ACCEPTED : EventType.PENDING)
+					.contentHtml(decision ? null : "<p>Volunteered at the library for " + (i % 5 + 1) + " hours</p>")
+					.build());
+		}
+		return events;
+	}
+}
@@ -0,0 +1,191 @@
+package org.hdschools.timebank.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares the blocking {@code /stu} and R2DBC {@code /rx/stu} request paths under many concurrent clients.
+ * <p>
+ * Each client repeatedly submits a point request, or reads its details, and waits for the response before
+ * sending the next one. Reports throughput and latency percentiles per path, and the peak number of
+ * database connections while the path was under load when a JDBC URL is given.
+ * <p>
+ * Run against a server started with {@code timebank.reactive.enabled=true} and
+ * {@code timebank.rate-limit.enabled=false}:
+ * {@code ./gradlew submissionPathBenchmark --args="http://localhost:8080 tokens.txt 5000 20 jdbc:mysql://... user pass"}.
+ * The tokens file holds one student bearer token per line; clients take turns using them.
+ */
+public final class SubmissionPathBenchmark {
+
+	private static final String SUBMISSION_BODY = "{\"pointChange\":1,\"contentHtml\":\"<p>benchmark</p>\"}";
+
+	private SubmissionPathBenchmark() {
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("usage: <base-url> <tokens-file> [clients] [requests-per-client] "
+					+ "[jdbc-url user password]");
+			System.exit(2);
+		}
+		String baseUrl = args[0];
+		List<String> tokens = Files.readAllLines(Path.of(args[1])).stream().filter(line -> !line.isBlank()).toList();
+		int clients = args.length > 2 ? Integer.parseInt(args[2]) : 5000;
+		int requestsPerClient = args.length > 3 ? Integer.parseInt(args[3]) : 20;
+		String[] jdbc = args.length > 6 ? Arrays.copyOfRange(args, 4, 7) : null;
+
+		HttpClient httpClient = HttpClient.newBuilder()
+				.version(HttpClient.Version.HTTP_1_1)
+				.connectTimeout(Duration.ofSeconds(30))
+				.build();
+
+		System.out.printf("%-10s %-22s %9s %7s %10s %9s %9s %9s %8s%n",
+				"path", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "db conns");
+		for (String endpoint : List.of("updatePointsRequest", "details")) {
+			for (String prefix : List.of("/stu", "/rx/stu")) {
+				// Warm up connections and JIT on a tenth of the load before measuring
+				run(httpClient, baseUrl + prefix + "/" + endpoint, tokens, clients, Math.max(1, requestsPerClient / 10),
+						null);
+				run(httpClient, baseUrl + prefix + "/" + endpoint, tokens, clients, requestsPerClient, jdbc)
+						.print(prefix, endpoint);
+			}
+		}
+	}
+
+	private static Result run(HttpClient httpClient, String url, List<String> tokens, int clients,
+							  int requestsPerClient, String[] jdbc) throws Exception {
+		long[] latencies = new long[clients * requestsPerClient];
+		AtomicInteger recorded = new AtomicInteger();
+		AtomicInteger errors = new AtomicInteger();
+		ConnectionSampler sampler = jdbc != null ? ConnectionSampler.start(jdbc) : null;
+
+		long start = System.nanoTime();
+		CompletableFuture<?>[] running = new CompletableFuture<?>[clients];
+		for (int i = 0; i < clients; i++) {
+			HttpRequest request = request(url, tokens.get(i % tokens.size()));
+			running[i] = client(httpClient, request, requestsPerClient, latencies, recorded, errors);
+		}
+		CompletableFuture.allOf(running).join();
+		long elapsed = System.nanoTime() - start;
+
+		int peakConnections = sampler != null ? sampler.stop() : -1;
+		int count = recorded.get();
+		long[] sorted = Arrays.copyOf(latencies, count);
+		Arrays.sort(sorted);
+		return new Result(count, errors.get(), count * 1e9 / elapsed,
+				percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), peakConnections);
+	}
+
+	/**
+	 * Sends one client's requests back to back, each after the previous response arrived.
+	 */
+	private static CompletableFuture<Void> client(HttpClient httpClient, HttpRequest request, int remaining,
+												  long[] latencies, AtomicInteger recorded, AtomicInteger errors) {
+		if (remaining == 0) {
+			return CompletableFuture.completedFuture(null);
+		}
+		long sent = System.nanoTime();
+		return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+				.handle((response, failure) -> {
+					latencies[recorded.getAndIncrement()] = System.nanoTime() - sent;
+					if (failure != null || response.statusCode() != 200
+							|| !response.body().contains("\"status\":\"success\"")) {
+						errors.incrementAndGet();
+					}
+					return null;
+				})
+				.thenCompose(ignored -> client(httpClient, request, remaining - 1, latencies, recorded, errors));
+	}
+
+	private static HttpRequest request(String url, String token) {
+		HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url))
+				.timeout(Duration.ofMinutes(2))
+				.header("Authorization", "Bearer " + token)
+				.header("Accept", "application/json");
+		if (url.endsWith("/updatePointsRequest")) {
+			builder.header("Content-Type", "application/json")
+					.POST(HttpRequest.BodyPublishers.ofString(SUBMISSION_BODY));
+		} else {
+			builder.GET();
+		}
+		return builder.build();
+	}
+
+	private static double percentile(long[] sorted, double quantile) {
+		if (sorted.length == 0) {
+			return 0;
+		}
+		return sorted[Math.min(sorted.length - 1, (int) Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+	}
+
+	private record Result(int requests, int errors, double throughput, double p50, double p95, double p99,
+						  int peakConnections) {
+
+		void print(String prefix, String endpoint) {
+			System.out.printf("%-10s %-22s %9d %7d %10.0f %9.1f %9.1f %9.1f %8s%n", prefix, endpoint, requests,
+					errors, throughput, p50, p95, p99, peakConnections >= 0 ? peakConnections : "-");
+		}
+	}
+
+	/**
+	 * Polls the server's connection count on a connection of its own, which is excluded from the peak.
+	 */
+	private static final class ConnectionSampler implements Runnable {
+
+		private final Connection connection;
+		private final AtomicLong peak = new AtomicLong();
+		private final Thread thread;
+		private volatile boolean running = true;
+
+		private ConnectionSampler(Connection connection) {
+			this.connection = connection;
+			this.thread = new Thread(this, "connection-sampler");
+			this.thread.setDaemon(true);
+		}
+
+		static ConnectionSampler start(String[] jdbc) throws Exception {
+			ConnectionSampler sampler = new ConnectionSampler(DriverManager.getConnection(jdbc[0], jdbc[1], jdbc[2]));
+			sampler.thread.start();
+			return sampler;
+		}
+
+		@Override
+		public void run() {
+			try (Statement statement = connection.createStatement()) {
+				while (running) {
+					try (ResultSet resultSet = statement.executeQuery(
+							"SELECT COUNT(*) - 1 FROM information_schema.PROCESSLIST WHERE DB = DATABASE()")) {
+						resultSet.next();
+						peak.accumulateAndGet(resultSet.getLong(1), Math::max);
+					}
+					Thread.sleep(100);
+				}
+			} catch (Exception e) {
+				if (running) {
+					System.err.println("Stopped sampling connections: " + e);
+				}
+			}
+		}
+
+		int stop() throws Exception {
+			running = false;
+			thread.join();
+			connection.close();
+			return (int) peak.get();
+		}
+	}
+}
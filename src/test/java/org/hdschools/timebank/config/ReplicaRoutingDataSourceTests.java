@@ -0,0 +1,90 @@
+package org.hdschools.timebank.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+class ReplicaRoutingDataSourceTests {
+
+	private EmbeddedDatabase primary;
+	private EmbeddedDatabase replica;
+	private ReadYourWritesTracker tracker;
+	private TransactionTemplate readWrite;
+	private TransactionTemplate readOnly;
+	private JdbcTemplate jdbcTemplate;
+	private final TransactionCallback<String> readSource = status -> source();
+
+	@BeforeEach
+	void setUp() {
+		primary = database("primary");
+		replica = database("replica");
+		tracker = new ReadYourWritesTracker(Duration.ofSeconds(5));
+
+		DataSource routing = ReadReplicaDataSourceConfig.routingDataSource(primary, List.of(replica), tracker);
+		DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+		readWrite = new TransactionTemplate(transactionManager);
+		readOnly = new TransactionTemplate(transactionManager);
+		readOnly.setReadOnly(true);
+		jdbcTemplate = new JdbcTemplate(routing);
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+		primary.shutdown();
+		replica.shutdown();
+	}
+
+	@Test
+	void readOnlyTransactionsUseReplica() {
+		assertThat(readOnly.execute(readSource)).isEqualTo("replica");
+	}
+
+	@Test
+	void readWriteTransactionsUsePrimary() {
+		assertThat(readWrite.execute(readSource)).isEqualTo("primary");
+	}
+
+	@Test
+	void recentWriterReadsFromPrimary() {
+		MockHttpServletRequest request = new MockHttpServletRequest();
+		request.setAttribute(AuthenticationInterceptor.USER_TYPE_ATTRIBUTE, "student");
+		request.setAttribute(AuthenticationInterceptor.USER_ID_ATTRIBUTE, 7L);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+		assertThat(readOnly.execute(readSource)).isEqualTo("replica");
+
+		tracker.recordWrite("student", 7L);
+		assertThat(readOnly.execute(readSource)).isEqualTo("primary");
+	}
+
+	private String source() {
+		return jdbcTemplate.queryForObject("SELECT name FROM source", String.class);
+	}
+
+	private static EmbeddedDatabase database(String name) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName(name)
+				.build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE source (name VARCHAR(20))");
+		jdbcTemplate.update("INSERT INTO source (name) VALUES (?)", name);
+		return database;
+	}
+}
@@ -0,0 +1,78 @@
+package org.hdschools.timebank.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+
+class TenantRoutingDataSourceTests {
+
+	private EmbeddedDatabase defaultDatabase;
+	private EmbeddedDatabase northside;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		defaultDatabase = database("default");
+		northside = database("northside");
+		Map<String, EmbeddedDatabase> tenants = Map.of("northside", northside);
+		jdbcTemplate = new JdbcTemplate(new TenantRoutingDataSource(defaultDatabase, tenants::get));
+	}
+
+	@AfterEach
+	void tearDown() {
+		TenantContext.clear();
+		defaultDatabase.shutdown();
+		northside.shutdown();
+	}
+
+	@Test
+	void withoutTenantUsesDefaultDatabase() {
+		assertThat(source()).isEqualTo("default");
+	}
+
+	@Test
+	void tenantUsesItsOwnDatabase() {
+		assertThat(TenantContext.callAs("northside", this::source)).isEqualTo("northside");
+		assertThat(source()).isEqualTo("default");
+	}
+
+	@Test
+	void wrappedTaskKeepsTenantOnAnotherThread() throws InterruptedException {
+		String[] seen = new String[1];
+		Runnable task = TenantContext.callAs("northside",
+				() -> TenantContext.wrap(() -> seen[0] = source()));
+		Thread thread = new Thread(task);
+		thread.start();
+		thread.join();
+
+		assertThat(seen[0]).isEqualTo("northside");
+	}
+
+	@Test
+	void cacheKeysDifferByTenant() {
+		assertThat(TenantContext.key("s1001"))
+				.isNotEqualTo(TenantContext.callAs("northside", () -> TenantContext.key("s1001")));
+	}
+
+	private String source() {
+		return jdbcTemplate.queryForObject("SELECT name FROM source", String.class);
+	}
+
+	private static EmbeddedDatabase database(String name) {
+		EmbeddedDatabase database = new EmbeddedDatabaseBuilder()
+				.setType(EmbeddedDatabaseType.H2)
+				.setName(name)
+				.build();
+		JdbcTemplate jdbcTemplate = new JdbcTemplate(database);
+		jdbcTemplate.execute("CREATE TABLE source (name VARCHAR(20))");
+		jdbcTemplate.update("INSERT INTO source (name) VALUES (?)", name);
+		return database;
+	}
+}
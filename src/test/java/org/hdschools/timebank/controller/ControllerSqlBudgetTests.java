@@ -0,0 +1,304 @@
+package org.hdschools.timebank.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import org.hdschools.timebank.service.SchoolStatisticsRegistry;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.SqlRecorder;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+/**
+ * Guards the number of SQL statements each endpoint issues.
+ * <p>
+ * Authenticating a request costs one statement, the token lookup, since a token refreshed within the
+ * last minute is not written again. Resolving an account's user ID costs one more on its first use.
+ * Budgets include both, so a new query anywhere in the request path fails the test with the full list
+ * of statements.
+ */
+@SqlBudgetTest
+class ControllerSqlBudgetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private SqlRecorder sqlRecorder;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private SchoolStatisticsRegistry schoolStatisticsRegistry;
+
+	private TestFixtures fixtures;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+	}
+
+	@Test
+	void studentLogin() throws Exception {
+		fixtures.student("s1001");
+
+		sqlRecorder.start();
+		mockMvc.perform(post("/stu/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"userId\":\"s1001\",\"password\":\"hash\"}"))
+				.andExpect(jsonPath("$.status").value("success"));
+		// Account lookup, token cleanup and token insert
+		sqlRecorder.assertAtMost(3);
+	}
+
+	@Test
+	void studentDetails() throws Exception {
+		String token = fixtures.token(fixtures.student("s1002"), "student");
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/stu/details").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.status").value("success"));
+		sqlRecorder.assertAtMost(3);
+	}
+
+	@Test
+	void notModifiedStudentDetailsCostOnlyAuthentication() throws Exception {
+		String token = fixtures.token(fixtures.student("s1003"), "student");
+		String etag = mockMvc.perform(get("/stu/details").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertThat(etag).isNotNull();
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/stu/details")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+						.header(HttpHeaders.IF_NONE_MATCH, etag))
+				.andExpect(status().isNotModified());
+		sqlRecorder.assertAtMost(1);
+	}
+
+	@Test
+	void studentHistory() throws Exception {
+		String token = fixtures.token(fixtures.student("s1004"), "student");
+		for (int i = 0; i < 30; i++) {
+			fixtures.pendingRequest("s1004", i);
+		}
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/stu/history").param("size", "20").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.data.length()").value(20));
+		sqlRecorder.assertAtMost(3);
+	}
+
+	@Test
+	void leaderboardPosition() throws Exception {
+		String token = fixtures.token(fixtures.student("s1005"), "student");
+		for (int i = 0; i < 10; i++) {
+			fixtures.student("s2" + i);
+		}
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/stu/leaderboard/position").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.data.students").value(11));
+		sqlRecorder.assertAtMost(5);
+	}
+
+	@Test
+	void createUpdatePointsRequest() throws Exception {
+		String token = fixtures.token(fixtures.student("s1006"), "student");
+
+		sqlRecorder.start();
+		mockMvc.perform(post("/stu/updatePointsRequest")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"pointChange\":5,\"contentHtml\":\"<p>Library</p>\"}"))
+				.andExpect(jsonPath("$.status").value("success"));
+		// Token and student lookups, event insert, details read and update, two outbox records
+		sqlRecorder.assertAtMost(7);
+	}
+
+	@Test
+	void validatePointsRequest() throws Exception {
+		fixtures.student("s1007");
+		long requestId = fixtures.pendingRequest("s1007", 5);
+		String token = fixtures.token(fixtures.staff("t1007"), "staff");
+
+		sqlRecorder.start();
+		mockMvc.perform(post("/sta/validatePointsRequest")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"requestId\":" + requestId + ",\"pointDiff\":5,\"creditDiff\":1,\"accepted\":true}"))
+				.andExpect(jsonPath("$.status").value("success"));
+		// Token and staff lookups, request read, student user ID lookup, claim check, decision insert,
+		// two outbox records, one statement for all four rollup buckets, details read and update
+		sqlRecorder.assertAtMost(11);
+	}
+
+	@Test
+	void staffLogin() throws Exception {
+		fixtures.staff("t1011");
+
+		sqlRecorder.start();
+		mockMvc.perform(post("/sta/login")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"userId\":\"t1011\",\"password\":\"hash\"}"))
+				.andExpect(jsonPath("$.status").value("success"));
+		// Account lookup, token cleanup and token insert
+		sqlRecorder.assertAtMost(3);
+	}
+
+	@Test
+	void claimCostIsIndependentOfClaimSize() throws Exception {
+		String token = fixtures.token(fixtures.staff("t1012"), "staff");
+		for (int i = 0; i < 5; i++) {
+			fixtures.student("s4" + i);
+			fixtures.pendingRequest("s4" + i, i);
+		}
+
+		sqlRecorder.start();
+		mockMvc.perform(post("/sta/claimPendingRequests")
+						.param("n", "10")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.data.length()").value(5));
+		// Token and staff lookups, row locks, claim update, request read, one lookup for all students
+		sqlRecorder.assertAtMost(6);
+	}
+
+	@Test
+	void exportStreamsFromOneQuery() throws Exception {
+		String token = fixtures.token(fixtures.staff("t1013"), "staff");
+		fixtures.student("s1013");
+		for (int i = 0; i < 20; i++) {
+			fixtures.pendingRequest("s1013", i);
+		}
+
+		sqlRecorder.start("export-");
+		MvcResult started = mockMvc.perform(get("/sta/export").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String csv = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		// Token lookup for the request and again for its async dispatch, and the export query
+		sqlRecorder.assertAtMost(3);
+		assertThat(csv.split("\r\n")).hasSize(21);
+	}
+
+	@Test
+	void pendingRequestStreamCostsOnlyAuthentication() throws Exception {
+		String token = fixtures.token(fixtures.staff("t1014"), "staff");
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/sta/pendingRequests/stream").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(request().asyncStarted());
+		sqlRecorder.assertAtMost(1);
+	}
+
+	@Test
+	void schoolReport() throws Exception {
+		String token = fixtures.token(fixtures.staff("t1008"), "staff");
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/sta/reports/school")
+						.param("from", "2025-09-01")
+						.param("to", "2025-09-30")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.status").value("success"));
+		sqlRecorder.assertAtMost(2);
+	}
+
+	@Test
+	void studentReport() throws Exception {
+		String token = fixtures.token(fixtures.staff("t1015"), "staff");
+		fixtures.student("s1015");
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/sta/reports/students/s1015")
+						.param("from", "2025-09-01")
+						.param("to", "2025-09-30")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.status").value("success"));
+		sqlRecorder.assertAtMost(2);
+	}
+
+	@Test
+	void balanceAtLoadsHistoryOnce() throws Exception {
+		String token = fixtures.token(fixtures.staff("t1016"), "staff");
+		fixtures.student("s1016");
+		for (int i = 0; i < 10; i++) {
+			fixtures.acceptedDecision("s1016", "t1016", 2, 1);
+		}
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/sta/students/s1016/balanceAt")
+						.param("ts", "2999-01-01T00:00:00Z")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.data.acceptedDecisions").value(10));
+		sqlRecorder.assertAtMost(2);
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/sta/students/s1016/balanceAt")
+						.param("ts", "2999-01-01T00:00:00Z")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.data.accumulatedPoints").value(20));
+		sqlRecorder.assertAtMost(1);
+	}
+
+	@Test
+	void searchCostsOnlyAuthentication() throws Exception {
+		String token = fixtures.token(fixtures.staff("t1017"), "staff");
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/sta/search")
+						.param("q", "library")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.status").value("success"));
+		sqlRecorder.assertAtMost(1);
+	}
+
+	@Test
+	void schoolStatisticsCostOnlyAuthentication() throws Exception {
+		String token = fixtures.token(fixtures.staff("t1010"), "staff");
+		fixtures.student("s1010");
+		fixtures.pendingRequest("s1010", 5);
+		schoolStatisticsRegistry.reconcileAll();
+
+		sqlRecorder.start();
+		mockMvc.perform(get("/sta/stats").header(HttpHeaders.AUTHORIZATION, "Bearer " + token))
+				.andExpect(jsonPath("$.data.pendingRequests").value(1))
+				.andExpect(jsonPath("$.data.activeStudentsToday").value(1));
+		sqlRecorder.assertAtMost(1);
+	}
+
+	@Test
+	void userImportCostsAFixedNumberOfStatementsPerChunk() throws Exception {
+		String token = fixtures.token(fixtures.staff("t1009"), "staff");
+		StringBuilder csv = new StringBuilder("user_id,password\n");
+		for (int i = 0; i < 200; i++) {
+			csv.append("s3").append(i).append(",hash\n");
+		}
+
+		sqlRecorder.start();
+		mockMvc.perform(post("/sta/users/import")
+						.param("type", "student")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+						.contentType("text/csv")
+						.content(csv.toString()))
+				.andExpect(jsonPath("$.data.inserted").value(200));
+		// Token lookup, then one lookup, two batches and the outbox record for the single chunk
+		sqlRecorder.assertAtMost(5);
+	}
+}
@@ -0,0 +1,110 @@
+package org.hdschools.timebank.controller;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.SqlRecorder;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+/**
+ * Guards the number of SQL statements each {@code /rx/stu} endpoint issues over R2DBC.
+ * <p>
+ * The reactive pool connects through {@code RecordingConnectionFactoryProvider}, so its statements are
+ * recorded alongside JDBC ones. Authenticating costs two statements: the token lookup with its
+ * student, and the expiry refresh.
+ */
+@SqlBudgetTest
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:timebank_rxb;MODE=MySQL;DATABASE_TO_UPPER=FALSE;"
+				+ "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+		"timebank.reactive.enabled=true",
+		"timebank.reactive.url=r2dbc:recording:h2:mem:///timebank_rxb?options=MODE=MySQL;DATABASE_TO_UPPER=FALSE;"
+				+ "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1"
+})
+class ReactiveSqlBudgetTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private SqlRecorder sqlRecorder;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestFixtures fixtures;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+	}
+
+	@Test
+	void createUpdatePointsRequest() throws Exception {
+		String token = fixtures.token(fixtures.student("rxb1"), "student");
+
+		sqlRecorder.start();
+		perform(post("/rx/stu/updatePointsRequest")
+				.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+				.contentType(MediaType.APPLICATION_JSON)
+				.content("{\"pointChange\":5,\"contentHtml\":\"<p>Library</p>\"}"), "$.status", "success");
+		// Token lookup and refresh, event insert, details upsert and read, two outbox records
+		sqlRecorder.assertAtMost(7);
+	}
+
+	@Test
+	void studentDetails() throws Exception {
+		String token = fixtures.token(fixtures.student("rxb2"), "student");
+
+		sqlRecorder.start();
+		perform(get("/rx/stu/details").header(HttpHeaders.AUTHORIZATION, "Bearer " + token),
+				"$.data.accumulatedPoints", 0);
+		sqlRecorder.assertAtMost(3);
+	}
+
+	@Test
+	void history() throws Exception {
+		String token = fixtures.token(fixtures.student("rxb3"), "student");
+		for (int i = 0; i < 30; i++) {
+			fixtures.pendingRequest("rxb3", i);
+		}
+
+		sqlRecorder.start();
+		perform(get("/rx/stu/history").param("size", "20").header(HttpHeaders.AUTHORIZATION, "Bearer " + token),
+				"$.data.length()", 20);
+		sqlRecorder.assertAtMost(3);
+	}
+
+	@Test
+	void leaderboardPosition() throws Exception {
+		String token = fixtures.token(fixtures.student("rxb4"), "student");
+		for (int i = 0; i < 10; i++) {
+			fixtures.student("rxb4" + i);
+		}
+
+		sqlRecorder.start();
+		perform(get("/rx/stu/leaderboard/position").header(HttpHeaders.AUTHORIZATION, "Bearer " + token),
+				"$.data.students", 11);
+		sqlRecorder.assertAtMost(4);
+	}
+
+	private void perform(MockHttpServletRequestBuilder builder, String path, Object expected) throws Exception {
+		MvcResult started = mockMvc.perform(builder).andExpect(request().asyncStarted()).andReturn();
+		mockMvc.perform(asyncDispatch(started)).andExpect(jsonPath(path).value(expected));
+	}
+}
@@ -0,0 +1,143 @@
+package org.hdschools.timebank.jfr;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedThread;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Summarizes a flight recording into per-endpoint latency breakdowns: how much of each request was
+ * spent in the database, in token validation, and elsewhere, plus the recalculation phases.
+ * Token validations are attributed to the request running on the same thread at the time.
+ * Run with {@code ./gradlew jfrSummary -Precording=timebank.jfr}.
+ */
+public final class RecordingSummary {
+
+	private static final String INVOCATION = "timebank.ControllerInvocation";
+	private static final String TOKEN_VALIDATION = "timebank.TokenValidation";
+	private static final String RECALCULATION_PHASE = "timebank.RecalculationPhase";
+
+	private RecordingSummary() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 1) {
+			System.err.println("Usage: RecordingSummary <recording.jfr>");
+			System.exit(2);
+		}
+
+		List<RecordedEvent> invocations = new ArrayList<>();
+		Map<Long, List<RecordedEvent>> tokenValidationsByThread = new HashMap<>();
+		Map<String, long[]> phases = new TreeMap<>();
+		for (RecordedEvent event : RecordingFile.readAllEvents(Path.of(args[0]))) {
+			switch (event.getEventType().getName()) {
+				case INVOCATION -> invocations.add(event);
+				case TOKEN_VALIDATION -> tokenValidationsByThread
+						.computeIfAbsent(threadId(event), id -> new ArrayList<>()).add(event);
+				case RECALCULATION_PHASE -> {
+					long[] totals = phases.computeIfAbsent(event.getString("phase"), phase -> new long[3]);
+					totals[0]++;
+					totals[1] += event.getDuration().toNanos();
+					totals[2] += event.getLong("rows");
+				}
+				default -> {
+				}
+			}
+		}
+		tokenValidationsByThread.values().forEach(events -> events.sort(Comparator.comparing(RecordedEvent::getStartTime)));
+
+		Map<String, EndpointStats> endpoints = new TreeMap<>();
+		for (RecordedEvent invocation : invocations) {
+			String key = invocation.getString("method") + " " + invocation.getString("endpoint");
+			long total = invocation.getDuration().toNanos();
+			long db = invocation.getLong("dbTime");
+			long token = tokenTimeWithin(invocation, tokenValidationsByThread.get(threadId(invocation)));
+			endpoints.computeIfAbsent(key, k -> new EndpointStats())
+					.add(total, db, token, !"success".equals(invocation.getString("outcome")));
+		}
+
+		System.out.printf("%-48s %7s %6s %9s %9s %9s %9s %9s %9s%n",
+				"endpoint", "count", "errors", "p50 ms", "p95 ms", "p99 ms", "db ms", "token ms", "other ms");
+		endpoints.forEach((endpoint, stats) -> stats.print(endpoint));
+
+		if (!phases.isEmpty()) {
+			System.out.printf("%n%-48s %7s %12s %12s%n", "recalculation phase", "runs", "total ms", "rows");
+			phases.forEach((phase, totals) -> System.out.printf("%-48s %7d %12.1f %12d%n",
+					phase, totals[0], millis(totals[1]), totals[2]));
+		}
+	}
+
+	private static long tokenTimeWithin(RecordedEvent invocation, List<RecordedEvent> tokenValidations) {
+		if (tokenValidations == null) {
+			return 0;
+		}
+		// First token validation starting at or after the invocation
+		int low = 0;
+		int high = tokenValidations.size();
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (tokenValidations.get(mid).getStartTime().isBefore(invocation.getStartTime())) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		long nanos = 0;
+		for (int i = low; i < tokenValidations.size(); i++) {
+			RecordedEvent validation = tokenValidations.get(i);
+			if (validation.getStartTime().isAfter(invocation.getEndTime())) {
+				break;
+			}
+			nanos += validation.getDuration().toNanos();
+		}
+		return nanos;
+	}
+
+	private static long threadId(RecordedEvent event) {
+		RecordedThread thread = event.getThread();
+		return thread != null ? thread.getJavaThreadId() : -1;
+	}
+
+	private static double millis(long nanos) {
+		return nanos / (double) Duration.ofMillis(1).toNanos();
+	}
+
+	private static final class EndpointStats {
+		private final List<Long> totals = new ArrayList<>();
+		private long dbNanos;
+		private long tokenNanos;
+		private long otherNanos;
+		private int errors;
+
+		void add(long total, long db, long token, boolean error) {
+			totals.add(total);
+			dbNanos += db;
+			tokenNanos += token;
+			otherNanos += Math.max(0, total - db - token);
+			if (error) {
+				errors++;
+			}
+		}
+
+		void print(String endpoint) {
+			totals.sort(null);
+			int count = totals.size();
+			System.out.printf("%-48s %7d %6d %9.2f %9.2f %9.2f %9.2f %9.2f %9.2f%n",
+					endpoint, count, errors,
+					millis(percentile(0.50)), millis(percentile(0.95)), millis(percentile(0.99)),
+					millis(dbNanos / count), millis(tokenNanos / count), millis(otherNanos / count));
+		}
+
+		private long percentile(double p) {
+			return totals.get(Math.min(totals.size() - 1, (int) Math.ceil(p * totals.size()) - 1));
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package org.hdschools.timebank.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import org.hdschools.timebank.model.BalanceAtResponse;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.model.StuDetails;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks that decisions delivered out of id order or more than once extend a loaded history exactly
+ * once each, placed by the decision's own time.
+ */
+@SqlBudgetTest
+class BalanceHistoryIndexTests {
+
+	private static final Instant NINE = Instant.parse("2026-03-02T09:00:00Z");
+	private static final Instant TEN = Instant.parse("2026-03-02T10:00:00Z");
+
+	@Autowired
+	private BalanceHistoryIndex balanceHistoryIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		TestFixtures fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+		fixtures.student("bh1");
+	}
+
+	@Test
+	void outOfOrderAndRepeatedDeliveriesCountOnce() {
+		assertThat(balanceHistoryIndex.balanceAt("bh1", TEN).getAcceptedDecisions()).isZero();
+		long earlierId = decision("bh1", TEN, 3, 1);
+		long laterId = decision("bh1", NINE, 5, 0);
+
+		balanceHistoryIndex.onRecord(accepted(laterId, "bh1", 5, 0));
+		balanceHistoryIndex.onRecord(accepted(earlierId, "bh1", 3, 1));
+		balanceHistoryIndex.onRecord(accepted(laterId, "bh1", 5, 0));
+
+		BalanceAtResponse beforeTen = balanceHistoryIndex.balanceAt("bh1", NINE.plusSeconds(1800));
+		assertThat(beforeTen.getAcceptedDecisions()).isEqualTo(1);
+		assertThat(beforeTen.getAccumulatedPoints()).isEqualTo(5);
+
+		BalanceAtResponse afterTen = balanceHistoryIndex.balanceAt("bh1", TEN.plusSeconds(1800));
+		assertThat(afterTen.getAcceptedDecisions()).isEqualTo(2);
+		assertThat(afterTen.getAccumulatedPoints()).isEqualTo(8);
+		assertThat(afterTen.getAccumulatedCredits()).isEqualTo(StuDetails.INITIAL_CREDITS + 1);
+	}
+
+	private long decision(String studentUserId, Instant createdAt, int pointDiff, int creditDiff) {
+		jdbcTemplate.update("INSERT INTO event (recv_stu_id, point_diff, credit_diff, type, created_at) "
+				+ "VALUES ((SELECT id FROM stu_user WHERE user_id = ?), ?, ?, ?, ?)",
+				studentUserId, pointDiff, creditDiff, EventType.ACCEPTED_CODE, Timestamp.from(createdAt));
+		return jdbcTemplate.queryForObject("SELECT MAX(id) FROM event", Long.class);
+	}
+
+	private OutboxRecord accepted(long eventId, String studentUserId, int pointDiff, int creditDiff) {
+		return OutboxRecord.builder()
+				.aggregateType(OutboxRecord.AGGREGATE_EVENT)
+				.aggregateId(String.valueOf(eventId))
+				.changeType(EventType.ACCEPTED.getValue())
+				.payload("{\"eventId\":" + eventId + ",\"studentUserId\":\"" + studentUserId
+						+ "\",\"pointDiff\":" + pointDiff + ",\"creditDiff\":" + creditDiff + "}")
+				.build();
+	}
+}
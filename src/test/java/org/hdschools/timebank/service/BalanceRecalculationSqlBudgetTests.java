@@ -0,0 +1,98 @@
+package org.hdschools.timebank.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.hdschools.timebank.model.StuDetails;
+import org.hdschools.timebank.model.StudentRecomputeResponse;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.SqlRecorder;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Guards the recalculation against per-student queries: reading totals and details must cost
+ * a constant number of statements, with writes only for the details that change. Recomputing a
+ * single student must cost one aggregate query however much history they have.
+ */
+@SqlBudgetTest
+class BalanceRecalculationSqlBudgetTests {
+
+	private static final int STUDENTS = 25;
+
+	@Autowired
+	private BalanceRecalculationService balanceRecalculationService;
+
+	@Autowired
+	private PointRequestService pointRequestService;
+
+	@Autowired
+	private SqlRecorder sqlRecorder;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		TestFixtures fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+		for (int i = 0; i < STUDENTS; i++) {
+			String userId = "s4" + i;
+			fixtures.student(userId);
+			fixtures.pendingRequest(userId, 3);
+			fixtures.acceptedDecision(userId, "t4000", 3, 1);
+		}
+	}
+
+	@Test
+	void recalculationReadsInConstantStatementsAndWritesOnlyChanges() {
+		sqlRecorder.start();
+		balanceRecalculationService.recalculateAllBalances();
+		// Totals and details reads, then one update and one outbox record per changed student
+		sqlRecorder.assertAtMost(2 + 2 * STUDENTS);
+
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT accumulated_points FROM stu_details WHERE user_id = 's40'", Integer.class)).isEqualTo(3);
+
+		sqlRecorder.start();
+		balanceRecalculationService.recalculateAllBalances();
+		sqlRecorder.assertAtMost(2);
+	}
+
+	@Test
+	void singleStudentRecomputeUsesOneAggregateAndReportsDrift() {
+		sqlRecorder.start();
+		StudentRecomputeResponse result = balanceRecalculationService.recalculateStudent("s40");
+		// Details read and the aggregate, then the update and its outbox record
+		sqlRecorder.assertAtMost(4);
+
+		assertThat(result.isUpdated()).isTrue();
+		assertThat(result.getDrift()).containsEntry("accumulatedPoints", 3).containsEntry("requestsMade", 1);
+		assertThat(result.getRecomputed().getAccumulatedCredits()).isEqualTo(StuDetails.INITIAL_CREDITS + 1);
+
+		sqlRecorder.start();
+		StudentRecomputeResponse again = balanceRecalculationService.checkStudent("s40");
+		sqlRecorder.assertAtMost(2);
+		assertThat(again.getDrift()).isEmpty();
+		assertThat(again.isUpdated()).isFalse();
+	}
+
+	@Test
+	void detailsCreatedByWritePathsStartAtTheRecomputedBalance() {
+		pointRequestService.createPendingRequest(new PointRequestService.Submission(
+				account("s50"), "s50", 2, "<p>Litter pick</p>", null));
+		pointRequestService.createPendingRequests(List.of(new PointRequestService.Submission(
+				account("s51"), "s51", 2, "<p>Litter pick</p>", null)));
+
+		assertThat(balanceRecalculationService.checkStudent("s50").getDrift()).isEmpty();
+		assertThat(balanceRecalculationService.checkStudent("s51").getDrift()).isEmpty();
+	}
+
+	private long account(String userId) {
+		jdbcTemplate.update("INSERT INTO stu_user (user_id, password) VALUES (?, 'hash')", userId);
+		return jdbcTemplate.queryForObject("SELECT id FROM stu_user WHERE user_id = ?", Long.class, userId);
+	}
+}
@@ -0,0 +1,53 @@
+package org.hdschools.timebank.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks that archival moves old decided history out of the live table but leaves requests that still
+ * await a decision where staff can claim and decide them.
+ */
+@SqlBudgetTest
+class EventArchiveServiceTests {
+
+	private static final Instant OLD = Instant.parse("2020-01-01T00:00:00Z");
+	private static final Instant CUTOFF = Instant.parse("2021-01-01T00:00:00Z");
+
+	@Autowired
+	private EventArchiveService eventArchiveService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestFixtures fixtures;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+		fixtures.student("ea1");
+	}
+
+	@Test
+	void openRequestsOlderThanTheCutoffStayLive() {
+		long open = fixtures.pendingRequest("ea1", 3);
+		long decided = fixtures.pendingRequest("ea1", 2);
+		fixtures.acceptedDecision("ea1", "t1", 2, 0);
+		jdbcTemplate.update("UPDATE event SET created_at = ?", Timestamp.from(OLD));
+		jdbcTemplate.update("UPDATE event SET decided_at = ? WHERE id = ?", Timestamp.from(OLD), decided);
+
+		assertThat(eventArchiveService.archiveOlderThan(CUTOFF)).isEqualTo(2);
+
+		assertThat(jdbcTemplate.queryForList("SELECT id FROM event", Long.class)).containsExactly(open);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM event_archive", Long.class)).isEqualTo(2);
+		assertThat(eventArchiveService.archiveOlderThan(CUTOFF)).isZero();
+	}
+}
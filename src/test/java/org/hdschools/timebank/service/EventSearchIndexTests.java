@@ -0,0 +1,83 @@
+package org.hdschools.timebank.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import org.hdschools.timebank.model.EventSearchHit;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks that event content is searchable after a rebuild and after an outbox delivery, with markup
+ * stripped and filters applied.
+ */
+@SqlBudgetTest
+class EventSearchIndexTests {
+
+	@Autowired
+	private EventSearchIndex eventSearchIndex;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		TestFixtures fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+		fixtures.student("ft1");
+		fixtures.student("ft2");
+	}
+
+	@Test
+	void rebuildIndexesStrippedContentWithFilters() {
+		long request = event("ft1", EventType.PENDING_CODE, "<p>Helped at the <strong>beach</strong> cleanup</p>");
+		long decision = event("ft1", EventType.ACCEPTED_CODE, "Great work on the beach cleanups!");
+		event("ft2", EventType.PENDING_CODE, "<p>Sorted books in the library</p>");
+
+		assertThat(eventSearchIndex.rebuild().orElseThrow().join()).isEqualTo(3);
+
+		assertThat(eventSearchIndex.search("beach cleanup", null, null, null, null, 10))
+				.extracting(EventSearchHit::getEventId)
+				.containsExactlyInAnyOrder(request, decision);
+		assertThat(eventSearchIndex.search("beach", EventType.PENDING, null, null, null, 10))
+				.extracting(EventSearchHit::getEventId)
+				.containsExactly(request);
+		assertThat(eventSearchIndex.search("library", null, "ft1", null, null, 10)).isEmpty();
+		assertThat(eventSearchIndex.search("strong", null, null, null, null, 10)).isEmpty();
+
+		LocalDate today = LocalDate.now(ZoneOffset.UTC);
+		assertThat(eventSearchIndex.search("library", null, null, today, today, 10)).hasSize(1);
+		assertThat(eventSearchIndex.search("library", null, null, today.plusDays(1), null, 10)).isEmpty();
+	}
+
+	@Test
+	void outboxRecordMakesNewEventSearchable() {
+		eventSearchIndex.rebuild().orElseThrow().join();
+		long request = event("ft2", EventType.PENDING_CODE, "<p>Shelved returns at the town library</p>");
+
+		eventSearchIndex.onRecord(OutboxRecord.builder()
+				.aggregateType(OutboxRecord.AGGREGATE_EVENT)
+				.aggregateId(String.valueOf(request))
+				.changeType(EventType.PENDING.getValue())
+				.build());
+		eventSearchIndex.refreshAll();
+
+		assertThat(eventSearchIndex.search("shelved library", null, "ft2", null, null, 10))
+				.extracting(EventSearchHit::getEventId)
+				.containsExactly(request);
+	}
+
+	private long event(String studentUserId, int type, String contentHtml) {
+		String studentColumn = type == EventType.PENDING_CODE ? "init_stu_id" : "recv_stu_id";
+		jdbcTemplate.update("INSERT INTO event (" + studentColumn + ", point_diff, credit_diff, type, content_html) "
+				+ "VALUES ((SELECT id FROM stu_user WHERE user_id = ?), 2, 0, ?, ?)", studentUserId, type, contentHtml);
+		return jdbcTemplate.queryForObject("SELECT MAX(id) FROM event", Long.class);
+	}
+}
@@ -0,0 +1,100 @@
+package org.hdschools.timebank.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import org.hdschools.timebank.config.NodeIdentity;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Checks that records committing after higher ids are still delivered, and that the persisted cursor
+ * stays below them until they are.
+ */
+@SqlBudgetTest
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:timebank_outbox;MODE=MySQL;DATABASE_TO_UPPER=FALSE;"
+				+ "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+		"timebank.outbox.poll-interval-ms=3600000"
+})
+@Import(OutboxTailerTests.RecordingListener.class)
+class OutboxTailerTests {
+
+	@Autowired
+	private OutboxTailer outboxTailer;
+
+	@Autowired
+	private RecordingListener recordingListener;
+
+	@Autowired
+	private NodeIdentity nodeIdentity;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		new TestFixtures(jdbcTemplate).clear();
+		outboxTailer.poll();
+		recordingListener.ids.clear();
+	}
+
+	@Test
+	void lateCommittedRecordIsDeliveredAfterHigherIds() {
+		long first = record();
+		long late = record();
+		long last = record();
+		// Not yet visible: its transaction commits after the others
+		jdbcTemplate.update("DELETE FROM outbox WHERE id = ?", late);
+
+		outboxTailer.poll();
+		assertThat(recordingListener.ids).containsExactly(first, last);
+		assertThat(cursor()).isEqualTo(first);
+
+		jdbcTemplate.update("INSERT INTO outbox (id, origin_node, aggregate_type, aggregate_id, change_type) "
+				+ "VALUES (?, 'test', 'test', 'late', 'updated')", late);
+		outboxTailer.poll();
+		assertThat(recordingListener.ids).containsExactly(first, last, late);
+		assertThat(cursor()).isEqualTo(last);
+
+		outboxTailer.poll();
+		assertThat(recordingListener.ids).hasSize(3);
+	}
+
+	@Test
+	void cursorIsKeyedByStableName() {
+		record();
+		outboxTailer.poll();
+
+		assertThat(jdbcTemplate.queryForList("SELECT consumer FROM outbox_cursor", String.class))
+				.containsExactly(nodeIdentity.getStableName());
+	}
+
+	private long record() {
+		jdbcTemplate.update("INSERT INTO outbox (origin_node, aggregate_type, aggregate_id, change_type) "
+				+ "VALUES ('test', 'test', 'record', 'updated')");
+		return jdbcTemplate.queryForObject("SELECT MAX(id) FROM outbox", Long.class);
+	}
+
+	private long cursor() {
+		return jdbcTemplate.queryForObject("SELECT last_id FROM outbox_cursor WHERE consumer = ?", Long.class,
+				nodeIdentity.getStableName());
+	}
+
+	static class RecordingListener implements OutboxListener {
+		final List<Long> ids = new CopyOnWriteArrayList<>();
+
+		@Override
+		public void onRecord(OutboxRecord record) {
+			ids.add(record.getId());
+		}
+	}
+}
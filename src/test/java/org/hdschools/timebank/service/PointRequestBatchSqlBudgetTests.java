@@ -0,0 +1,67 @@
+package org.hdschools.timebank.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.SqlRecorder;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Guards the group-commit path: a batch of submissions must insert its events and bump each
+ * student's counter with one statement each, however many submissions it holds.
+ */
+@SqlBudgetTest
+class PointRequestBatchSqlBudgetTests {
+
+	private static final int STUDENTS = 8;
+	private static final int REQUESTS_PER_STUDENT = 5;
+
+	@Autowired
+	private PointRequestService pointRequestService;
+
+	@Autowired
+	private SqlRecorder sqlRecorder;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private final long[] studentKeys = new long[STUDENTS];
+
+	@BeforeEach
+	void setUp() {
+		TestFixtures fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+		for (int i = 0; i < STUDENTS; i++) {
+			studentKeys[i] = fixtures.student("s5" + i);
+		}
+	}
+
+	@Test
+	void batchWritesEventsAndCountersInConstantStatements() {
+		List<PointRequestService.Submission> submissions = new ArrayList<>();
+		for (int n = 0; n < REQUESTS_PER_STUDENT; n++) {
+			for (int i = 0; i < STUDENTS; i++) {
+				submissions.add(new PointRequestService.Submission(studentKeys[i], "s5" + i, 2,
+						"<p>batched</p>", null));
+			}
+		}
+
+		sqlRecorder.start();
+		List<Event> events = pointRequestService.createPendingRequests(submissions);
+		// Event batch, counter batch and details read, then one outbox record per event and per student
+		sqlRecorder.assertAtMost(3 + submissions.size() + STUDENTS);
+
+		assertThat(events).hasSize(submissions.size());
+		assertThat(events).extracting(Event::getId).doesNotHaveDuplicates().doesNotContainNull();
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT requests_made FROM stu_details WHERE user_id = 's50'", Integer.class))
+				.isEqualTo(REQUESTS_PER_STUDENT);
+	}
+}
@@ -0,0 +1,86 @@
+package org.hdschools.timebank.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import org.hdschools.timebank.model.StuHistoryEntry;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Runs the R2DBC request path against its own embedded database, shared with a JDBC pool for
+ * fixtures and assertions: submissions must leave the same rows behind as the blocking path.
+ */
+@SqlBudgetTest
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:timebank_rx;MODE=MySQL;DATABASE_TO_UPPER=FALSE;"
+				+ "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1",
+		"timebank.reactive.enabled=true",
+		"timebank.reactive.url=r2dbc:h2:mem:///timebank_rx?options=MODE=MySQL;DATABASE_TO_UPPER=FALSE;"
+				+ "CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1"
+})
+class ReactiveStudentServiceTests {
+
+	@Autowired
+	private ReactiveStudentService reactiveStudentService;
+
+	@Autowired
+	private ReactiveTokenService reactiveTokenService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private TestFixtures fixtures;
+	private long studentKey;
+
+	@BeforeEach
+	void setUp() {
+		fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+		studentKey = fixtures.student("rx1");
+	}
+
+	@Test
+	void submissionWritesEventCounterAndOutbox() {
+		Long eventId = reactiveStudentService.createPendingRequest(new PointRequestService.Submission(
+				studentKey, "rx1", 3, "<p>reactive</p>", "student:" + studentKey + ":k1")).block();
+
+		assertThat(eventId).isNotNull();
+		assertThat(jdbcTemplate.queryForObject("SELECT point_diff FROM event WHERE id = ?", Integer.class, eventId))
+				.isEqualTo(3);
+		assertThat(jdbcTemplate.queryForObject(
+				"SELECT requests_made FROM stu_details WHERE user_id = 'rx1'", Integer.class))
+				.isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM outbox", Integer.class)).isEqualTo(2);
+		assertThat(reactiveStudentService.findEventId("student:" + studentKey + ":k1").block()).isEqualTo(eventId);
+	}
+
+	@Test
+	void tokenValidationResolvesStudent() {
+		String token = fixtures.token(studentKey, "student");
+
+		ReactiveTokenService.Authenticated authenticated = reactiveTokenService.validateAndRefreshToken(token).block();
+
+		assertThat(authenticated).isNotNull();
+		assertThat(authenticated.userId()).isEqualTo(studentKey);
+		assertThat(authenticated.student()).isEqualTo("rx1");
+		assertThat(reactiveTokenService.validateAndRefreshToken("unknown").block()).isNull();
+		assertThat(reactiveTokenService.validateAndRefreshToken("other-school.token").block()).isNull();
+	}
+
+	@Test
+	void historyIsNewestFirst() {
+		long first = fixtures.pendingRequest("rx1", 1);
+		long second = fixtures.pendingRequest("rx1", 2);
+
+		List<StuHistoryEntry> entries = reactiveStudentService.history(studentKey, 0, 10).collectList().block();
+
+		assertThat(entries).extracting(StuHistoryEntry::getEventId).containsExactly(second, first);
+		assertThat(entries).extracting(StuHistoryEntry::getType).containsOnly("pending");
+	}
+}
@@ -0,0 +1,127 @@
+package org.hdschools.timebank.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import org.hdschools.timebank.config.NodeIdentity;
+import org.hdschools.timebank.model.Event;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.OutboxRecord;
+import org.hdschools.timebank.model.SchoolStatistics;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks that the live statistics count local writes and other nodes' outbox records once each, and
+ * that daily counts follow the UTC day of the write.
+ */
+@SqlBudgetTest
+class SchoolStatisticsRegistryTests {
+
+	private static final String OTHER_NODE = "other-node";
+
+	@Autowired
+	private SchoolStatisticsRegistry schoolStatisticsRegistry;
+
+	@Autowired
+	private OutboxService outboxService;
+
+	@Autowired
+	private NodeIdentity nodeIdentity;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	private long nextRecordId;
+
+	@BeforeEach
+	void setUp() {
+		TestFixtures fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+		fixtures.student("ss1");
+		fixtures.pendingRequest("ss1", 4);
+		schoolStatisticsRegistry.reconcileAll();
+		nextRecordId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM outbox", Long.class) + 1;
+	}
+
+	@Test
+	void localWritesAreCounted() {
+		schoolStatisticsRegistry.requestSubmitted("ss2");
+		schoolStatisticsRegistry.decisionRecorded("ss1", true, 4);
+		schoolStatisticsRegistry.decisionRecorded("ss2", false, 3);
+
+		SchoolStatistics statistics = schoolStatisticsRegistry.current();
+		assertThat(statistics.getPendingRequests()).isZero();
+		assertThat(statistics.getAcceptedToday()).isEqualTo(1);
+		assertThat(statistics.getRejectedToday()).isEqualTo(1);
+		assertThat(statistics.getActiveStudentsToday()).isEqualTo(2);
+		assertThat(statistics.getPointsIssued()).isEqualTo(4);
+	}
+
+	@Test
+	void otherNodesRecordsAreCountedOnceEvenWhenLate() {
+		long late = nextRecordId++;
+		OutboxRecord request = record(nextRecordId++, OTHER_NODE, EventType.PENDING, 6, null, Instant.now());
+		OutboxRecord decision = record(late, OTHER_NODE, EventType.ACCEPTED, 5, 1L, Instant.now());
+
+		schoolStatisticsRegistry.onRecord(request);
+		schoolStatisticsRegistry.onRecord(decision);
+		schoolStatisticsRegistry.onRecord(decision);
+		schoolStatisticsRegistry.onRecord(request);
+
+		SchoolStatistics statistics = schoolStatisticsRegistry.current();
+		assertThat(statistics.getPendingRequests()).isEqualTo(1);
+		assertThat(statistics.getAcceptedToday()).isEqualTo(1);
+		assertThat(statistics.getPointsIssued()).isEqualTo(5);
+	}
+
+	@Test
+	void ownAndSeededRecordsAreSkipped() {
+		long seeded = nextRecordId - 1;
+		schoolStatisticsRegistry.onRecord(
+				record(nextRecordId++, nodeIdentity.getId(), EventType.PENDING, 2, null, Instant.now()));
+		schoolStatisticsRegistry.onRecord(record(seeded, OTHER_NODE, EventType.PENDING, 2, null, Instant.now()));
+
+		assertThat(schoolStatisticsRegistry.current().getPendingRequests()).isEqualTo(1);
+	}
+
+	@Test
+	void decisionsCountTowardsTheUtcDayTheyWereWritten() {
+		LocalDate today = LocalDate.now(ZoneOffset.UTC);
+		Instant yesterday = today.minusDays(1).atTime(23, 59).toInstant(ZoneOffset.UTC);
+		Instant tomorrow = today.plusDays(1).atStartOfDay(ZoneOffset.UTC).toInstant().plus(1, ChronoUnit.SECONDS);
+
+		schoolStatisticsRegistry.onRecord(record(nextRecordId++, OTHER_NODE, EventType.ACCEPTED, 1, 1L, yesterday));
+		SchoolStatistics statistics = schoolStatisticsRegistry.current();
+		assertThat(statistics.getPendingRequests()).isZero();
+		assertThat(statistics.getAcceptedToday()).isZero();
+		assertThat(statistics.getPointsIssued()).isEqualTo(1);
+
+		schoolStatisticsRegistry.onRecord(record(nextRecordId++, OTHER_NODE, EventType.REJECTED, 0, 2L, tomorrow));
+		statistics = schoolStatisticsRegistry.current();
+		assertThat(statistics.getDay()).isEqualTo(today.plusDays(1));
+		assertThat(statistics.getRejectedToday()).isEqualTo(1);
+		assertThat(statistics.getActiveStudentsToday()).isEqualTo(1);
+	}
+
+	private OutboxRecord record(long id, String originNode, EventType type, int pointDiff, Long requestId,
+			Instant createdAt) {
+		Event event = Event.builder().id(id).pointDiff(pointDiff).creditDiff(0).type(type).build();
+		return OutboxRecord.builder()
+				.id(id)
+				.originNode(originNode)
+				.aggregateType(OutboxRecord.AGGREGATE_EVENT)
+				.aggregateId(String.valueOf(id))
+				.changeType(type.getValue())
+				.payload(outboxService.eventPayload(event, "ss1", requestId))
+				.createdAt(createdAt)
+				.build();
+	}
+}
@@ -0,0 +1,68 @@
+package org.hdschools.timebank.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.sql.Timestamp;
+import java.time.Instant;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.support.SqlBudgetTest;
+import org.hdschools.timebank.support.TestFixtures;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Checks that writes outside the request paths, archival and user import, still move the ETags
+ * of the data they change.
+ */
+@SqlBudgetTest
+class StudentVersionRegistryTests {
+
+	@Autowired
+	private StudentVersionRegistry studentVersionRegistry;
+
+	@Autowired
+	private EventArchiveService eventArchiveService;
+
+	@Autowired
+	private UserImportService userImportService;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		TestFixtures fixtures = new TestFixtures(jdbcTemplate);
+		fixtures.clear();
+		fixtures.student("sv1");
+		fixtures.student("sv2");
+	}
+
+	@Test
+	void archivingChangesHistoryETagOfAffectedStudentsOnly() {
+		Timestamp old = Timestamp.from(Instant.parse("2020-01-01T00:00:00Z"));
+		jdbcTemplate.update("INSERT INTO event (init_stu_id, point_diff, credit_diff, type, created_at, decided_at) "
+				+ "VALUES ((SELECT id FROM stu_user WHERE user_id = 'sv1'), 2, 0, ?, ?, ?)",
+				EventType.PENDING_CODE, old, old);
+		String archivedStudent = studentVersionRegistry.studentETag("sv1");
+		String otherStudent = studentVersionRegistry.studentETag("sv2");
+
+		assertThat(eventArchiveService.archiveOlderThan(Instant.parse("2021-01-01T00:00:00Z"))).isEqualTo(1);
+
+		assertThat(studentVersionRegistry.studentETag("sv1")).isNotEqualTo(archivedStudent);
+		assertThat(studentVersionRegistry.studentETag("sv2")).isEqualTo(otherStudent);
+	}
+
+	@Test
+	void importingStudentsChangesLeaderboardETags() throws IOException {
+		String leaderboard = studentVersionRegistry.leaderboardETag("sv1");
+
+		assertThat(userImportService.importUsers(UserImportService.TYPE_STUDENT, new StringReader("sv3,secret\n"))
+				.getInserted()).isEqualTo(1);
+
+		assertThat(studentVersionRegistry.leaderboardETag("sv1")).isNotEqualTo(leaderboard);
+	}
+}
@@ -0,0 +1,74 @@
+package org.hdschools.timebank.support;
+
+import io.r2dbc.spi.Connection;
+import io.r2dbc.spi.ConnectionFactories;
+import io.r2dbc.spi.ConnectionFactory;
+import io.r2dbc.spi.ConnectionFactoryMetadata;
+import io.r2dbc.spi.ConnectionFactoryOptions;
+import io.r2dbc.spi.ConnectionFactoryProvider;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import org.reactivestreams.Publisher;
+import reactor.core.publisher.Mono;
+
+/**
+ * Lets a {@link SqlRecorder} see the statements of the R2DBC request path.
+ * <p>
+ * Registered for URLs like {@code r2dbc:recording:h2:mem:///db}: the first protocol segment names the
+ * driver that actually connects, and every statement created on its connections is reported to the
+ * recorder.
+ */
+public class RecordingConnectionFactoryProvider implements ConnectionFactoryProvider {
+
+	public static final String DRIVER = "recording";
+
+	@Override
+	public ConnectionFactory create(ConnectionFactoryOptions options) {
+		String protocol = (String) options.getRequiredValue(ConnectionFactoryOptions.PROTOCOL);
+		int separator = protocol.indexOf(':');
+		ConnectionFactoryOptions.Builder delegateOptions = options.mutate()
+				.option(ConnectionFactoryOptions.DRIVER, separator < 0 ? protocol : protocol.substring(0, separator));
+		if (separator < 0) {
+			delegateOptions.option(ConnectionFactoryOptions.PROTOCOL, "");
+		} else {
+			delegateOptions.option(ConnectionFactoryOptions.PROTOCOL, protocol.substring(separator + 1));
+		}
+		ConnectionFactory delegate = ConnectionFactories.get(delegateOptions.build());
+		return new ConnectionFactory() {
+			@Override
+			public Publisher<? extends Connection> create() {
+				return Mono.from(delegate.create()).map(RecordingConnectionFactoryProvider::recording);
+			}
+
+			@Override
+			public ConnectionFactoryMetadata getMetadata() {
+				return delegate.getMetadata();
+			}
+		};
+	}
+
+	@Override
+	public boolean supports(ConnectionFactoryOptions options) {
+		return DRIVER.equals(options.getValue(ConnectionFactoryOptions.DRIVER))
+				&& options.hasOption(ConnectionFactoryOptions.PROTOCOL);
+	}
+
+	@Override
+	public String getDriver() {
+		return DRIVER;
+	}
+
+	private static Connection recording(Connection connection) {
+		return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[] {Connection.class},
+				(proxy, method, args) -> {
+					if (method.getName().equals("createStatement")) {
+						SqlRecorder.recordReactive((String) args[0]);
+					}
+					try {
+						return method.invoke(connection, args);
+					} catch (InvocationTargetException e) {
+						throw e.getCause();
+					}
+				});
+	}
+}
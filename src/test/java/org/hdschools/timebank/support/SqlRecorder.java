@@ -0,0 +1,102 @@
+package org.hdschools.timebank.support;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+/**
+ * Records the SQL statements executed on the recording thread.
+ * <p>
+ * Statements from other threads, such as scheduled jobs, are ignored, so a test measures exactly
+ * what the code it calls (or a MockMvc request, which runs on the test thread) sends to the database.
+ * A JDBC batch counts as one statement. Statements on the R2DBC request path, reported by
+ * {@link RecordingConnectionFactoryProvider}, are recorded from any thread, since they complete on
+ * whichever thread the driver uses.
+ */
+public class SqlRecorder implements QueryExecutionListener {
+
+	private final List<String> statements = new CopyOnWriteArrayList<>();
+	private volatile Thread recordingThread;
+	private volatile String workerPrefix;
+
+	private static volatile SqlRecorder active;
+
+	/**
+	 * Clears previous statements and starts recording on the calling thread.
+	 */
+	public void start() {
+		start(null);
+	}
+
+	/**
+	 * Clears previous statements and starts recording on the calling thread and on worker threads
+	 * whose names start with the given prefix, for requests that complete on an executor.
+	 *
+	 * @param workerPrefix thread name prefix of the executor, or {@code null}
+	 */
+	public void start(String workerPrefix) {
+		statements.clear();
+		this.workerPrefix = workerPrefix;
+		recordingThread = Thread.currentThread();
+		active = this;
+	}
+
+	/**
+	 * Stops recording.
+	 *
+	 * @return the statements recorded since {@link #start()}
+	 */
+	public List<String> stop() {
+		recordingThread = null;
+		workerPrefix = null;
+		active = null;
+		return List.copyOf(statements);
+	}
+
+	/**
+	 * Stops recording and fails if more statements than the budget were executed.
+	 * The failure message lists every statement.
+	 *
+	 * @param budget maximum number of statements
+	 * @return the recorded statements
+	 */
+	public List<String> assertAtMost(int budget) {
+		List<String> recorded = stop();
+		if (recorded.size() > budget) {
+			throw new AssertionError("Expected at most " + budget + " SQL statements but " + recorded.size()
+					+ " were executed:\n  " + String.join("\n  ", recorded));
+		}
+		return recorded;
+	}
+
+	/**
+	 * Records an R2DBC statement on the recorder that is currently recording, if any.
+	 *
+	 * @param sql the statement
+	 */
+	static void recordReactive(String sql) {
+		SqlRecorder recorder = active;
+		if (recorder != null && recorder.recordingThread != null) {
+			recorder.statements.add(sql);
+		}
+	}
+
+	@Override
+	public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+	}
+
+	@Override
+	public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+		Thread thread = Thread.currentThread();
+		String prefix = workerPrefix;
+		if (recordingThread == null
+				|| (thread != recordingThread && (prefix == null || !thread.getName().startsWith(prefix)))) {
+			return;
+		}
+		for (QueryInfo queryInfo : queryInfoList) {
+			statements.add(queryInfo.getQuery());
+		}
+	}
+}
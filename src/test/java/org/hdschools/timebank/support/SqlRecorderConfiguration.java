@@ -0,0 +1,33 @@
+package org.hdschools.timebank.support;
+
+import javax.sql.DataSource;
+import org.hdschools.timebank.config.JdbcInstrumentationConfig;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Attaches the {@link SqlRecorder} to the proxy around every {@link DataSource} in the context.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+public class SqlRecorderConfiguration {
+
+	@Bean
+	public SqlRecorder sqlRecorder() {
+		return new SqlRecorder();
+	}
+
+	@Bean
+	public static BeanPostProcessor sqlRecordingDataSourcePostProcessor(ObjectProvider<SqlRecorder> sqlRecorder) {
+		return new BeanPostProcessor() {
+			@Override
+			public Object postProcessAfterInitialization(Object bean, String beanName) {
+				if (bean instanceof DataSource dataSource) {
+					return JdbcInstrumentationConfig.withListener(dataSource, beanName, sqlRecorder.getObject());
+				}
+				return bean;
+			}
+		};
+	}
+}
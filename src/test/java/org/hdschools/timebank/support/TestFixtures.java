@@ -0,0 +1,94 @@
+package org.hdschools.timebank.support;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import org.hdschools.timebank.model.EventType;
+import org.hdschools.timebank.model.StuDetails;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Inserts accounts, tokens and events directly, so that setting up a test costs no recorded statements
+ * in the code under test.
+ */
+public class TestFixtures {
+
+	private static final String[] TABLES = {"token", "event", "event_archive", "stu_user", "sta_user", "stu_details",
+			"stu_rollup", "outbox", "stu_carry_forward"};
+
+	private final JdbcTemplate jdbcTemplate;
+
+	public TestFixtures(JdbcTemplate jdbcTemplate) {
+		this.jdbcTemplate = jdbcTemplate;
+	}
+
+	/**
+	 * Removes all rows written by previous tests.
+	 */
+	public void clear() {
+		for (String table : TABLES) {
+			jdbcTemplate.update("DELETE FROM " + table);
+		}
+	}
+
+	/**
+	 * Creates a student with zeroed details.
+	 *
+	 * @return the stu_user primary key
+	 */
+	public long student(String userId) {
+		jdbcTemplate.update("INSERT INTO stu_details (user_id, accumulated_credits) VALUES (?, ?)", userId,
+				StuDetails.INITIAL_CREDITS);
+		return account("stu_user", userId);
+	}
+
+	/**
+	 * Creates a staff member.
+	 *
+	 * @return the sta_user primary key
+	 */
+	public long staff(String userId) {
+		return account("sta_user", userId);
+	}
+
+	/**
+	 * Issues a valid token.
+	 *
+	 * @param id       the account primary key
+	 * @param userType "student" or "staff"
+	 * @return the bearer token
+	 */
+	public String token(long id, String userType) {
+		String token = UUID.randomUUID().toString();
+		jdbcTemplate.update("INSERT INTO token (token, user_id, user_type, expires_at) VALUES (?, ?, ?, ?)",
+				token, id, userType, Timestamp.from(Instant.now().plus(30, ChronoUnit.MINUTES)));
+		return token;
+	}
+
+	/**
+	 * Creates a pending request from an existing student.
+	 *
+	 * @return the event id
+	 */
+	public long pendingRequest(String studentUserId, int pointChange) {
+		jdbcTemplate.update("INSERT INTO event (init_stu_id, point_diff, credit_diff, type, content_html) "
+				+ "VALUES ((SELECT id FROM stu_user WHERE user_id = ?), ?, 0, ?, '<p>Helped out</p>')",
+				studentUserId, pointChange, EventType.PENDING_CODE);
+		return jdbcTemplate.queryForObject("SELECT MAX(id) FROM event", Long.class);
+	}
+
+	/**
+	 * Creates an accepted decision for an existing student. The staff member need not exist.
+	 */
+	public void acceptedDecision(String studentUserId, String staffUserId, int pointDiff, int creditDiff) {
+		jdbcTemplate.update("INSERT INTO event (init_sta_id, recv_stu_id, point_diff, credit_diff, type) "
+				+ "VALUES ((SELECT id FROM sta_user WHERE user_id = ?), (SELECT id FROM stu_user WHERE user_id = ?), "
+				+ "?, ?, ?)", staffUserId, studentUserId, pointDiff, creditDiff, EventType.ACCEPTED_CODE);
+	}
+
+	private long account(String table, String userId) {
+		jdbcTemplate.update("INSERT INTO " + table + " (user_id, password) VALUES (?, 'hash')", userId);
+		return jdbcTemplate.queryForObject("SELECT id FROM " + table + " WHERE user_id = ?", Long.class, userId);
+	}
+}
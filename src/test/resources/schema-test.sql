@@ -0,0 +1,161 @@
+-- Portable copy of db.migration/table_init.sql for the embedded test database
+CREATE TABLE token (
+    id bigint NOT NULL AUTO_INCREMENT,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    token varchar(64) NOT NULL UNIQUE,
+    user_id bigint NOT NULL,
+    user_type varchar(20) NOT NULL,
+    expires_at timestamp NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE stu_user (
+    id bigint NOT NULL AUTO_INCREMENT,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    user_id varchar(255) NOT NULL UNIQUE,
+    password varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE sta_user (
+    id bigint NOT NULL AUTO_INCREMENT,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    user_id varchar(255) NOT NULL UNIQUE,
+    password varchar(255) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE event (
+    id bigint NOT NULL AUTO_INCREMENT,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    init_stu_id bigint DEFAULT NULL,
+    init_sta_id bigint DEFAULT NULL,
+    recv_stu_id bigint DEFAULT NULL,
+    recv_sta_id bigint DEFAULT NULL,
+    point_diff int NOT NULL DEFAULT 0,
+    credit_diff int NOT NULL DEFAULT 0,
+    type tinyint NOT NULL,
+    content_html varchar(100000) DEFAULT NULL,
+    idempotency_key varchar(128) DEFAULT NULL UNIQUE,
+    claimed_by varchar(255) DEFAULT NULL,
+    claim_expires_at timestamp DEFAULT NULL,
+    decided_at timestamp DEFAULT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_event_init_stu FOREIGN KEY (init_stu_id) REFERENCES stu_user (id),
+    CONSTRAINT fk_event_init_sta FOREIGN KEY (init_sta_id) REFERENCES sta_user (id),
+    CONSTRAINT fk_event_recv_stu FOREIGN KEY (recv_stu_id) REFERENCES stu_user (id),
+    CONSTRAINT fk_event_recv_sta FOREIGN KEY (recv_sta_id) REFERENCES sta_user (id)
+);
+CREATE INDEX idx_event_created_at ON event (created_at);
+CREATE INDEX idx_event_init_stu_id ON event (init_stu_id);
+CREATE INDEX idx_event_recv_stu_id ON event (recv_stu_id);
+CREATE INDEX idx_event_open_requests ON event (type, decided_at);
+
+CREATE TABLE stu_details (
+    id bigint NOT NULL AUTO_INCREMENT,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    user_id varchar(255) NOT NULL UNIQUE,
+    accumulated_points int NOT NULL DEFAULT 0,
+    accumulated_credits int NOT NULL DEFAULT 0,
+    requests_made int NOT NULL DEFAULT 0,
+    requests_approved int NOT NULL DEFAULT 0,
+    total_point_additions int NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE stu_balance (
+    id bigint NOT NULL AUTO_INCREMENT,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    user_id varchar(255) NOT NULL UNIQUE,
+    accumulated_points int NOT NULL DEFAULT 0,
+    accumulated_credits int NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE job_lease (
+    name varchar(64) NOT NULL,
+    owner varchar(128) DEFAULT NULL,
+    expires_at timestamp NOT NULL,
+    heartbeat_at timestamp DEFAULT NULL,
+    last_completed_at timestamp DEFAULT NULL,
+    PRIMARY KEY (name)
+);
+
+CREATE TABLE outbox (
+    id bigint NOT NULL AUTO_INCREMENT,
+    created_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    origin_node varchar(128) NOT NULL,
+    aggregate_type varchar(32) NOT NULL,
+    aggregate_id varchar(255) NOT NULL,
+    change_type varchar(32) NOT NULL,
+    payload varchar(1024) DEFAULT NULL,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE outbox_cursor (
+    consumer varchar(128) NOT NULL,
+    last_id bigint NOT NULL,
+    PRIMARY KEY (consumer)
+);
+
+CREATE TABLE stu_rollup (
+    id bigint NOT NULL AUTO_INCREMENT,
+    updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    user_id varchar(255) NOT NULL,
+    bucket_type varchar(8) NOT NULL,
+    bucket_start date NOT NULL,
+    points int NOT NULL DEFAULT 0,
+    credits int NOT NULL DEFAULT 0,
+    requests_made int NOT NULL DEFAULT 0,
+    requests_approved int NOT NULL DEFAULT 0,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_stu_rollup_bucket UNIQUE (user_id, bucket_type, bucket_start)
+);
+
+CREATE TABLE event_archive (
+    id bigint NOT NULL,
+    created_at timestamp NOT NULL,
+    archived_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    init_stu_id bigint DEFAULT NULL,
+    init_sta_id bigint DEFAULT NULL,
+    recv_stu_id bigint DEFAULT NULL,
+    recv_sta_id bigint DEFAULT NULL,
+    point_diff int NOT NULL DEFAULT 0,
+    credit_diff int NOT NULL DEFAULT 0,
+    type tinyint NOT NULL,
+    content_html varchar(100000) DEFAULT NULL,
+    idempotency_key varchar(128) DEFAULT NULL,
+    claimed_by varchar(255) DEFAULT NULL,
+    claim_expires_at timestamp DEFAULT NULL,
+    decided_at timestamp DEFAULT NULL,
+    PRIMARY KEY (id)
+);
+CREATE INDEX idx_event_archive_recv_stu_id ON event_archive (recv_stu_id);
+
+CREATE TABLE stu_carry_forward (
+    id bigint NOT NULL AUTO_INCREMENT,
+    updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    user_id varchar(255) NOT NULL UNIQUE,
+    points int NOT NULL DEFAULT 0,
+    credits int NOT NULL DEFAULT 0,
+    requests_made int NOT NULL DEFAULT 0,
+    requests_approved int NOT NULL DEFAULT 0,
+    point_additions int NOT NULL DEFAULT 0,
+    PRIMARY KEY (id)
+);
+
+CREATE TABLE tenant (
+    tenant_id varchar(20) NOT NULL,
+    updated_at timestamp NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    name varchar(128) NOT NULL,
+    jdbc_url varchar(255) NOT NULL,
+    username varchar(64) DEFAULT NULL,
+    password varchar(128) DEFAULT NULL,
+    enabled boolean NOT NULL DEFAULT TRUE,
+    PRIMARY KEY (tenant_id)
+);